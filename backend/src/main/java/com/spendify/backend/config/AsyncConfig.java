@@ -0,0 +1,54 @@
+package com.spendify.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${streaming.pool-size:8}")
+    private int streamingPoolSize;
+
+    /** Runs long background jobs (imports, recomputes) off the request threads. */
+    @Bean
+    public ThreadPoolTaskExecutor backgroundTaskExecutor(
+            @Value("${background.pool-size:4}") int poolSize,
+            @Value("${background.queue-capacity:100}") int queueCapacity) {
+        return executor("background-", poolSize, queueCapacity);
+    }
+
+    /** Worker pool for the nightly budget snapshot job; each task closes the months of one chunk of users. */
+    @Bean
+    public ThreadPoolTaskExecutor snapshotTaskExecutor(@Value("${budget.snapshot.workers:4}") int workers) {
+        return executor("snapshot-", workers, workers * 2);
+    }
+
+    /**
+     * Declaring our own executor disables Boot's default applicationTaskExecutor,
+     * so streaming responses (e.g. transaction export) get a dedicated pool here.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamingTaskExecutor() {
+        return executor("streaming-", streamingPoolSize, 50);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingTaskExecutor());
+    }
+
+    private static ThreadPoolTaskExecutor executor(String prefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(prefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -1,24 +1,36 @@
 package com.spendify.backend.controller;
 
+import com.spendify.backend.dto.AnalyticsComparisonResponse;
 import com.spendify.backend.dto.CategorySummaryResponse;
 import com.spendify.backend.dto.DailyBreakdownResponse;
+import com.spendify.backend.dto.MerchantAnalyticsResponse;
+import com.spendify.backend.dto.TimeSeriesResponse;
 import com.spendify.backend.service.AnalyticsService;
+import com.spendify.backend.service.MerchantSketchService;
+import com.spendify.backend.service.TimeGranularity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/analytics")
 @RequiredArgsConstructor
 public class AnalyticsController {
 
+    private static final int MAX_TIME_SERIES_POINTS = 5000;
+    private static final int MAX_MOVING_WINDOW = 365;
+
     private final AnalyticsService analyticsService;
+    private final MerchantSketchService merchantSketchService;
 
     @GetMapping("/summary")
     public ResponseEntity<CategorySummaryResponse> getCategorySpendingSummary(
@@ -33,4 +45,69 @@ public class AnalyticsController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         return ResponseEntity.ok(analyticsService.getDailySpendingBreakdown(startDate, endDate));
     }
+
+    @GetMapping("/merchants")
+    public ResponseEntity<MerchantAnalyticsResponse> getMerchantAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (startDate.isAfter(endDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate must not be after endDate");
+        }
+        if (limit < 1 || limit > MerchantSketchService.MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MerchantSketchService.MAX_LIMIT);
+        }
+        return ResponseEntity.ok(merchantSketchService.getMerchantAnalytics(startDate, endDate, limit));
+    }
+
+    @GetMapping("/timeseries")
+    public ResponseEntity<TimeSeriesResponse> getTimeSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "DAY") TimeGranularity granularity,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Integer window) {
+        if (startDate.isAfter(endDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate must not be after endDate");
+        }
+        if (granularity.bucketCount(startDate, endDate) > MAX_TIME_SERIES_POINTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Time series are limited to " + MAX_TIME_SERIES_POINTS
+                    + " points; use a coarser granularity or a shorter range");
+        }
+        if (window != null && (window < 1 || window > MAX_MOVING_WINDOW)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "window must be between 1 and " + MAX_MOVING_WINDOW);
+        }
+        return ResponseEntity.ok(analyticsService.getTimeSeries(startDate, endDate, granularity, categoryId, window));
+    }
+
+    /**
+     * Compares spending across periods in one call. Either pass explicit
+     * {@code startDate}/{@code endDate} pairs (repeated, first pair is the
+     * reference), or a {@code type} of MONTH, QUARTER or YEAR to compare the
+     * period containing {@code date} with the previous one and the same
+     * period last year.
+     */
+    @GetMapping("/compare")
+    public ResponseEntity<AnalyticsComparisonResponse> comparePeriods(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> endDate,
+            @RequestParam(defaultValue = "MONTH") AnalyticsService.ComparisonType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        if (startDate == null && endDate == null) {
+            return ResponseEntity.ok(analyticsService.comparePeriods(type, date != null ? date : LocalDate.now()));
+        }
+        if (startDate == null || endDate == null || startDate.size() != endDate.size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every startDate needs a matching endDate");
+        }
+        if (startDate.size() > AnalyticsService.MAX_COMPARISON_PERIODS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + AnalyticsService.MAX_COMPARISON_PERIODS + " periods can be compared");
+        }
+        for (int i = 0; i < startDate.size(); i++) {
+            if (startDate.get(i).isAfter(endDate.get(i))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate must not be after endDate");
+            }
+        }
+        return ResponseEntity.ok(analyticsService.comparePeriods(startDate, endDate));
+    }
 }
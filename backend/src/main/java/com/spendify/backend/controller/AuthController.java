@@ -5,6 +5,7 @@ import com.spendify.backend.dto.LoginRequest;
 import com.spendify.backend.dto.RefreshTokenRequest;
 import com.spendify.backend.dto.RegisterRequest;
 import com.spendify.backend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import com.spendify.backend.dto.UserResponse;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -30,9 +31,10 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<AuthenticationResponse> login(
-            @RequestBody LoginRequest request
+            @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest
     ) {
-        return ResponseEntity.ok(authService.login(request));
+        return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
     }
 
     @GetMapping("/me")
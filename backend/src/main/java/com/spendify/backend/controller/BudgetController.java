@@ -1,5 +1,6 @@
 package com.spendify.backend.controller;
 
+import com.spendify.backend.dto.BudgetOverviewResponse;
 import com.spendify.backend.dto.BudgetResponse;
 import com.spendify.backend.dto.CreateBudgetRequest;
 import com.spendify.backend.dto.UpdateBudgetRequest;
@@ -29,6 +30,11 @@ public class BudgetController {
         return ResponseEntity.ok(budgetService.getCurrentMonthBudget());
     }
 
+    @GetMapping("/current-month/overview")
+    public ResponseEntity<BudgetOverviewResponse> getCurrentMonthOverview() {
+        return ResponseEntity.ok(budgetService.getCurrentMonthOverview());
+    }
+
     @GetMapping("/history")
     public ResponseEntity<Page<BudgetResponse>> getBudgetHistory(Pageable pageable) {
         return ResponseEntity.ok(budgetService.getBudgetHistory(pageable));
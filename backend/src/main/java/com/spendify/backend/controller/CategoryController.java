@@ -1,5 +1,6 @@
 package com.spendify.backend.controller;
 
+import com.spendify.backend.dto.CategoryReassignmentStatus;
 import com.spendify.backend.dto.CategoryResponse;
 import com.spendify.backend.dto.CreateCategoryRequest;
 import com.spendify.backend.dto.UpdateCategoryRequest;
@@ -35,8 +36,12 @@ public class CategoryController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCategory(@PathVariable Long id, @RequestParam(required = false) Long reassignTo) {
-        categoryService.deleteCategory(id, reassignTo);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<CategoryReassignmentStatus> deleteCategory(@PathVariable Long id, @RequestParam(required = false) Long reassignTo) {
+        return ResponseEntity.accepted().body(categoryService.deleteCategory(id, reassignTo));
+    }
+
+    @GetMapping("/reassignments/{jobId}")
+    public ResponseEntity<CategoryReassignmentStatus> getReassignmentStatus(@PathVariable Long jobId) {
+        return ResponseEntity.ok(categoryService.getReassignmentStatus(jobId));
     }
 }
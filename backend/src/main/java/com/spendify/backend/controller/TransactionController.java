@@ -1,18 +1,31 @@
 package com.spendify.backend.controller;
 
+import com.spendify.backend.dto.CategorySuggestionResponse;
+import com.spendify.backend.dto.TransactionBulkRequest;
+import com.spendify.backend.dto.TransactionBulkResponse;
 import com.spendify.backend.dto.TransactionCreateRequest;
+import com.spendify.backend.dto.TransactionImportStatus;
 import com.spendify.backend.dto.TransactionResponse;
 import com.spendify.backend.dto.TransactionUpdateRequest;
+import com.spendify.backend.service.StatementFormat;
+import com.spendify.backend.service.TransactionExportService;
+import com.spendify.backend.service.TransactionImportService;
 import com.spendify.backend.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 
 @RestController
@@ -21,12 +34,29 @@ import java.time.LocalDate;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionImportService transactionImportService;
 
     @PostMapping
     public ResponseEntity<TransactionResponse> createTransaction(@Valid @RequestBody TransactionCreateRequest request) {
         return new ResponseEntity<>(transactionService.createTransaction(request), HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<TransactionBulkResponse> bulkTransactions(@Valid @RequestBody TransactionBulkRequest request) {
+        return ResponseEntity.ok(transactionService.bulkTransactions(request));
+    }
+
+    @GetMapping("/category-suggestion")
+    public ResponseEntity<CategorySuggestionResponse> suggestCategory(
+            @RequestParam(required = false) String merchant,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String text) {
+        return transactionService.suggestCategory(merchant, description, text)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     @GetMapping
     public ResponseEntity<Page<TransactionResponse>> getTransactions(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -37,6 +67,41 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.getTransactions(startDate, endDate, categoryId, merchant, pageable));
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long categoryId) {
+        TransactionExportService.Format exportFormat;
+        try {
+            exportFormat = TransactionExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+        boolean csv = exportFormat == TransactionExportService.Format.CSV;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + (csv ? "csv" : "ndjson") + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(transactionExportService.export(exportFormat, gzip, startDate, endDate, categoryId));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<TransactionImportStatus> importTransactions(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "CSV") StatementFormat format) {
+        return ResponseEntity.accepted().body(transactionImportService.startImport(file, format));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<TransactionImportStatus> getImportStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(transactionImportService.getImportStatus(jobId));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TransactionResponse> getTransactionById(@PathVariable Long id) {
         return ResponseEntity.ok(transactionService.getTransactionById(id));
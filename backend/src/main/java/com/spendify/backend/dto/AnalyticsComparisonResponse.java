@@ -0,0 +1,51 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Spending for several periods side by side. The first period is the
+ * reference: on every other period, {@code delta} is the reference total
+ * minus that period's total and {@code growthRate} is the delta relative to
+ * that period (null when the period spent nothing).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnalyticsComparisonResponse {
+    private List<PeriodSummary> periods;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PeriodSummary {
+        private String label;
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private BigDecimal total;
+        private BigDecimal delta;
+        private Double growthRate;
+        private List<CategoryTotal> categories;
+        private List<DailyBreakdownResponse.DailySummary> daily;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class CategoryTotal {
+        private Long categoryId;
+        private String categoryName;
+        private BigDecimal total;
+        private BigDecimal delta;
+        private Double growthRate;
+    }
+}
@@ -0,0 +1,23 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetOverviewResponse {
+    private String yearMonth;
+    private BigDecimal totalLimit;
+    private BigDecimal totalSpent;
+    private double percentageSpent;
+    private BigDecimal projectedTotal;
+    private BigDecimal overspendAmount;
+    private List<BudgetResponse> budgets;
+}
@@ -19,5 +19,7 @@ public class BudgetResponse {
     private BigDecimal totalSpent;
     private double percentageSpent;
     private BigDecimal projectedTotal;
+    private BigDecimal projectedLow;
+    private BigDecimal projectedHigh;
     private BigDecimal overspendAmount;
 }
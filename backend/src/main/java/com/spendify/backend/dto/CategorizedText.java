@@ -0,0 +1,8 @@
+package com.spendify.backend.dto;
+
+/** Labelled text of one transaction, used to train the categorizer. */
+public interface CategorizedText {
+    Long getCategoryId();
+    String getMerchant();
+    String getDescription();
+}
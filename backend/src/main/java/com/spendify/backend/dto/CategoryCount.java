@@ -0,0 +1,13 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryCount {
+    private Long categoryId;
+    private long transactionCount;
+}
@@ -0,0 +1,17 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryMonthTotal {
+    private Long categoryId;
+    private int year;
+    private int month;
+    private BigDecimal total;
+}
@@ -0,0 +1,24 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryReassignmentStatus {
+    private Long jobId;
+    private Long categoryId;
+    private Long targetCategoryId;
+    private String status;
+    private long total;
+    private long moved;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,16 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategorySuggestionResponse {
+    private Long categoryId;
+    private String categoryName;
+    private double confidence;
+}
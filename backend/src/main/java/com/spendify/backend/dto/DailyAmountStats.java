@@ -0,0 +1,19 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyAmountStats {
+    private Long categoryId;
+    private LocalDate date;
+    private Long transactionCount;
+    private BigDecimal total;
+    private BigDecimal sumOfSquares;
+}
@@ -0,0 +1,16 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyTotalRow {
+    private LocalDate date;
+    private long cents;
+    private long transactionCount;
+}
@@ -0,0 +1,14 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LogAmountMoments {
+    private Long count;
+    private Double sum;
+    private Double sumOfSquares;
+}
@@ -0,0 +1,47 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Merchant statistics for a date range. Values are sketch estimates: each
+ * merchant's figure over-counts by at most its {@code maxError}, and
+ * {@code distinctMerchants} is accurate to within a few percent.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MerchantAnalyticsResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long distinctMerchants;
+    private List<MerchantSpend> topBySpend;
+    private List<MerchantFrequency> topByFrequency;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MerchantSpend {
+        private String merchant;
+        private BigDecimal total;
+        private BigDecimal maxError;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MerchantFrequency {
+        private String merchant;
+        private long transactionCount;
+        private long maxError;
+    }
+}
@@ -0,0 +1,8 @@
+package com.spendify.backend.dto;
+
+/** A merchant, the category a transaction there was filed under and whether that category was guessed. */
+public interface MerchantCategory {
+    String getMerchant();
+    Long getCategoryId();
+    boolean isAutoCategorized();
+}
@@ -0,0 +1,14 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlyCount {
+    private int year;
+    private int month;
+    private long transactionCount;
+}
@@ -21,4 +21,6 @@ public class OcrResponse {
     private double confidence;
     private List<String> warnings;
     private boolean requiresManualReview;
+    private Long suggestedCategoryId;
+    private String suggestedCategoryName;
 }
@@ -0,0 +1,10 @@
+package com.spendify.backend.dto;
+
+import java.math.BigDecimal;
+
+public interface RollupChecksum {
+    Long getUserId();
+    Long getCategoryId();
+    BigDecimal getTotal();
+    Long getTransactionCount();
+}
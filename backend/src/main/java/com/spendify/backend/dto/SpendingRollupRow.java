@@ -0,0 +1,18 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SpendingRollupRow {
+    private LocalDate spendDate;
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal total;
+}
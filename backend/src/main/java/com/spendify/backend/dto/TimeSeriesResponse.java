@@ -0,0 +1,36 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimeSeriesResponse {
+    private String granularity;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int window;
+    private BigDecimal total;
+    private List<Point> points;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Point {
+        private LocalDate periodStart;
+        private LocalDate periodEnd;
+        private BigDecimal total;
+        private long transactionCount;
+        private BigDecimal cumulative;
+        private BigDecimal movingAverage;
+    }
+}
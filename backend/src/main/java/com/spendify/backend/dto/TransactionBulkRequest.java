@@ -0,0 +1,25 @@
+package com.spendify.backend.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionBulkRequest {
+
+    @Size(max = 1000, message = "At most 1000 transactions can be created per request")
+    private List<TransactionCreateRequest> create;
+
+    @Size(max = 1000, message = "At most 1000 transactions can be updated per request")
+    private List<TransactionBulkUpdate> update;
+
+    @Size(max = 1000, message = "At most 1000 transactions can be deleted per request")
+    private List<Long> delete;
+}
@@ -0,0 +1,31 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionBulkResponse {
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemResult {
+        private String operation;
+        private int index;
+        private Long id;
+        private boolean success;
+        private String error;
+        private TransactionResponse transaction;
+    }
+}
@@ -0,0 +1,22 @@
+package com.spendify.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionBulkUpdate {
+
+    @NotNull(message = "Transaction ID is required")
+    private Long id;
+
+    @NotNull(message = "Changes are required")
+    @Valid
+    private TransactionUpdateRequest changes;
+}
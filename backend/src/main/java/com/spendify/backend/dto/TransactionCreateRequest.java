@@ -26,7 +26,7 @@ public class TransactionCreateRequest {
 
     private String description;
 
-    @NotNull(message = "Category ID is required")
+    /** Optional; when missing the category is suggested from the merchant and description. */
     private Long categoryId;
 
     private String merchant;
@@ -0,0 +1,21 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionExportRow {
+    private Long id;
+    private LocalDate transactionDate;
+    private BigDecimal amount;
+    private String merchant;
+    private String description;
+    private Long categoryId;
+    private String categoryName;
+}
@@ -0,0 +1,10 @@
+package com.spendify.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface TransactionFingerprint {
+    LocalDate getTransactionDate();
+    BigDecimal getAmount();
+    String getMerchant();
+}
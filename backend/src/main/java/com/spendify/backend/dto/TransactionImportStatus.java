@@ -0,0 +1,27 @@
+package com.spendify.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionImportStatus {
+    private String jobId;
+    private String status;
+    private String format;
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long skipped;
+    private long failed;
+    private List<String> errors;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -36,4 +36,7 @@ public class Budget {
     @Column(name = "\"limit\"", nullable = false, precision = 10, scale = 2)
     private BigDecimal limit;
 
+    /** Highest alert threshold (percent of limit) already notified; {@code null} when none. */
+    private Integer alertedPercent;
+
 }
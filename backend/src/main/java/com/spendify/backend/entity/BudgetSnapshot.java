@@ -0,0 +1,61 @@
+package com.spendify.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Final figures for a budget whose month has ended, written once by the
+ * nightly snapshot job. Rows are never updated; a late change to the month
+ * deletes the row and the next run freezes it again.
+ */
+@Entity
+@Immutable
+@Table(name = "budget_snapshots", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"budgetId"})
+}, indexes = {
+    @Index(columnList = "userId, yearMonth")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long budgetId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false, length = 7) // YYYY-MM
+    private String yearMonth;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal limitAmount;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalSpent;
+
+    @Column(nullable = false)
+    private double percentageSpent;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal overspendAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "categories", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"userId", "name"})
@@ -37,4 +39,7 @@ public class Category {
     private boolean isSystem;
 
     private Integer displayOrder;
+
+    /** Set when the category is deleted; it stays hidden until its transactions have been moved. */
+    private LocalDateTime deletionRequestedAt;
 }
@@ -0,0 +1,60 @@
+package com.spendify.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background job moving a deleted category's transactions to another
+ * category. {@code lastTransactionId} is the keyset cursor: every matching
+ * transaction up to it has been moved and committed.
+ */
+@Entity
+@Table(name = "category_reassignments", indexes = {
+    @Index(name = "idx_category_reassignments_status", columnList = "status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryReassignment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private Long targetCategoryId;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private long moved;
+
+    @Column(nullable = false)
+    private long lastTransactionId;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,35 @@
+package com.spendify.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress marker for a resumable batch job. {@code runKey} identifies the
+ * run (e.g. the month being closed); {@code lastId} is the highest id whose
+ * work, and every id before it, has committed.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String jobName;
+
+    @Column(nullable = false, length = 32)
+    private String runKey;
+
+    @Column(nullable = false)
+    private long lastId;
+
+    private LocalDateTime updatedAt;
+}
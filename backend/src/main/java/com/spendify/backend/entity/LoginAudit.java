@@ -24,6 +24,8 @@ public class LoginAudit {
     @JoinColumn(name = "userId")
     private User user;
 
+    private String email;
+
     @Column(nullable = false)
     private String ipAddress;
 
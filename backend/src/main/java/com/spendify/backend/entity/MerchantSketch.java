@@ -0,0 +1,57 @@
+package com.spendify.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Merchant sketches for one user and month: heavy hitters by spend and by
+ * visit count, and a HyperLogLog of distinct merchants. {@code transactionCount}
+ * records how many transactions the sketch covers so it can be checked
+ * against the spending rollup; {@code stale} is set when a transaction in the
+ * month was removed or changed, which the sketches cannot subtract.
+ * {@code version} moves on every write, including {@code markStale}.
+ */
+@Entity
+@Table(name = "merchant_sketches", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"userId", "yearMonth"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 7) // YYYY-MM
+    private String yearMonth;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] spendSketch;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] frequencySketch;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] distinctSketch;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false)
+    private boolean stale;
+
+    @Version
+    private Long version;
+}
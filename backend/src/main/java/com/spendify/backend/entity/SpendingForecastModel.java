@@ -0,0 +1,50 @@
+package com.spendify.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Sufficient statistics of one user's daily spending in one category since
+ * {@code startDate}: transaction count, amount sum and sum of squares per
+ * weekday, and amount sum per calendar month. Packed as doubles in
+ * {@code state}; see {@code SpendingForecastService.Model}. {@code stale} marks
+ * a placeholder that has not been seeded from history yet.
+ */
+@Entity
+@Table(name = "spending_forecast_models", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"userId", "categoryId"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingForecastModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] state;
+
+    @Column(nullable = false)
+    private boolean stale;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,46 @@
+package com.spendify.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated spending per user, category and day. Maintained incrementally
+ * by {@link com.spendify.backend.service.SpendingRollupService} in the same
+ * transaction as the transaction write, so it only ever covers rows that are
+ * not soft-deleted.
+ */
+@Entity
+@Table(name = "spending_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"userId", "spendDate", "categoryId"}),
+        indexes = @Index(name = "idx_spending_rollups_user_date", columnList = "userId, spendDate"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private LocalDate spendDate;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private long transactionCount;
+}
@@ -0,0 +1,45 @@
+package com.spendify.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running statistics of the natural log of transaction amounts for one user
+ * and category, kept with Welford's algorithm so each write is O(1).
+ */
+@Entity
+@Table(name = "spending_stats", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"userId", "categoryId"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private long sampleCount;
+
+    @Column(nullable = false)
+    private double mean;
+
+    @Column(nullable = false)
+    private double m2;
+
+    private LocalDateTime updatedAt;
+}
@@ -22,8 +22,10 @@ import java.time.LocalDateTime;
 @Where(clause = "is_deleted = false")
 public class Transaction {
 
+    // Pooled sequence so batched inserts fetch one id block per 50 rows.
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -55,4 +57,8 @@ public class Transaction {
 
     private LocalDateTime deletedDate;
 
+    // Set while the category is the application's guess rather than the user's choice.
+    @Column(nullable = false)
+    private boolean autoCategorized;
+
 }
@@ -0,0 +1,56 @@
+package com.spendify.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A soft-deleted transaction moved out of the live table once its undo window
+ * has long passed. Keeps the original id; user and category are plain ids so
+ * deleting either later is not blocked by archived rows.
+ */
+@Entity
+@Table(name = "transactions_archive", indexes = {
+    @Index(name = "idx_transactions_archive_user", columnList = "userId, transactionDate")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchive {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDate transactionDate;
+
+    @Column(nullable = false)
+    private String merchant;
+
+    private String description;
+
+    private String receiptHash;
+
+    private String receiptUrl;
+
+    private LocalDateTime deletedDate;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
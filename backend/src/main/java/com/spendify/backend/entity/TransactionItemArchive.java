@@ -0,0 +1,36 @@
+package com.spendify.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/** A line item of an archived transaction; see {@link TransactionArchive}. */
+@Entity
+@Table(name = "transaction_items_archive", indexes = {
+    @Index(name = "idx_transaction_items_archive_transaction", columnList = "transactionId")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionItemArchive {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+}
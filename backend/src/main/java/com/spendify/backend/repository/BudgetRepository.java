@@ -1,16 +1,73 @@
 package com.spendify.backend.repository;
 
 import com.spendify.backend.entity.Budget;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
-    Optional<Budget> findByUserIdAndYearMonth(Long userId, String yearMonth);
-    Optional<Budget> findByUserIdAndYearMonthAndCategoryId(Long userId, String yearMonth, Long categoryId);
-    Page<Budget> findAllByUserId(Long userId, Pageable pageable);
+
+    // Explicit queries filter on budgets.user_id itself; the derived forms went through a
+    // join to users, which kept the (user_id, year_month, category_id) index out of reach.
+
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND b.yearMonth = :yearMonth")
+    Optional<Budget> findByUserIdAndYearMonth(@Param("userId") Long userId, @Param("yearMonth") String yearMonth);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND b.yearMonth = :yearMonth")
+    List<Budget> findAllByUserIdAndYearMonth(@Param("userId") Long userId, @Param("yearMonth") String yearMonth);
+
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND b.yearMonth = :yearMonth AND b.category.id = :categoryId")
+    Optional<Budget> findByUserIdAndYearMonthAndCategoryId(@Param("userId") Long userId,
+                                                           @Param("yearMonth") String yearMonth,
+                                                           @Param("categoryId") Long categoryId);
+
+    @EntityGraph(attributePaths = {"user", "category"})
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId")
+    Page<Budget> findAllByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /** Locks a user's budgets for months in [fromYearMonth, toYearMonth] (both "yyyy-MM"). */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Budget b JOIN FETCH b.category " +
+           "WHERE b.user.id = :userId AND b.yearMonth BETWEEN :fromYearMonth AND :toYearMonth")
+    List<Budget> findForUpdate(
+            @Param("userId") Long userId,
+            @Param("fromYearMonth") String fromYearMonth,
+            @Param("toYearMonth") String toYearMonth
+    );
+
+    @Modifying
+    @Query("DELETE FROM Budget b WHERE b.category.id = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    /** Users, in id order after {@code afterUserId}, with budgets before {@code cutoff} that have no snapshot yet. */
+    @Query("SELECT DISTINCT b.user.id FROM Budget b " +
+           "WHERE b.yearMonth < :cutoff AND b.user.id > :afterUserId " +
+           "AND NOT EXISTS (SELECT 1 FROM BudgetSnapshot s WHERE s.budgetId = b.id) " +
+           "ORDER BY b.user.id")
+    List<Long> findUserIdsPendingSnapshot(
+            @Param("cutoff") String cutoff,
+            @Param("afterUserId") Long afterUserId,
+            Pageable pageable
+    );
+
+    @Query("SELECT b FROM Budget b JOIN FETCH b.user JOIN FETCH b.category " +
+           "WHERE b.user.id IN :userIds AND b.yearMonth < :cutoff " +
+           "AND NOT EXISTS (SELECT 1 FROM BudgetSnapshot s WHERE s.budgetId = b.id)")
+    List<Budget> findPendingSnapshot(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("cutoff") String cutoff
+    );
 }
@@ -0,0 +1,30 @@
+package com.spendify.backend.repository;
+
+import com.spendify.backend.entity.BudgetSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BudgetSnapshotRepository extends JpaRepository<BudgetSnapshot, Long> {
+
+    List<BudgetSnapshot> findByBudgetIdIn(Collection<Long> budgetIds);
+
+    @Modifying
+    @Query("DELETE FROM BudgetSnapshot s WHERE s.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("DELETE FROM BudgetSnapshot s WHERE s.userId = :userId " +
+           "AND s.yearMonth BETWEEN :fromYearMonth AND :toYearMonth")
+    int deleteForMonths(
+            @Param("userId") Long userId,
+            @Param("fromYearMonth") String fromYearMonth,
+            @Param("toYearMonth") String toYearMonth
+    );
+}
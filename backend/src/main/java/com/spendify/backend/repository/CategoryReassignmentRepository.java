@@ -0,0 +1,23 @@
+package com.spendify.backend.repository;
+
+import com.spendify.backend.entity.CategoryReassignment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategoryReassignmentRepository extends JpaRepository<CategoryReassignment, Long> {
+
+    /** Serialises chunks of one job, including across instances resuming it at startup. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM CategoryReassignment r WHERE r.id = :id")
+    Optional<CategoryReassignment> findForUpdate(@Param("id") Long id);
+
+    List<CategoryReassignment> findByStatus(String status);
+}
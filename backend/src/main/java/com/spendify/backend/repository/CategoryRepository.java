@@ -2,6 +2,8 @@ package com.spendify.backend.repository;
 
 import com.spendify.backend.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,6 +11,9 @@ import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-    List<Category> findByUserIdOrIsSystem(Long userId, boolean isSystem);
+    @Query("SELECT c FROM Category c WHERE c.user.id = :userId AND c.deletionRequestedAt IS NULL")
+    List<Category> findByUserIdAndDeletionRequestedAtIsNull(@Param("userId") Long userId);
+
+    List<Category> findByIsSystem(boolean isSystem);
     Optional<Category> findByNameAndUserId(String name, Long userId);
 }
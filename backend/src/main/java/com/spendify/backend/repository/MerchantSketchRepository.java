@@ -0,0 +1,28 @@
+package com.spendify.backend.repository;
+
+import com.spendify.backend.entity.MerchantSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MerchantSketchRepository extends JpaRepository<MerchantSketch, Long> {
+
+    List<MerchantSketch> findByUserIdAndYearMonthIn(Long userId, Collection<String> yearMonths);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM MerchantSketch s WHERE s.userId = :userId AND s.yearMonth = :yearMonth")
+    Optional<MerchantSketch> findForUpdate(@Param("userId") Long userId, @Param("yearMonth") String yearMonth);
+
+    @Modifying
+    @Query("UPDATE MerchantSketch s SET s.stale = true, s.version = s.version + 1 WHERE s.userId = :userId AND s.yearMonth IN :yearMonths")
+    int markStale(@Param("userId") Long userId, @Param("yearMonths") Collection<String> yearMonths);
+}
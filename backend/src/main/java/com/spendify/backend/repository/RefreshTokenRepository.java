@@ -2,12 +2,28 @@ package com.spendify.backend.repository;
 
 import com.spendify.backend.entity.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByToken(String token);
-    Optional<RefreshToken> findByUserId(Long userId);
+
+    boolean existsByToken(String token);
+
+    @Query("SELECT r FROM RefreshToken r WHERE r.user.id = :userId")
+    Optional<RefreshToken> findByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.token = :token")
+    int deleteByTokenValue(@Param("token") String token);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiryDate < :now")
+    int deleteAllExpiredBefore(@Param("now") LocalDateTime now);
 }
@@ -0,0 +1,42 @@
+package com.spendify.backend.repository;
+
+import com.spendify.backend.entity.SpendingForecastModel;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SpendingForecastModelRepository extends JpaRepository<SpendingForecastModel, Long> {
+
+    List<SpendingForecastModel> findByUserIdAndCategoryIdIn(Long userId, Collection<Long> categoryIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM SpendingForecastModel m WHERE m.userId = :userId AND m.categoryId IN :categoryIds")
+    List<SpendingForecastModel> findForUpdate(@Param("userId") Long userId, @Param("categoryIds") Collection<Long> categoryIds);
+
+    /**
+     * Inserts a stale placeholder for the category unless it has a model, in the
+     * caller's transaction. A concurrent writer that inserted the same row first
+     * holds its key lock until commit, so the existence check waits and then
+     * finds it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO spending_forecast_models (user_id, category_id, start_date, state, stale) " +
+                   "SELECT :userId, :categoryId, :startDate, :state, CAST(1 AS BIT) " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM spending_forecast_models m " +
+                   "WHERE m.user_id = :userId AND m.category_id = :categoryId)", nativeQuery = true)
+    int insertPlaceholder(@Param("userId") Long userId, @Param("categoryId") Long categoryId,
+                          @Param("startDate") LocalDate startDate, @Param("state") byte[] state);
+
+    @Modifying
+    @Query("DELETE FROM SpendingForecastModel m WHERE m.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
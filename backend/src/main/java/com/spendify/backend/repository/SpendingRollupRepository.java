@@ -0,0 +1,139 @@
+package com.spendify.backend.repository;
+
+import com.spendify.backend.dto.CategoryCount;
+import com.spendify.backend.dto.CategoryMonthTotal;
+import com.spendify.backend.dto.CategorySpendingSummary;
+import com.spendify.backend.dto.DailySpending;
+import com.spendify.backend.dto.DailyTotalRow;
+import com.spendify.backend.dto.MonthlyCount;
+import com.spendify.backend.dto.RollupChecksum;
+import com.spendify.backend.entity.SpendingRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface SpendingRollupRepository extends JpaRepository<SpendingRollup, Long>, SpendingRollupRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE SpendingRollup r SET r.total = r.total + :amount, r.transactionCount = r.transactionCount + :count " +
+           "WHERE r.userId = :userId AND r.categoryId = :categoryId AND r.spendDate = :spendDate")
+    int increment(
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId,
+            @Param("spendDate") LocalDate spendDate,
+            @Param("amount") BigDecimal amount,
+            @Param("count") long count
+    );
+
+    @Query("SELECT c.id as categoryId, c.name as categoryName, SUM(r.total) as total " +
+           "FROM SpendingRollup r JOIN Category c ON c.id = r.categoryId " +
+           "WHERE r.userId = :userId AND r.spendDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY c.id, c.name HAVING SUM(r.transactionCount) > 0 ORDER BY total DESC")
+    List<CategorySpendingSummary> findSpendingByCategory(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT r.spendDate as date, SUM(r.total) as total " +
+           "FROM SpendingRollup r " +
+           "WHERE r.userId = :userId AND r.spendDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY r.spendDate HAVING SUM(r.transactionCount) > 0 ORDER BY r.spendDate")
+    List<DailySpending> findSpendingByDay(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT new com.spendify.backend.dto.DailyTotalRow(" +
+           "r.spendDate, CAST(SUM(r.total) * 100 AS Long), SUM(r.transactionCount)) " +
+           "FROM SpendingRollup r " +
+           "WHERE r.userId = :userId AND r.spendDate BETWEEN :startDate AND :endDate " +
+           "AND (:categoryId IS NULL OR r.categoryId = :categoryId) " +
+           "GROUP BY r.spendDate HAVING SUM(r.transactionCount) > 0 ORDER BY r.spendDate")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<DailyTotalRow> streamDailyTotals(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryId") Long categoryId
+    );
+
+    @Query("SELECT new com.spendify.backend.dto.MonthlyCount(" +
+           "YEAR(r.spendDate), MONTH(r.spendDate), SUM(r.transactionCount)) " +
+           "FROM SpendingRollup r " +
+           "WHERE r.userId = :userId AND r.spendDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY YEAR(r.spendDate), MONTH(r.spendDate)")
+    List<MonthlyCount> countByMonth(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Monthly totals for several categories at once, so a page of budgets
+     * can be priced with a single query. Callers pick the (category, month)
+     * pairs they need out of the result.
+     */
+    @Query("SELECT new com.spendify.backend.dto.CategoryMonthTotal(" +
+           "r.categoryId, YEAR(r.spendDate), MONTH(r.spendDate), SUM(r.total)) " +
+           "FROM SpendingRollup r " +
+           "WHERE r.userId = :userId AND r.categoryId IN :categoryIds " +
+           "AND r.spendDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY r.categoryId, YEAR(r.spendDate), MONTH(r.spendDate)")
+    List<CategoryMonthTotal> sumTotalsByCategoryAndMonth(
+            @Param("userId") Long userId,
+            @Param("categoryIds") Collection<Long> categoryIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /** A user's transaction count per category, from the maintained per-day counters. */
+    @Query("SELECT new com.spendify.backend.dto.CategoryCount(r.categoryId, SUM(r.transactionCount)) " +
+           "FROM SpendingRollup r WHERE r.userId = :userId GROUP BY r.categoryId")
+    List<CategoryCount> countByCategory(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(r.transactionCount), 0) FROM SpendingRollup r " +
+           "WHERE r.userId = :userId AND r.categoryId = :categoryId")
+    long countTransactions(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    @Query("SELECT SUM(r.total) FROM SpendingRollup r WHERE r.userId = :userId AND r.categoryId = :categoryId " +
+           "AND r.spendDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumTotal(
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT r.userId as userId, r.categoryId as categoryId, SUM(r.total) as total, " +
+           "SUM(r.transactionCount) as transactionCount " +
+           "FROM SpendingRollup r GROUP BY r.userId, r.categoryId")
+    List<RollupChecksum> findChecksums();
+
+    @Modifying
+    @Query("DELETE FROM SpendingRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("INSERT INTO SpendingRollup (userId, categoryId, spendDate, total, transactionCount) " +
+           "SELECT t.user.id, t.category.id, t.transactionDate, SUM(t.amount), COUNT(t) " +
+           "FROM Transaction t WHERE t.user.id = :userId " +
+           "GROUP BY t.user.id, t.category.id, t.transactionDate")
+    int rebuildForUser(@Param("userId") Long userId);
+}
@@ -0,0 +1,16 @@
+package com.spendify.backend.repository;
+
+import com.spendify.backend.dto.SpendingRollupRow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SpendingRollupRepositoryCustom {
+
+    /**
+     * Returns the non-empty rollup cells of a user that fall in any of the
+     * given inclusive date ranges, ordered by date. Overlapping ranges return
+     * each cell once.
+     */
+    List<SpendingRollupRow> findRowsInRanges(Long userId, List<LocalDate[]> ranges);
+}
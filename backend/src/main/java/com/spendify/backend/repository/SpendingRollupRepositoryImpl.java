@@ -0,0 +1,41 @@
+package com.spendify.backend.repository;
+
+import com.spendify.backend.dto.SpendingRollupRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class SpendingRollupRepositoryImpl implements SpendingRollupRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SpendingRollupRow> findRowsInRanges(Long userId, List<LocalDate[]> ranges) {
+        if (ranges.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder jpql = new StringBuilder("SELECT new com.spendify.backend.dto.SpendingRollupRow(" +
+                "r.spendDate, c.id, c.name, r.total) " +
+                "FROM SpendingRollup r JOIN Category c ON c.id = r.categoryId " +
+                "WHERE r.userId = :userId AND r.transactionCount > 0 AND (");
+        for (int i = 0; i < ranges.size(); i++) {
+            if (i > 0) {
+                jpql.append(" OR ");
+            }
+            jpql.append("r.spendDate BETWEEN :start").append(i).append(" AND :end").append(i);
+        }
+        jpql.append(") ORDER BY r.spendDate");
+
+        TypedQuery<SpendingRollupRow> query = entityManager.createQuery(jpql.toString(), SpendingRollupRow.class)
+                .setParameter("userId", userId);
+        for (int i = 0; i < ranges.size(); i++) {
+            query.setParameter("start" + i, ranges.get(i)[0]);
+            query.setParameter("end" + i, ranges.get(i)[1]);
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,38 @@
+package com.spendify.backend.repository;
+
+import com.spendify.backend.entity.SpendingStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface SpendingStatsRepository extends JpaRepository<SpendingStats, Long> {
+
+    /**
+     * Inserts empty statistics for the pair unless it has a row, in the caller's
+     * transaction; returns 1 when this call created it. A concurrent writer that
+     * inserted the same row first holds its key lock until commit, so the
+     * existence check waits and then finds it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO spending_stats (user_id, category_id, sample_count, mean, m2) " +
+                   "SELECT :userId, :categoryId, 0, 0, 0 " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM spending_stats s " +
+                   "WHERE s.user_id = :userId AND s.category_id = :categoryId)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SpendingStats s WHERE s.userId = :userId AND s.categoryId = :categoryId")
+    Optional<SpendingStats> findForUpdate(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("DELETE FROM SpendingStats s WHERE s.userId = :userId AND s.categoryId IN :categoryIds")
+    int deleteByUserIdAndCategoryIds(@Param("userId") Long userId, @Param("categoryIds") Collection<Long> categoryIds);
+}
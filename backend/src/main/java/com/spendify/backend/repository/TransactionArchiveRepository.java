@@ -0,0 +1,32 @@
+package com.spendify.backend.repository;
+
+import com.spendify.backend.entity.TransactionArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface TransactionArchiveRepository extends JpaRepository<TransactionArchive, Long> {
+
+    /** Copies the given soft-deleted transactions; live ones are skipped. */
+    @Modifying
+    @Query(value = "INSERT INTO transactions_archive (id, user_id, category_id, amount, transaction_date, merchant, " +
+                   "description, receipt_hash, receipt_url, deleted_date, archived_at) " +
+                   "SELECT t.id, t.user_id, t.category_id, t.amount, t.transaction_date, t.merchant, " +
+                   "t.description, t.receipt_hash, t.receipt_url, t.deleted_date, :archivedAt " +
+                   "FROM transactions t WHERE t.id IN (:ids) AND t.is_deleted = CAST(1 AS BIT)", nativeQuery = true)
+    int archiveDeleted(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /** Copies the line items of the given soft-deleted transactions; items of live ones are skipped. */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_items_archive (id, transaction_id, name, quantity, price) " +
+                   "SELECT i.id, i.transaction_id, i.name, i.quantity, i.price " +
+                   "FROM transaction_items i JOIN transactions t ON t.id = i.transaction_id " +
+                   "WHERE t.id IN (:transactionIds) AND t.is_deleted = CAST(1 AS BIT)", nativeQuery = true)
+    int archiveItems(@Param("transactionIds") Collection<Long> transactionIds);
+}
@@ -2,8 +2,20 @@ package com.spendify.backend.repository;
 
 import com.spendify.backend.entity.TransactionItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface TransactionItemRepository extends JpaRepository<TransactionItem, Long> {
+
+    /** Deletes the line items of the given soft-deleted transactions; items of live ones are kept. */
+    @Modifying
+    @Query(value = "DELETE FROM transaction_items WHERE transaction_id IN (" +
+                   "SELECT t.id FROM transactions t WHERE t.id IN (:transactionIds) AND t.is_deleted = CAST(1 AS BIT))",
+           nativeQuery = true)
+    int deleteByTransactionIds(@Param("transactionIds") Collection<Long> transactionIds);
 }
@@ -1,18 +1,31 @@
 package com.spendify.backend.repository;
 
+import com.spendify.backend.dto.CategorizedText;
+import com.spendify.backend.dto.DailyAmountStats;
+import com.spendify.backend.dto.LogAmountMoments;
+import com.spendify.backend.dto.MerchantCategory;
+import com.spendify.backend.dto.RollupChecksum;
+import com.spendify.backend.dto.TransactionExportRow;
+import com.spendify.backend.dto.TransactionFingerprint;
 import com.spendify.backend.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -31,6 +44,59 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             Pageable pageable
     );
 
+    // DTO projection over a forward-only cursor: rows are never managed, so the
+    // persistence context stays empty however many rows are streamed.
+    @Query("SELECT new com.spendify.backend.dto.TransactionExportRow(" +
+            "t.id, t.transactionDate, t.amount, t.merchant, t.description, c.id, c.name) " +
+            "FROM Transaction t JOIN t.category c WHERE t.user.id = :userId " +
+            "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR t.transactionDate <= :endDate) " +
+            "AND (:categoryId IS NULL OR c.id = :categoryId) " +
+            "ORDER BY t.transactionDate, t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TransactionExportRow> streamExportRows(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryId") Long categoryId
+    );
+
+    /** A user's transactions whose category they chose themselves, for their categorizer. */
+    @Query("SELECT t.category.id AS categoryId, t.merchant AS merchant, t.description AS description " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.autoCategorized = false")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CategorizedText> streamCategorizedText(@Param("userId") Long userId);
+
+    /** A user's merchants and categories in the order the transactions were created, so later rows win. */
+    @Query("SELECT t.merchant AS merchant, t.category.id AS categoryId, t.autoCategorized AS autoCategorized " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.merchant IS NOT NULL ORDER BY t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<MerchantCategory> streamMerchantCategories(@Param("userId") Long userId);
+
+    /** Every user's recent transactions they filed in system categories themselves, for the shared categorizer. */
+    @Query("SELECT t.category.id AS categoryId, t.merchant AS merchant, t.description AS description " +
+            "FROM Transaction t WHERE t.category.isSystem = true AND t.transactionDate >= :since " +
+            "AND t.autoCategorized = false")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CategorizedText> streamSystemCategorizedText(@Param("since") LocalDate since);
+
+    @Query("SELECT t.transactionDate AS transactionDate, t.amount AS amount, t.merchant AS merchant " +
+            "FROM Transaction t WHERE t.user.id = :userId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<TransactionFingerprint> streamFingerprints(@Param("userId") Long userId);
+
+    @Query("SELECT t.transactionDate AS transactionDate, t.amount AS amount, t.merchant AS merchant " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.transactionDate BETWEEN :startDate AND :endDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<TransactionFingerprint> streamFingerprintsBetween(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
     @Query("SELECT t FROM Transaction t WHERE t.id = :id")
     Optional<Transaction> findByIdIncludingDeleted(@Param("id") Long id);
 
@@ -42,15 +108,37 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("endDate") LocalDate endDate
     );
 
+    /**
+     * Keyset page of a category's transaction ids after {@code afterId}, soft-deleted
+     * ones included since they still reference the category.
+     */
+    @Query(value = "SELECT t.id FROM transactions t WHERE t.user_id = :userId AND t.category_id = :categoryId " +
+                   "AND t.id > :afterId ORDER BY t.id", nativeQuery = true)
+    List<Long> findIdsInCategoryAfter(@Param("userId") Long userId,
+                                      @Param("categoryId") Long categoryId,
+                                      @Param("afterId") long afterId,
+                                      Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) FROM transactions t WHERE t.user_id = :userId AND t.category_id = :categoryId",
+           nativeQuery = true)
+    long countInCategoryIncludingDeleted(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
     @Modifying
-    @Query("UPDATE Transaction t SET t.category.id = :newCategoryId WHERE t.user.id = :userId AND t.category.id = :oldCategoryId")
-    void reassignCategory(
-            @Param("userId") Long userId,
-            @Param("oldCategoryId") Long oldCategoryId,
-            @Param("newCategoryId") Long newCategoryId
-    );
+    @Query(value = "UPDATE transactions SET category_id = :newCategoryId " +
+                   "WHERE id IN (:ids) AND category_id = :oldCategoryId", nativeQuery = true)
+    int moveToCategory(@Param("ids") Collection<Long> ids,
+                       @Param("oldCategoryId") Long oldCategoryId,
+                       @Param("newCategoryId") Long newCategoryId);
 
-    long countByCategoryId(Long categoryId);
+    /** Oldest-first page of transactions soft-deleted before {@code cutoff}, for archiving. */
+    @Query(value = "SELECT t.id FROM transactions t WHERE t.deleted_date < :cutoff AND t.is_deleted = CAST(1 AS BIT) " +
+                   "ORDER BY t.deleted_date, t.id", nativeQuery = true)
+    List<Long> findIdsDeletedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /** Hard-deletes the given transactions, skipping any that are live again. */
+    @Modifying
+    @Query(value = "DELETE FROM transactions WHERE id IN (:ids) AND is_deleted = CAST(1 AS BIT)", nativeQuery = true)
+    int purgeDeleted(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT c.id as categoryId, c.name as categoryName, SUM(t.amount) as total " +
            "FROM Transaction t JOIN t.category c " +
@@ -71,4 +159,25 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
+
+    @Query("SELECT t.user.id as userId, t.category.id as categoryId, SUM(t.amount) as total, " +
+           "COUNT(t) as transactionCount " +
+           "FROM Transaction t GROUP BY t.user.id, t.category.id")
+    List<RollupChecksum> findRollupChecksums();
+
+    @Query("SELECT new com.spendify.backend.dto.LogAmountMoments(" +
+           "COUNT(t), SUM(LN(t.amount)), SUM(LN(t.amount) * LN(t.amount))) " +
+           "FROM Transaction t WHERE t.user.id = :userId AND t.category.id = :categoryId AND t.amount > 0")
+    LogAmountMoments findLogAmountMoments(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    @Query("SELECT new com.spendify.backend.dto.DailyAmountStats(" +
+           "t.category.id, t.transactionDate, COUNT(t), SUM(t.amount), SUM(t.amount * t.amount)) " +
+           "FROM Transaction t WHERE t.user.id = :userId AND t.category.id IN :categoryIds " +
+           "AND t.transactionDate >= :since " +
+           "GROUP BY t.category.id, t.transactionDate")
+    List<DailyAmountStats> findDailyAmountStats(
+            @Param("userId") Long userId,
+            @Param("categoryIds") Collection<Long> categoryIds,
+            @Param("since") LocalDate since
+    );
 }
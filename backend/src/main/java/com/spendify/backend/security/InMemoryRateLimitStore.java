@@ -0,0 +1,104 @@
+package com.spendify.backend.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets held in process memory. Each bucket is a single
+ * {@link AtomicLong} packing the last refill time (upper 44 bits, epoch millis)
+ * and the token balance in thousandths of a token (lower 20 bits), so refill
+ * and consume happen in one CAS.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+    static final int MAX_CAPACITY = (int) (TOKEN_MASK / MILLI);
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public Decision tryConsume(String key, BucketSpec spec, long nowMillis) {
+        if (spec.capacity() > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Rate limit capacity cannot exceed " + MAX_CAPACITY);
+        }
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(spec, nowMillis));
+        return bucket.tryConsume(nowMillis);
+    }
+
+    /** Full buckets are indistinguishable from new ones, so they can be dropped to bound memory. */
+    @Override
+    public void evictIdle(long nowMillis) {
+        buckets.entrySet().removeIf(entry -> entry.getValue().isFull(nowMillis));
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+        private final AtomicLong state;
+        private final long capacityMilli;
+        private final BucketSpec spec;
+
+        Bucket(BucketSpec spec, long nowMillis) {
+            this.spec = spec;
+            this.capacityMilli = spec.capacity() * MILLI;
+            this.state = new AtomicLong(pack(nowMillis, capacityMilli));
+        }
+
+        Decision tryConsume(long now) {
+            while (true) {
+                long current = state.get();
+                long refilled = refill(current, now);
+                long tokens = refilled & TOKEN_MASK;
+                boolean allowed = tokens >= MILLI;
+                long next = allowed ? refilled - MILLI : refilled;
+                if (next == current || state.compareAndSet(current, next)) {
+                    long balance = next & TOKEN_MASK;
+                    return new Decision(allowed, spec.capacity(), (int) (balance / MILLI),
+                            millisToRefill(capacityMilli - balance), allowed ? 0 : millisToRefill(MILLI - balance));
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return (refill(state.get(), now) & TOKEN_MASK) >= capacityMilli;
+        }
+
+        private long refill(long packed, long now) {
+            long last = packed >>> TOKEN_BITS;
+            long tokens = packed & TOKEN_MASK;
+            long elapsed = now - last;
+            if (elapsed <= 0) {
+                return packed;
+            }
+            if (tokens >= capacityMilli) {
+                return pack(now, capacityMilli);
+            }
+            long added = elapsed * spec.refillPerMinute() * MILLI / 60_000;
+            if (added == 0) {
+                return packed;
+            }
+            if (tokens + added >= capacityMilli) {
+                return pack(now, capacityMilli);
+            }
+            // Advance the clock only by the time actually credited so fractional refill is not lost.
+            long credited = added * 60_000 / (spec.refillPerMinute() * MILLI);
+            return pack(last + credited, tokens + added);
+        }
+
+        private long millisToRefill(long milliTokens) {
+            if (milliTokens <= 0) {
+                return 0;
+            }
+            long millis = milliTokens * 60_000 / (spec.refillPerMinute() * MILLI);
+            return (millis + 999) / 1000;
+        }
+
+        private static long pack(long millis, long milliTokens) {
+            return (millis << TOKEN_BITS) | milliTokens;
+        }
+    }
+}
@@ -30,9 +30,13 @@ public class JwtTokenProvider {
     }
 
     public String generateToken(User user) {
+        return generateToken(user.getId(), user.getEmail());
+    }
+
+    public String generateToken(Long userId, String email) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", user.getId());
-        return generateToken(claims, user.getEmail());
+        claims.put("userId", userId);
+        return generateToken(claims, email);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
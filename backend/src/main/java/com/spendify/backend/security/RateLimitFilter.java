@@ -0,0 +1,109 @@
+package com.spendify.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket throttling per user and endpoint group. Runs after
+ * {@link JwtAuthenticationFilter} so authenticated requests are keyed by
+ * user; anonymous requests (login, register) are keyed by client IP.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitStore store;
+    private final Map<RateLimitGroup, RateLimitStore.BucketSpec> limits = new EnumMap<>(RateLimitGroup.class);
+    private final boolean enabled;
+    private final LongSupplier clock;
+
+    @Autowired
+    public RateLimitFilter(ObjectProvider<RateLimitStore> store,
+                           @Value("${ratelimit.enabled:true}") boolean enabled,
+                           @Value("${ratelimit.ocr.capacity:10}") int ocrCapacity,
+                           @Value("${ratelimit.ocr.refill-per-minute:10}") int ocrRefill,
+                           @Value("${ratelimit.auth.capacity:10}") int authCapacity,
+                           @Value("${ratelimit.auth.refill-per-minute:10}") int authRefill,
+                           @Value("${ratelimit.write.capacity:60}") int writeCapacity,
+                           @Value("${ratelimit.write.refill-per-minute:60}") int writeRefill,
+                           @Value("${ratelimit.read.capacity:300}") int readCapacity,
+                           @Value("${ratelimit.read.refill-per-minute:300}") int readRefill) {
+        this(store.getIfAvailable(InMemoryRateLimitStore::new), enabled, System::currentTimeMillis);
+        limits.put(RateLimitGroup.OCR, new RateLimitStore.BucketSpec(ocrCapacity, ocrRefill));
+        limits.put(RateLimitGroup.AUTH, new RateLimitStore.BucketSpec(authCapacity, authRefill));
+        limits.put(RateLimitGroup.WRITE, new RateLimitStore.BucketSpec(writeCapacity, writeRefill));
+        limits.put(RateLimitGroup.READ, new RateLimitStore.BucketSpec(readCapacity, readRefill));
+    }
+
+    RateLimitFilter(RateLimitStore store, boolean enabled, LongSupplier clock) {
+        this.store = store;
+        this.enabled = enabled;
+        this.clock = clock;
+    }
+
+    void setLimit(RateLimitGroup group, RateLimitStore.BucketSpec spec) {
+        limits.put(group, spec);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitGroup group = RateLimitGroup.resolve(request);
+        RateLimitStore.BucketSpec spec = limits.get(group);
+        String key = group.name() + ":" + clientKey(request);
+        RateLimitStore.Decision decision = store.tryConsume(key, spec, clock.getAsLong());
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+
+        if (!decision.allowed()) {
+            response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        store.evictIdle(clock.getAsLong());
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
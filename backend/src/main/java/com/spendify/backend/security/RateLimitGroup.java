@@ -0,0 +1,27 @@
+package com.spendify.backend.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public enum RateLimitGroup {
+    OCR,
+    AUTH,
+    WRITE,
+    READ;
+
+    public static RateLimitGroup resolve(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path == null || path.isEmpty()) {
+            path = request.getRequestURI();
+        }
+        if (path.startsWith("/ocr")) {
+            return OCR;
+        }
+        if (path.startsWith("/auth")) {
+            return AUTH;
+        }
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> READ;
+            default -> WRITE;
+        };
+    }
+}
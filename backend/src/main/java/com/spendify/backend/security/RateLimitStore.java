@@ -0,0 +1,25 @@
+package com.spendify.backend.security;
+
+/**
+ * Backing store for token buckets. The default is {@link InMemoryRateLimitStore};
+ * registering another bean of this type (e.g. one backed by a shared cache)
+ * makes limits apply across all nodes.
+ */
+public interface RateLimitStore {
+
+    Decision tryConsume(String key, BucketSpec spec, long nowMillis);
+
+    default void evictIdle(long nowMillis) {
+    }
+
+    record BucketSpec(int capacity, int refillPerMinute) {
+        public BucketSpec {
+            if (capacity <= 0 || refillPerMinute <= 0) {
+                throw new IllegalArgumentException("Rate limit capacity and refill must be positive");
+            }
+        }
+    }
+
+    record Decision(boolean allowed, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+}
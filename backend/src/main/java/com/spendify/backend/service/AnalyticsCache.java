@@ -0,0 +1,160 @@
+package com.spendify.backend.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per-user cache of analytics results keyed by query and date range. Entries
+ * are weighed by the number of rows they hold and expire a fixed time after
+ * they were loaded: the events below only reach the node that handled the
+ * write, so the expiry bounds how stale another node's entries can get. A
+ * {@link SpendingChangedEvent} drops only the user's entries whose range
+ * overlaps the changed dates, after the writing transaction commits; a
+ * {@link BudgetChangedEvent} does the same for budget overviews of that month,
+ * and a {@link CategoryChangedEvent} drops all of the user's entries since
+ * they carry category names.
+ * <p>
+ * A load that overlaps an invalidation is not cached: each user maps to a
+ * version stripe that is bumped on invalidation and re-checked before the
+ * loaded value is stored.
+ */
+@Component
+public class AnalyticsCache {
+
+    public enum Query {
+        CATEGORY_SUMMARY,
+        DAILY_BREAKDOWN,
+        BUDGET_OVERVIEW
+    }
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final Cache<Key, Entry> cache;
+    private final Map<Long, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public AnalyticsCache(MeterRegistry meterRegistry,
+                          @Value("${analytics.cache.max-weight:200000}") long maxWeight,
+                          @Value("${analytics.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .removalListener((RemovalListener<Key, Entry>) notification -> {
+                    if (notification.getCause() != RemovalCause.REPLACED) {
+                        unindex(notification.getKey());
+                    }
+                })
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "analytics");
+        Gauge.builder("analytics.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of analytics requests served from the cache")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, Query query, LocalDate start, LocalDate end,
+                     Supplier<T> loader, ToIntFunction<T> rowCount) {
+        Key key = new Key(userId, query, start, end);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached.value();
+        }
+        int stripe = stripe(userId);
+        long version = versions.get(stripe);
+        T value = loader.get();
+        if (versions.get(stripe) == version) {
+            keysByUser.compute(userId, (id, keys) -> {
+                Set<Key> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                indexed.add(key);
+                return indexed;
+            });
+            cache.put(key, new Entry(value, 1 + rowCount.applyAsInt(value)));
+        }
+        return value;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpendingChanged(SpendingChangedEvent event) {
+        versions.incrementAndGet(stripe(event.userId()));
+        Set<Key> keys = keysByUser.get(event.userId());
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            if (event.overlaps(key.start(), key.end())) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        versions.incrementAndGet(stripe(event.userId()));
+        Set<Key> keys = keysByUser.get(event.userId());
+        if (keys == null) {
+            return;
+        }
+        YearMonth month = YearMonth.parse(event.yearMonth());
+        for (Key key : keys) {
+            if (key.query() == Query.BUDGET_OVERVIEW
+                    && !key.start().isAfter(month.atEndOfMonth()) && !key.end().isBefore(month.atDay(1))) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        versions.incrementAndGet(stripe(event.userId()));
+        Set<Key> keys = keysByUser.get(event.userId());
+        if (keys != null) {
+            keys.forEach(cache::invalidate);
+        }
+    }
+
+    double hitRatio() {
+        return cache.stats().hitRate();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.size();
+    }
+
+    private void unindex(Key key) {
+        keysByUser.computeIfPresent(key.userId(), (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static int stripe(Long userId) {
+        return (Long.hashCode(userId) * 0x9E3779B9 >>> 22) & (VERSION_STRIPES - 1);
+    }
+
+    private record Key(Long userId, Query query, LocalDate start, LocalDate end) {
+    }
+
+    private record Entry(Object value, int weight) {
+    }
+}
@@ -1,33 +1,213 @@
 package com.spendify.backend.service;
 
+import com.spendify.backend.dto.AnalyticsComparisonResponse;
 import com.spendify.backend.dto.CategorySpendingSummary;
 import com.spendify.backend.dto.CategorySummaryResponse;
 import com.spendify.backend.dto.DailySpending;
 import com.spendify.backend.dto.DailyBreakdownResponse;
+import com.spendify.backend.dto.DailyTotalRow;
+import com.spendify.backend.dto.SpendingRollupRow;
+import com.spendify.backend.dto.TimeSeriesResponse;
 import com.spendify.backend.entity.User;
 import com.spendify.backend.exception.ResourceNotFoundException;
-import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
 import com.spendify.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
 
-    private final TransactionRepository transactionRepository;
+    public static final int MAX_COMPARISON_PERIODS = 12;
+
+    public enum ComparisonType {
+        MONTH,
+        QUARTER,
+        YEAR
+    }
+
+    private final SpendingRollupRepository spendingRollupRepository;
     private final UserRepository userRepository;
+    private final AnalyticsCache analyticsCache;
 
     public CategorySummaryResponse getCategorySpendingSummary(LocalDate startDate, LocalDate endDate) {
         User user = getCurrentUser();
-        List<CategorySpendingSummary> spendingByCategory = transactionRepository.findSpendingByCategory(user.getId(), startDate, endDate);
+        return analyticsCache.get(user.getId(), AnalyticsCache.Query.CATEGORY_SUMMARY, startDate, endDate,
+                () -> loadCategorySpendingSummary(user, startDate, endDate),
+                response -> response.getSummaries().size());
+    }
+
+    public DailyBreakdownResponse getDailySpendingBreakdown(LocalDate startDate, LocalDate endDate) {
+        User user = getCurrentUser();
+        return analyticsCache.get(user.getId(), AnalyticsCache.Query.DAILY_BREAKDOWN, startDate, endDate,
+                () -> loadDailySpendingBreakdown(user, startDate, endDate),
+                response -> response.getSummaries().size());
+    }
+
+    /**
+     * Streams the user's daily totals in date order and folds them into
+     * gap-filled buckets, so memory is bounded by the number of buckets
+     * rather than the number of days with spending.
+     */
+    @Transactional(readOnly = true)
+    public TimeSeriesResponse getTimeSeries(LocalDate startDate, LocalDate endDate, TimeGranularity granularity,
+                                            Long categoryId, Integer window) {
+        User user = getCurrentUser();
+        int movingWindow = window != null ? window : granularity.getDefaultWindow();
+        TimeSeriesAggregator aggregator = new TimeSeriesAggregator(granularity, startDate, endDate, movingWindow);
+        try (Stream<DailyTotalRow> rows = spendingRollupRepository.streamDailyTotals(user.getId(), startDate, endDate, categoryId)) {
+            rows.forEach(row -> aggregator.accept(row.getDate(), row.getCents(), row.getTransactionCount()));
+        }
+        List<TimeSeriesResponse.Point> points = aggregator.finish();
+        return TimeSeriesResponse.builder()
+                .granularity(granularity.name())
+                .startDate(startDate)
+                .endDate(endDate)
+                .window(movingWindow)
+                .total(BigDecimal.valueOf(aggregator.totalCents(), 2))
+                .points(points)
+                .build();
+    }
+
+    /**
+     * Compares the period containing {@code anchor} with the previous period
+     * and the same period a year earlier (for years: the two previous years).
+     */
+    public AnalyticsComparisonResponse comparePeriods(ComparisonType type, LocalDate anchor) {
+        YearMonth month = YearMonth.from(anchor);
+        List<Period> periods = switch (type) {
+            case MONTH -> List.of(monthPeriod(month), monthPeriod(month.minusMonths(1)), monthPeriod(month.minusYears(1)));
+            case QUARTER -> {
+                YearMonth quarter = month.minusMonths((month.getMonthValue() - 1) % 3);
+                yield List.of(quarterPeriod(quarter), quarterPeriod(quarter.minusMonths(3)), quarterPeriod(quarter.minusYears(1)));
+            }
+            case YEAR -> List.of(yearPeriod(anchor.getYear()), yearPeriod(anchor.getYear() - 1), yearPeriod(anchor.getYear() - 2));
+        };
+        return compare(getCurrentUser(), periods);
+    }
+
+    public AnalyticsComparisonResponse comparePeriods(List<LocalDate> startDates, List<LocalDate> endDates) {
+        List<Period> periods = new ArrayList<>();
+        for (int i = 0; i < startDates.size(); i++) {
+            periods.add(new Period(startDates.get(i) + ".." + endDates.get(i), startDates.get(i), endDates.get(i)));
+        }
+        return compare(getCurrentUser(), periods);
+    }
+
+    /**
+     * Loads the rollup cells for all periods with one query and assigns each
+     * cell to every period that contains it in a single pass.
+     */
+    private AnalyticsComparisonResponse compare(User user, List<Period> periods) {
+        List<LocalDate[]> ranges = periods.stream().map(p -> new LocalDate[]{p.start(), p.end()}).toList();
+        List<SpendingRollupRow> rows = spendingRollupRepository.findRowsInRanges(user.getId(), ranges);
+
+        List<PeriodTotals> totals = periods.stream().map(p -> new PeriodTotals()).toList();
+        for (SpendingRollupRow row : rows) {
+            for (int i = 0; i < periods.size(); i++) {
+                Period period = periods.get(i);
+                if (!row.getSpendDate().isBefore(period.start()) && !row.getSpendDate().isAfter(period.end())) {
+                    totals.get(i).add(row);
+                }
+            }
+        }
+
+        PeriodTotals reference = totals.get(0);
+        List<AnalyticsComparisonResponse.PeriodSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < periods.size(); i++) {
+            Period period = periods.get(i);
+            PeriodTotals current = totals.get(i);
+            boolean isReference = i == 0;
+
+            Set<Long> categoryIds = new LinkedHashSet<>(current.byCategory.keySet());
+            categoryIds.addAll(reference.byCategory.keySet());
+            List<AnalyticsComparisonResponse.CategoryTotal> categories = categoryIds.stream()
+                    .map(id -> {
+                        BigDecimal total = current.byCategory.getOrDefault(id, BigDecimal.ZERO);
+                        BigDecimal referenceTotal = reference.byCategory.getOrDefault(id, BigDecimal.ZERO);
+                        return new AnalyticsComparisonResponse.CategoryTotal(id, reference.names.getOrDefault(id, current.names.get(id)),
+                                total,
+                                isReference ? null : referenceTotal.subtract(total),
+                                isReference ? null : growthRate(referenceTotal, total));
+                    })
+                    .filter(c -> c.getTotal().signum() != 0 || c.getDelta() != null)
+                    .sorted(Comparator.comparing(AnalyticsComparisonResponse.CategoryTotal::getTotal).reversed())
+                    .toList();
+
+            summaries.add(AnalyticsComparisonResponse.PeriodSummary.builder()
+                    .label(period.label())
+                    .startDate(period.start())
+                    .endDate(period.end())
+                    .total(current.total)
+                    .delta(isReference ? null : reference.total.subtract(current.total))
+                    .growthRate(isReference ? null : growthRate(reference.total, current.total))
+                    .categories(categories)
+                    .daily(current.byDay.entrySet().stream()
+                            .map(e -> new DailyBreakdownResponse.DailySummary(e.getKey(), e.getValue()))
+                            .toList())
+                    .build());
+        }
+        return new AnalyticsComparisonResponse(summaries);
+    }
+
+    private static Double growthRate(BigDecimal reference, BigDecimal base) {
+        if (base.signum() == 0) {
+            return null;
+        }
+        return reference.subtract(base).divide(base, 4, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static Period monthPeriod(YearMonth month) {
+        return new Period(month.toString(), month.atDay(1), month.atEndOfMonth());
+    }
+
+    private static Period quarterPeriod(YearMonth firstMonth) {
+        return new Period(firstMonth.getYear() + "-Q" + ((firstMonth.getMonthValue() - 1) / 3 + 1),
+                firstMonth.atDay(1), firstMonth.plusMonths(2).atEndOfMonth());
+    }
+
+    private static Period yearPeriod(int year) {
+        return new Period(String.valueOf(year), LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    private record Period(String label, LocalDate start, LocalDate end) {
+    }
+
+    private static final class PeriodTotals {
+        private BigDecimal total = BigDecimal.ZERO;
+        private final Map<Long, BigDecimal> byCategory = new HashMap<>();
+        private final Map<Long, String> names = new HashMap<>();
+        private final Map<LocalDate, BigDecimal> byDay = new LinkedHashMap<>();
+
+        void add(SpendingRollupRow row) {
+            total = total.add(row.getTotal());
+            byCategory.merge(row.getCategoryId(), row.getTotal(), BigDecimal::add);
+            names.putIfAbsent(row.getCategoryId(), row.getCategoryName());
+            // Rows arrive in date order, so insertion order is chronological.
+            byDay.merge(row.getSpendDate(), row.getTotal(), BigDecimal::add);
+        }
+    }
+
+    private CategorySummaryResponse loadCategorySpendingSummary(User user, LocalDate startDate, LocalDate endDate) {
+        List<CategorySpendingSummary> spendingByCategory = spendingRollupRepository.findSpendingByCategory(user.getId(), startDate, endDate);
 
         BigDecimal total = spendingByCategory.stream()
                 .map(CategorySpendingSummary::getTotal)
@@ -46,9 +226,8 @@ public class AnalyticsService {
         return new CategorySummaryResponse(summaries, total);
     }
 
-    public DailyBreakdownResponse getDailySpendingBreakdown(LocalDate startDate, LocalDate endDate) {
-        User user = getCurrentUser();
-        List<DailySpending> spendingByDay = transactionRepository.findSpendingByDay(user.getId(), startDate, endDate);
+    private DailyBreakdownResponse loadDailySpendingBreakdown(User user, LocalDate startDate, LocalDate endDate) {
+        List<DailySpending> spendingByDay = spendingRollupRepository.findSpendingByDay(user.getId(), startDate, endDate);
         
         List<DailyBreakdownResponse.DailySummary> summaries = spendingByDay.stream()
                 .map(summary -> new DailyBreakdownResponse.DailySummary(
@@ -11,7 +11,6 @@ import com.spendify.backend.exception.AccountLockedException;
 import com.spendify.backend.exception.DuplicateEmailException;
 import com.spendify.backend.exception.InvalidCredentialsException;
 import com.spendify.backend.exception.ResourceNotFoundException;
-import com.spendify.backend.repository.RefreshTokenRepository;
 import com.spendify.backend.repository.UserRepository;
 import com.spendify.backend.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
@@ -33,8 +32,9 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
-    private final RefreshTokenRepository refreshTokenRepository;
     private final LoginAttemptService loginAttemptService;
+    private final LoginAuditService loginAuditService;
+    private final RefreshTokenService refreshTokenService;
 
     @Transactional
     public AuthenticationResponse register(RegisterRequest request) {
@@ -55,8 +55,9 @@ public class AuthService {
     }
 
     @Transactional
-    public AuthenticationResponse login(LoginRequest request) {
-        if (loginAttemptService.isBlocked(request.getEmail())) {
+    public AuthenticationResponse login(LoginRequest request, String ipAddress) {
+        if (loginAttemptService.isBlocked(request.getEmail(), ipAddress)) {
+            loginAuditService.recordBlocked(request.getEmail(), ipAddress);
             throw new AccountLockedException("Account is locked");
         }
 
@@ -67,14 +68,14 @@ public class AuthService {
                             request.getPassword()
                     )
             );
-            loginAttemptService.loginSucceeded(request.getEmail());
         } catch (Exception e) {
-            loginAttemptService.loginFailed(request.getEmail());
+            loginAuditService.record(request.getEmail(), null, ipAddress, false);
             throw new InvalidCredentialsException("Invalid email or password");
         }
 
         var user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow();
+        loginAuditService.record(request.getEmail(), user, ipAddress, true);
         var jwtToken = jwtTokenProvider.generateToken(user);
         var refreshToken = createRefreshToken(user);
         return AuthenticationResponse.builder()
@@ -95,28 +96,30 @@ public class AuthService {
     }
 
     public AuthenticationResponse refreshToken(RefreshTokenRequest request) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(request.getRefreshToken())
+        RefreshTokenService.CachedRefreshToken refreshToken = refreshTokenService.lookup(request.getRefreshToken())
                 .orElseThrow(() -> new RuntimeException("Refresh token not found"));
 
-        if (refreshToken.getExpiryDate().isBefore(LocalDateTime.now())) {
-            refreshTokenRepository.delete(refreshToken);
+        if (refreshToken.isExpired()) {
+            // Expired rows are removed in bulk by RefreshTokenService.purgeExpired.
             throw new RuntimeException("Refresh token expired");
         }
 
-        var user = refreshToken.getUser();
-        var jwtToken = jwtTokenProvider.generateToken(user);
+        var jwtToken = jwtTokenProvider.generateToken(refreshToken.userId(), refreshToken.email());
         return AuthenticationResponse.builder()
                 .token(jwtToken)
-                .refreshToken(refreshToken.getToken())
+                .refreshToken(request.getRefreshToken())
                 .build();
     }
 
     @Transactional
     public void logout(RefreshTokenRequest request) {
-        refreshTokenRepository.findByToken(request.getRefreshToken()).ifPresent(refreshTokenRepository::delete);
+        refreshTokenService.revoke(request.getRefreshToken());
     }
 
     private RefreshToken createRefreshToken(User user) {
+        if (user.getRefreshToken() != null) {
+            refreshTokenService.evict(user.getRefreshToken().getToken());
+        }
         var refreshToken = RefreshToken.builder()
                 .user(user)
                 .token(UUID.randomUUID().toString())
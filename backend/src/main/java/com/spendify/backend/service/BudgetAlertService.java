@@ -0,0 +1,143 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.CategoryMonthTotal;
+import com.spendify.backend.entity.Budget;
+import com.spendify.backend.entity.NotificationLog;
+import com.spendify.backend.repository.BudgetRepository;
+import com.spendify.backend.repository.NotificationLogRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
+import com.spendify.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Notifies users when a budget reaches 80% (warning) or 100% (critical) of
+ * its limit. Driven by {@link SpendingChangedEvent}, so it runs once per
+ * committed write and only looks at budgets for the months that changed;
+ * spent-to-date comes from the spending rollup in one grouped query.
+ * <p>
+ * Each budget remembers the highest threshold already notified, read and
+ * written under a row lock, so a crossing is announced exactly once even
+ * when writes race. Falling back below a threshold re-arms it.
+ */
+@Service
+@RequiredArgsConstructor
+public class BudgetAlertService {
+
+    public static final String WARNING_TYPE = "BUDGET_WARNING";
+    public static final String CRITICAL_TYPE = "BUDGET_CRITICAL";
+
+    static final int WARNING_PERCENT = 80;
+    static final int CRITICAL_PERCENT = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetAlertService.class);
+
+    private final BudgetRepository budgetRepository;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final NotificationLogRepository notificationLogRepository;
+    private final UserRepository userRepository;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSpendingChanged(SpendingChangedEvent event) {
+        try {
+            process(event);
+        } catch (RuntimeException e) {
+            log.warn("Budget alerts skipped for user {}: {}", event.userId(), e.getMessage());
+        }
+    }
+
+    void process(SpendingChangedEvent event) {
+        // "Any date" events (category rename/delete, rebuilds) only re-check current and future
+        // months, so relabelling old transactions never announces long-past overspends.
+        YearMonth from = event.from() != null ? YearMonth.from(event.from()) : YearMonth.now();
+        YearMonth to = event.to() != null ? YearMonth.from(event.to()) : YearMonth.of(9999, 12);
+        List<Budget> budgets = budgetRepository.findForUpdate(event.userId(), from.toString(), to.toString());
+        if (budgets.isEmpty()) {
+            return;
+        }
+
+        Set<Long> categoryIds = new HashSet<>();
+        YearMonth first = null;
+        YearMonth last = null;
+        for (Budget budget : budgets) {
+            categoryIds.add(budget.getCategory().getId());
+            YearMonth yearMonth = YearMonth.parse(budget.getYearMonth());
+            first = first == null || yearMonth.isBefore(first) ? yearMonth : first;
+            last = last == null || yearMonth.isAfter(last) ? yearMonth : last;
+        }
+        Map<String, BigDecimal> spent = new HashMap<>();
+        for (CategoryMonthTotal row : spendingRollupRepository.sumTotalsByCategoryAndMonth(
+                event.userId(), categoryIds, first.atDay(1), last.atEndOfMonth())) {
+            spent.put(row.getCategoryId() + "@" + YearMonth.of(row.getYear(), row.getMonth()), row.getTotal());
+        }
+
+        List<NotificationLog> notifications = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Budget budget : budgets) {
+            BigDecimal total = spent.getOrDefault(budget.getCategory().getId() + "@" + budget.getYearMonth(), BigDecimal.ZERO);
+            int level = levelOf(total, budget.getLimit());
+            int alerted = budget.getAlertedPercent() != null ? budget.getAlertedPercent() : 0;
+            if (level > alerted) {
+                notifications.add(notification(event.userId(), budget, total, level, now));
+            }
+            if (level != alerted) {
+                budget.setAlertedPercent(level);
+            }
+        }
+        if (!notifications.isEmpty()) {
+            notificationLogRepository.saveAll(notifications);
+        }
+    }
+
+    /**
+     * Highest threshold {@code spent} has reached for {@code limit}, or 0. Also used to
+     * baseline a budget when it is created or its limit changes, so editing a budget
+     * never announces a crossing by itself.
+     */
+    static int levelOf(BigDecimal spent, BigDecimal limit) {
+        if (spent == null || limit == null || limit.signum() <= 0) {
+            return 0;
+        }
+        BigDecimal percent = spent.multiply(BigDecimal.valueOf(100));
+        if (percent.compareTo(limit.multiply(BigDecimal.valueOf(CRITICAL_PERCENT))) >= 0) {
+            return CRITICAL_PERCENT;
+        }
+        if (percent.compareTo(limit.multiply(BigDecimal.valueOf(WARNING_PERCENT))) >= 0) {
+            return WARNING_PERCENT;
+        }
+        return 0;
+    }
+
+    private NotificationLog notification(Long userId, Budget budget, BigDecimal spent, int level, LocalDateTime now) {
+        String message = level >= CRITICAL_PERCENT
+                ? String.format("You have exceeded your %s budget for %s: spent %s of %s",
+                        budget.getCategory().getName(), budget.getYearMonth(),
+                        spent.setScale(2, RoundingMode.HALF_UP).toPlainString(), budget.getLimit().toPlainString())
+                : String.format("You have used %d%% of your %s budget for %s: spent %s of %s",
+                        level, budget.getCategory().getName(), budget.getYearMonth(),
+                        spent.setScale(2, RoundingMode.HALF_UP).toPlainString(), budget.getLimit().toPlainString());
+        return NotificationLog.builder()
+                .user(userRepository.getReferenceById(userId))
+                .type(level >= CRITICAL_PERCENT ? CRITICAL_TYPE : WARNING_TYPE)
+                .message(message)
+                .createdAt(now)
+                .build();
+    }
+}
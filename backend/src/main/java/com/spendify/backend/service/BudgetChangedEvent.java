@@ -0,0 +1,8 @@
+package com.spendify.backend.service;
+
+/**
+ * Published when a user's budget for {@code yearMonth} ("yyyy-MM") is created
+ * or its limit changes.
+ */
+public record BudgetChangedEvent(Long userId, String yearMonth) {
+}
@@ -1,17 +1,22 @@
 package com.spendify.backend.service;
 
+import com.spendify.backend.dto.BudgetOverviewResponse;
 import com.spendify.backend.dto.BudgetResponse;
+import com.spendify.backend.dto.CategoryMonthTotal;
 import com.spendify.backend.dto.CreateBudgetRequest;
 import com.spendify.backend.dto.UpdateBudgetRequest;
 import com.spendify.backend.entity.Budget;
+import com.spendify.backend.entity.BudgetSnapshot;
 import com.spendify.backend.entity.Category;
 import com.spendify.backend.entity.User;
 import com.spendify.backend.exception.ResourceNotFoundException;
 import com.spendify.backend.repository.BudgetRepository;
+import com.spendify.backend.repository.BudgetSnapshotRepository;
 import com.spendify.backend.repository.CategoryRepository;
-import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
 import com.spendify.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,6 +29,12 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -32,12 +43,17 @@ public class BudgetService {
     private final BudgetRepository budgetRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
-    private final TransactionRepository transactionRepository;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final BudgetSnapshotRepository budgetSnapshotRepository;
+    private final SpendingForecastService spendingForecastService;
+    private final AnalyticsCache analyticsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public BudgetResponse createBudget(CreateBudgetRequest request) {
         User user = getCurrentUser();
         Category category = categoryRepository.findById(request.getCategoryId())
+                .filter(c -> c.getDeletionRequestedAt() == null)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
         
         budgetRepository.findByUserIdAndYearMonthAndCategoryId(user.getId(), request.getYearMonth(), request.getCategoryId())
@@ -53,7 +69,7 @@ public class BudgetService {
                 .build();
         
         budget = budgetRepository.save(budget);
-        return mapToBudgetResponse(budget);
+        return mapAndBaselineAlerts(budget);
     }
 
     public BudgetResponse getCurrentMonthBudget() {
@@ -68,10 +84,82 @@ public class BudgetService {
         return mapToBudgetResponse(budget);
     }
 
+    /**
+     * Every category budget for the current month with spending and
+     * projections, plus month totals. Built from one budgets query and one
+     * grouped spending query, and cached per user until their spending or
+     * budgets change.
+     */
+    public BudgetOverviewResponse getCurrentMonthOverview() {
+        User user = getCurrentUser();
+        YearMonth month = YearMonth.now();
+        List<BudgetSpend> spends = analyticsCache.get(user.getId(), AnalyticsCache.Query.BUDGET_OVERVIEW,
+                month.atDay(1), month.atEndOfMonth(), () -> loadBudgetSpends(user.getId(), month), List::size);
+
+        List<BudgetResponse> budgets = spends.stream().map(this::mapToBudgetResponse).toList();
+        BigDecimal totalLimit = BigDecimal.ZERO;
+        BigDecimal totalSpent = BigDecimal.ZERO;
+        BigDecimal projectedTotal = BigDecimal.ZERO;
+        for (BudgetResponse budget : budgets) {
+            totalLimit = totalLimit.add(budget.getLimit());
+            totalSpent = totalSpent.add(budget.getTotalSpent());
+            projectedTotal = projectedTotal.add(budget.getProjectedTotal());
+        }
+        double percentageSpent = totalLimit.signum() > 0
+                ? totalSpent.divide(totalLimit, 4, RoundingMode.HALF_UP).doubleValue()
+                : 0;
+
+        return BudgetOverviewResponse.builder()
+                .yearMonth(month.toString())
+                .totalLimit(totalLimit)
+                .totalSpent(totalSpent)
+                .percentageSpent(percentageSpent)
+                .projectedTotal(projectedTotal)
+                .overspendAmount(projectedTotal.compareTo(totalLimit) > 0 ? projectedTotal.subtract(totalLimit) : BigDecimal.ZERO)
+                .budgets(budgets)
+                .build();
+    }
+
+    private List<BudgetSpend> loadBudgetSpends(Long userId, YearMonth month) {
+        List<Budget> budgets = budgetRepository.findAllByUserIdAndYearMonth(userId, month.toString());
+        Map<String, BigDecimal> totals = findTotalsSpent(userId, budgets);
+        Map<Long, SpendingForecastService.Model> models = findForecastModels(userId, budgets);
+        return budgets.stream()
+                .sorted(Comparator.comparing((Budget b) -> b.getCategory().getName(), String.CASE_INSENSITIVE_ORDER))
+                .map(budget -> new BudgetSpend(budget.getId(), budget.getLimit(), budget.getYearMonth(),
+                        budget.getCategory().getId(), budget.getCategory().getName(),
+                        totals.getOrDefault(totalKey(budget.getCategory().getId(), budget.getYearMonth()), BigDecimal.ZERO),
+                        models.get(budget.getCategory().getId())))
+                .toList();
+    }
+
+    /**
+     * Closed months are read from their snapshots; only budgets not frozen
+     * yet (the running month, or a month changed since the last snapshot run)
+     * are priced from the rollup.
+     */
     public Page<BudgetResponse> getBudgetHistory(Pageable pageable) {
         User user = getCurrentUser();
-        return budgetRepository.findAllByUserId(user.getId(), pageable)
-                .map(this::mapToBudgetResponse);
+        Page<Budget> budgets = budgetRepository.findAllByUserId(user.getId(), pageable);
+        Map<Long, BudgetSnapshot> snapshots = new HashMap<>();
+        if (!budgets.isEmpty()) {
+            for (BudgetSnapshot snapshot : budgetSnapshotRepository.findByBudgetIdIn(
+                    budgets.getContent().stream().map(Budget::getId).toList())) {
+                snapshots.put(snapshot.getBudgetId(), snapshot);
+            }
+        }
+        List<Budget> live = budgets.getContent().stream().filter(b -> !snapshots.containsKey(b.getId())).toList();
+        Map<String, BigDecimal> totals = findTotalsSpent(user.getId(), live);
+        Map<Long, SpendingForecastService.Model> models = findForecastModels(user.getId(), live);
+        return budgets.map(budget -> {
+            BudgetSnapshot snapshot = snapshots.get(budget.getId());
+            if (snapshot != null) {
+                return mapToBudgetResponse(budget, snapshot);
+            }
+            return mapToBudgetResponse(budget,
+                    totals.getOrDefault(totalKey(budget.getCategory().getId(), budget.getYearMonth()), BigDecimal.ZERO),
+                    models.get(budget.getCategory().getId()));
+        });
     }
 
     @Transactional
@@ -86,27 +174,111 @@ public class BudgetService {
 
         budget.setLimit(request.getLimit());
         budget = budgetRepository.save(budget);
-        return mapToBudgetResponse(budget);
+        return mapAndBaselineAlerts(budget);
+    }
+
+    /**
+     * Alerts track crossings caused by spending; a new or edited limit only
+     * resets which thresholds count as already announced.
+     */
+    private BudgetResponse mapAndBaselineAlerts(Budget budget) {
+        eventPublisher.publishEvent(new BudgetChangedEvent(budget.getUser().getId(), budget.getYearMonth()));
+        BudgetResponse response = mapToBudgetResponse(budget);
+        budget.setAlertedPercent(BudgetAlertService.levelOf(response.getTotalSpent(), budget.getLimit()));
+        return response;
+    }
+
+    /**
+     * Spending for every (category, month) in {@code budgets}, fetched with
+     * one grouped query over the span of months on the page, keyed by
+     * {@link #totalKey}.
+     */
+    private Map<String, BigDecimal> findTotalsSpent(Long userId, List<Budget> budgets) {
+        if (budgets.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> categoryIds = new HashSet<>();
+        YearMonth first = null;
+        YearMonth last = null;
+        for (Budget budget : budgets) {
+            categoryIds.add(budget.getCategory().getId());
+            YearMonth yearMonth = YearMonth.parse(budget.getYearMonth());
+            first = first == null || yearMonth.isBefore(first) ? yearMonth : first;
+            last = last == null || yearMonth.isAfter(last) ? yearMonth : last;
+        }
+
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (CategoryMonthTotal row : spendingRollupRepository.sumTotalsByCategoryAndMonth(
+                userId, categoryIds, first.atDay(1), last.atEndOfMonth())) {
+            totals.put(totalKey(row.getCategoryId(), YearMonth.of(row.getYear(), row.getMonth()).toString()), row.getTotal());
+        }
+        return totals;
+    }
+
+    private static String totalKey(Long categoryId, String yearMonth) {
+        return categoryId + "@" + yearMonth;
     }
 
     private BudgetResponse mapToBudgetResponse(Budget budget) {
         YearMonth yearMonth = YearMonth.parse(budget.getYearMonth());
-        LocalDate startDate = yearMonth.atDay(1);
-        LocalDate endDate = yearMonth.atEndOfMonth();
-
-        BigDecimal totalSpent = transactionRepository.sumAmountByUserIdAndCategoryIdAndTransactionDateBetween(
+        BigDecimal totalSpent = spendingRollupRepository.sumTotal(
                 budget.getUser().getId(),
                 budget.getCategory().getId(),
-                startDate,
-                endDate
+                yearMonth.atDay(1),
+                yearMonth.atEndOfMonth()
         );
+        return mapToBudgetResponse(budget, totalSpent,
+                findForecastModels(budget.getUser().getId(), List.of(budget)).get(budget.getCategory().getId()));
+    }
+
+    private BudgetResponse mapToBudgetResponse(Budget budget, BigDecimal totalSpent, SpendingForecastService.Model model) {
+        return mapToBudgetResponse(budget.getId(), budget.getLimit(), budget.getYearMonth(),
+                budget.getCategory().getId(), budget.getCategory().getName(), totalSpent, model);
+    }
+
+    private BudgetResponse mapToBudgetResponse(Budget budget, BudgetSnapshot snapshot) {
+        return BudgetResponse.builder()
+                .id(budget.getId())
+                .limit(snapshot.getLimitAmount())
+                .yearMonth(snapshot.getYearMonth())
+                .categoryId(budget.getCategory().getId())
+                .categoryName(budget.getCategory().getName())
+                .totalSpent(snapshot.getTotalSpent())
+                .percentageSpent(snapshot.getPercentageSpent())
+                .projectedTotal(snapshot.getTotalSpent())
+                .overspendAmount(snapshot.getOverspendAmount())
+                .build();
+    }
+
+    private BudgetResponse mapToBudgetResponse(BudgetSpend spend) {
+        return mapToBudgetResponse(spend.id(), spend.limit(), spend.yearMonth(),
+                spend.categoryId(), spend.categoryName(), spend.totalSpent(), spend.model());
+    }
+
+    /** Forecast models for the budgets that fall in the running month; other months are not forecast. */
+    private Map<Long, SpendingForecastService.Model> findForecastModels(Long userId, List<Budget> budgets) {
+        String currentMonth = YearMonth.now().toString();
+        Set<Long> categoryIds = new HashSet<>();
+        for (Budget budget : budgets) {
+            if (currentMonth.equals(budget.getYearMonth())) {
+                categoryIds.add(budget.getCategory().getId());
+            }
+        }
+        return spendingForecastService.loadModels(userId, categoryIds);
+    }
+
+    private BudgetResponse mapToBudgetResponse(Long id, BigDecimal limit, String month, Long categoryId,
+                                               String categoryName, BigDecimal totalSpent,
+                                               SpendingForecastService.Model model) {
+        YearMonth yearMonth = YearMonth.parse(month);
+        LocalDate startDate = yearMonth.atDay(1);
         if (totalSpent == null) {
             totalSpent = BigDecimal.ZERO;
         }
 
         double percentageSpent = 0;
-        if (budget.getLimit().compareTo(BigDecimal.ZERO) > 0) {
-            percentageSpent = totalSpent.divide(budget.getLimit(), 4, RoundingMode.HALF_UP).doubleValue();
+        if (limit.compareTo(BigDecimal.ZERO) > 0) {
+            percentageSpent = totalSpent.divide(limit, 4, RoundingMode.HALF_UP).doubleValue();
         }
         
         long daysInMonth = yearMonth.lengthOfMonth();
@@ -116,25 +288,46 @@ public class BudgetService {
 
         BigDecimal dailyAverage = totalSpent.divide(BigDecimal.valueOf(daysElapsed), 2, RoundingMode.HALF_UP);
         BigDecimal projectedTotal = dailyAverage.multiply(BigDecimal.valueOf(daysInMonth));
+        BigDecimal projectedLow = null;
+        BigDecimal projectedHigh = null;
+        // Forecast only the running month; the model falls back to linear while history is short.
+        SpendingForecastService.Forecast forecast = model != null && yearMonth.equals(YearMonth.now())
+                ? model.forecast(yearMonth, totalSpent, LocalDate.now())
+                : null;
+        if (forecast != null) {
+            projectedTotal = forecast.expected();
+            projectedLow = forecast.low();
+            projectedHigh = forecast.high();
+        }
         BigDecimal overspendAmount = BigDecimal.ZERO;
-        if (projectedTotal.compareTo(budget.getLimit()) > 0) {
-            overspendAmount = projectedTotal.subtract(budget.getLimit());
+        if (projectedTotal.compareTo(limit) > 0) {
+            overspendAmount = projectedTotal.subtract(limit);
         }
 
 
         return BudgetResponse.builder()
-                .id(budget.getId())
-                .limit(budget.getLimit())
-                .yearMonth(budget.getYearMonth())
-                .categoryId(budget.getCategory().getId())
-                .categoryName(budget.getCategory().getName())
+                .id(id)
+                .limit(limit)
+                .yearMonth(month)
+                .categoryId(categoryId)
+                .categoryName(categoryName)
                 .totalSpent(totalSpent)
                 .percentageSpent(percentageSpent)
                 .projectedTotal(projectedTotal)
+                .projectedLow(projectedLow)
+                .projectedHigh(projectedHigh)
                 .overspendAmount(overspendAmount)
                 .build();
     }
 
+    /**
+     * Day-independent part of a budget's status, as cached for the overview;
+     * projections depend on today's date and are computed per request.
+     */
+    private record BudgetSpend(Long id, BigDecimal limit, String yearMonth, Long categoryId,
+                               String categoryName, BigDecimal totalSpent, SpendingForecastService.Model model) {
+    }
+
     private User getCurrentUser() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         return userRepository.findByEmail(email)
@@ -0,0 +1,226 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.CategoryMonthTotal;
+import com.spendify.backend.entity.Budget;
+import com.spendify.backend.entity.BudgetSnapshot;
+import com.spendify.backend.entity.JobCheckpoint;
+import com.spendify.backend.repository.BudgetRepository;
+import com.spendify.backend.repository.BudgetSnapshotRepository;
+import com.spendify.backend.repository.JobCheckpointRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Freezes budgets of completed months into {@link BudgetSnapshot} rows so
+ * budget history is served without aggregating spending. The nightly job
+ * walks users with unfrozen budgets in id order, in chunks handed to a
+ * worker pool; chunks commit independently and a checkpoint records the
+ * highest user id below which every chunk has committed, so a crashed run
+ * resumes where it stopped. Re-running a chunk is harmless since only
+ * budgets without a snapshot are selected.
+ * <p>
+ * A write that lands in an already frozen month, or a budget change there,
+ * deletes that month's snapshots in the same transaction; the next run
+ * freezes them again. Both sides lock the user's budgets for those months
+ * before they touch the spending rollup (the writer is notified ahead of its
+ * rollup increments), so a write cannot commit between the job reading a
+ * month's totals and inserting its snapshot, and the two never wait on each
+ * other's rows in opposite order.
+ */
+@Service
+public class BudgetSnapshotService {
+
+    static final String JOB_NAME = "budget-snapshot";
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetSnapshotService.class);
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetSnapshotRepository budgetSnapshotRepository;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TaskExecutor snapshotTaskExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int workers;
+
+    public BudgetSnapshotService(BudgetRepository budgetRepository,
+                                 BudgetSnapshotRepository budgetSnapshotRepository,
+                                 SpendingRollupRepository spendingRollupRepository,
+                                 JobCheckpointRepository jobCheckpointRepository,
+                                 @Qualifier("snapshotTaskExecutor") TaskExecutor snapshotTaskExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${budget.snapshot.chunk-size:200}") int chunkSize,
+                                 @Value("${budget.snapshot.workers:4}") int workers) {
+        this.budgetRepository = budgetRepository;
+        this.budgetSnapshotRepository = budgetSnapshotRepository;
+        this.spendingRollupRepository = spendingRollupRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.snapshotTaskExecutor = snapshotTaskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+    }
+
+    @Scheduled(cron = "${budget.snapshot.cron:0 0 2 * * *}")
+    public void snapshotCompletedMonths() {
+        run(YearMonth.now());
+    }
+
+    /** Freezes every budget before {@code currentMonth}; returns the number of snapshots written. */
+    int run(YearMonth currentMonth) {
+        String cutoff = currentMonth.toString();
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                .filter(c -> cutoff.equals(c.getRunKey()))
+                .orElseGet(() -> JobCheckpoint.builder().jobName(JOB_NAME).runKey(cutoff).lastId(0).build());
+        if (checkpoint.getLastId() > 0) {
+            log.info("Resuming budget snapshots for months before {} after user {}", cutoff, checkpoint.getLastId());
+        }
+
+        int written = 0;
+        while (true) {
+            List<Long> userIds = budgetRepository.findUserIdsPendingSnapshot(
+                    cutoff, checkpoint.getLastId(), PageRequest.of(0, chunkSize * workers));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            List<List<Long>> chunks = new ArrayList<>();
+            for (int i = 0; i < userIds.size(); i += chunkSize) {
+                chunks.add(userIds.subList(i, Math.min(i + chunkSize, userIds.size())));
+            }
+            List<CompletableFuture<Integer>> futures = chunks.stream()
+                    .map(chunk -> CompletableFuture.supplyAsync(
+                            () -> transactionTemplate.execute(status -> snapshotUsers(chunk, cutoff)), snapshotTaskExecutor))
+                    .toList();
+
+            // Advance the checkpoint only across a contiguous prefix of committed chunks.
+            for (int i = 0; i < chunks.size(); i++) {
+                try {
+                    written += futures.get(i).join();
+                } catch (CompletionException e) {
+                    log.error("Budget snapshot chunk starting at user {} failed; will resume from user {} next run",
+                            chunks.get(i).get(0), checkpoint.getLastId(), e.getCause());
+                    futures.forEach(future -> future.exceptionally(ex -> 0).join());
+                    return written;
+                }
+                List<Long> chunk = chunks.get(i);
+                saveCheckpoint(checkpoint, chunk.get(chunk.size() - 1));
+            }
+        }
+        // A finished run starts from the beginning next time, picking up budgets unfrozen since.
+        saveCheckpoint(checkpoint, 0);
+        if (written > 0) {
+            log.info("Froze {} budgets for months before {}", written, cutoff);
+        }
+        return written;
+    }
+
+    int snapshotUsers(List<Long> userIds, String cutoff) {
+        Map<Long, List<Budget>> byUser = new LinkedHashMap<>();
+        for (Budget budget : budgetRepository.findPendingSnapshot(userIds, cutoff)) {
+            byUser.computeIfAbsent(budget.getUser().getId(), id -> new ArrayList<>()).add(budget);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BudgetSnapshot> snapshots = new ArrayList<>();
+        byUser.forEach((userId, budgets) -> {
+            List<String> months = budgets.stream().map(Budget::getYearMonth).sorted().toList();
+            budgetRepository.findForUpdate(userId, months.get(0), months.get(months.size() - 1));
+            Map<String, BigDecimal> spent = findTotalsSpent(userId, budgets);
+            for (Budget budget : budgets) {
+                BigDecimal total = spent.getOrDefault(budget.getCategory().getId() + "@" + budget.getYearMonth(), BigDecimal.ZERO)
+                        .setScale(2, RoundingMode.HALF_UP);
+                snapshots.add(BudgetSnapshot.builder()
+                        .budgetId(budget.getId())
+                        .userId(userId)
+                        .categoryId(budget.getCategory().getId())
+                        .yearMonth(budget.getYearMonth())
+                        .limitAmount(budget.getLimit())
+                        .totalSpent(total)
+                        .percentageSpent(budget.getLimit().signum() > 0
+                                ? total.divide(budget.getLimit(), 4, RoundingMode.HALF_UP).doubleValue()
+                                : 0)
+                        .overspendAmount(total.compareTo(budget.getLimit()) > 0 ? total.subtract(budget.getLimit()) : BigDecimal.ZERO)
+                        .createdAt(now)
+                        .build());
+            }
+        });
+        budgetSnapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    /**
+     * Runs inside the writing transaction, before the rollup is changed, so a late write and the
+     * unfreezing of its month commit together. Only closed months are locked: the current one has
+     * no snapshots to race with.
+     */
+    @EventListener
+    public void onSpendingChanged(SpendingChangedEvent event) {
+        String lastClosed = YearMonth.now().minusMonths(1).toString();
+        String from = event.from() == null ? "0000-01" : YearMonth.from(event.from()).toString();
+        String to = event.to() == null ? lastClosed : YearMonth.from(event.to()).toString();
+        if (to.compareTo(lastClosed) > 0) {
+            to = lastClosed;
+        }
+        if (from.compareTo(to) <= 0) {
+            // Waits for a snapshot chunk that is freezing these months, then unfreezes what it wrote.
+            budgetRepository.findForUpdate(event.userId(), from, to);
+            budgetSnapshotRepository.deleteForMonths(event.userId(), from, to);
+        }
+    }
+
+    /** A budget created or re-limited in a closed month is re-frozen with its new limit. */
+    @EventListener
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        if (event.yearMonth().compareTo(YearMonth.now().toString()) < 0) {
+            budgetSnapshotRepository.deleteForMonths(event.userId(), event.yearMonth(), event.yearMonth());
+        }
+    }
+
+    private Map<String, BigDecimal> findTotalsSpent(Long userId, List<Budget> budgets) {
+        Set<Long> categoryIds = new HashSet<>();
+        YearMonth first = null;
+        YearMonth last = null;
+        for (Budget budget : budgets) {
+            categoryIds.add(budget.getCategory().getId());
+            YearMonth yearMonth = YearMonth.parse(budget.getYearMonth());
+            first = first == null || yearMonth.isBefore(first) ? yearMonth : first;
+            last = last == null || yearMonth.isAfter(last) ? yearMonth : last;
+        }
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (CategoryMonthTotal row : spendingRollupRepository.sumTotalsByCategoryAndMonth(
+                userId, categoryIds, first.atDay(1), last.atEndOfMonth())) {
+            totals.put(row.getCategoryId() + "@" + YearMonth.of(row.getYear(), row.getMonth()), row.getTotal());
+        }
+        return totals;
+    }
+
+    private void saveCheckpoint(JobCheckpoint checkpoint, long lastId) {
+        checkpoint.setLastId(lastId);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        jobCheckpointRepository.save(checkpoint);
+    }
+}
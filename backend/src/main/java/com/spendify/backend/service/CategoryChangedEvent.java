@@ -0,0 +1,7 @@
+package com.spendify.backend.service;
+
+/**
+ * Published when one of a user's own categories is created, updated or deleted.
+ */
+public record CategoryChangedEvent(Long userId) {
+}
@@ -0,0 +1,178 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.util.HashedNgrams;
+
+import java.util.Arrays;
+
+/**
+ * Multinomial naive Bayes over hashed text features, one class per category.
+ * Each category keeps a dense row of exact integer counts per bucket and,
+ * next to it, a row of their smoothed logs, so scoring a class is one
+ * addition per feature and no logarithms. Training adjusts the touched counts
+ * and re-derives their logs from them, so the logs never drift however many
+ * samples pass through; removing a sample (a recategorized transaction) is
+ * the same walk with a negative weight.
+ * <p>
+ * Training is synchronized and publishes a new {@link State} when a category
+ * is first seen; prediction reads the current state without locking and
+ * works in a caller-owned {@link Scratch}, so it allocates nothing. A
+ * prediction racing a training call may read a count mid-update, which only
+ * nudges one score.
+ */
+public final class CategoryClassifier {
+
+    public static final long NONE = -1;
+
+    static final int MAX_FEATURES = 256;
+    private static final int MERCHANT_SEED = 0x2F1A;
+    private static final int TEXT_SEED = 0x7C55;
+    /** Additive smoothing per bucket. */
+    private static final double ALPHA = 0.5;
+
+    private final int buckets;
+    private volatile State state = new State(new long[0], new int[0][], new float[0][], new double[0], new int[0]);
+
+    public CategoryClassifier(int bucketBits) {
+        this.buckets = 1 << bucketBits;
+    }
+
+    /** Adds ({@code weight > 0}) or removes ({@code weight < 0}) one labelled sample. */
+    public synchronized void train(long categoryId, CharSequence merchant, CharSequence description, int weight, Scratch scratch) {
+        int n = features(merchant, description, null, scratch);
+        if (n == 0 || weight == 0) {
+            return;
+        }
+        State current = state;
+        int c = indexOf(current.labels, categoryId);
+        if (c < 0) {
+            if (weight < 0) {
+                return;
+            }
+            current = current.with(categoryId, buckets);
+            c = current.labels.length - 1;
+            state = current;
+        }
+        int[] counts = current.counts[c];
+        float[] row = current.logCounts[c];
+        int[] features = scratch.features;
+        for (int i = 0; i < n; i++) {
+            int f = features[i];
+            counts[f] = Math.max(0, counts[f] + weight);
+            row[f] = (float) Math.log(counts[f] + ALPHA);
+        }
+        current.totals[c] = Math.max(0, current.totals[c] + (double) weight * n);
+        current.documents[c] = Math.max(0, current.documents[c] + weight);
+    }
+
+    /**
+     * Most likely category for the given text, or {@link #NONE}; the posterior
+     * probability of the answer is left in {@link Scratch#confidence()}.
+     */
+    public long predict(CharSequence merchant, CharSequence description, CharSequence text, Scratch scratch) {
+        scratch.confidence = 0;
+        State current = state;
+        int classes = current.labels.length;
+        long documents = 0;
+        for (int c = 0; c < classes; c++) {
+            documents += current.documents[c];
+        }
+        if (documents == 0) {
+            return NONE;
+        }
+        int n = features(merchant, description, text, scratch);
+        if (n == 0) {
+            return NONE;
+        }
+
+        int[] features = scratch.features;
+        double[] scores = scratch.scores(classes);
+        double logDocuments = Math.log(documents + classes);
+        double smoothing = ALPHA * buckets;
+        int best = -1;
+        for (int c = 0; c < classes; c++) {
+            if (current.documents[c] == 0) {
+                scores[c] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            float[] row = current.logCounts[c];
+            double score = Math.log(current.documents[c] + 1) - logDocuments - n * Math.log(current.totals[c] + smoothing);
+            for (int i = 0; i < n; i++) {
+                score += row[features[i]];
+            }
+            scores[c] = score;
+            if (best < 0 || score > scores[best]) {
+                best = c;
+            }
+        }
+
+        double sum = 0;
+        for (int c = 0; c < classes; c++) {
+            sum += Math.exp(scores[c] - scores[best]);
+        }
+        scratch.confidence = 1 / sum;
+        return current.labels[best];
+    }
+
+    /** Number of samples currently trained in. */
+    public long documents() {
+        State current = state;
+        long documents = 0;
+        for (int count : current.documents) {
+            documents += count;
+        }
+        return documents;
+    }
+
+    private int features(CharSequence merchant, CharSequence description, CharSequence text, Scratch scratch) {
+        int mask = buckets - 1;
+        int n = HashedNgrams.extract(merchant, MERCHANT_SEED, scratch.features, 0, mask);
+        n = HashedNgrams.extract(description, TEXT_SEED, scratch.features, n, mask);
+        return HashedNgrams.extract(text, TEXT_SEED, scratch.features, n, mask);
+    }
+
+    private static int indexOf(long[] labels, long categoryId) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == categoryId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Per-thread buffers for feature extraction and scoring. */
+    public static final class Scratch {
+
+        private final int[] features = new int[MAX_FEATURES];
+        private double[] scores = new double[16];
+        private double confidence;
+
+        public double confidence() {
+            return confidence;
+        }
+
+        private double[] scores(int classes) {
+            if (scores.length < classes) {
+                scores = new double[Integer.highestOneBit(classes) << 1];
+            }
+            return scores;
+        }
+    }
+
+    /** Labels and per-class arrays; rows are shared between successive states. */
+    private record State(long[] labels, int[][] counts, float[][] logCounts, double[] totals, int[] documents) {
+
+        State with(long categoryId, int buckets) {
+            int size = labels.length;
+            long[] newLabels = Arrays.copyOf(labels, size + 1);
+            int[][] newCounts = Arrays.copyOf(counts, size + 1);
+            float[][] newLogCounts = Arrays.copyOf(logCounts, size + 1);
+            double[] newTotals = Arrays.copyOf(totals, size + 1);
+            int[] newDocuments = Arrays.copyOf(documents, size + 1);
+            newLabels[size] = categoryId;
+            newCounts[size] = new int[buckets];
+            newLogCounts[size] = new float[buckets];
+            Arrays.fill(newLogCounts[size], (float) Math.log(ALPHA));
+            return new State(newLabels, newCounts, newLogCounts, newTotals, newDocuments);
+        }
+    }
+}
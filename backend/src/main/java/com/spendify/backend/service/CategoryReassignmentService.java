@@ -0,0 +1,224 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.CategoryReassignmentStatus;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.CategoryReassignment;
+import com.spendify.backend.entity.Transaction;
+import com.spendify.backend.exception.ResourceNotFoundException;
+import com.spendify.backend.repository.BudgetRepository;
+import com.spendify.backend.repository.BudgetSnapshotRepository;
+import com.spendify.backend.repository.CategoryReassignmentRepository;
+import com.spendify.backend.repository.CategoryRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves a deleted category's transactions to its replacement in the
+ * background. The category is hidden as soon as the deletion commits; a
+ * worker then walks its transactions in id order, one bounded chunk per short
+ * transaction that also advances the job's cursor and keeps the spending
+ * rollup in step, so the user's own writes are never blocked for long. When a
+ * pass finds nothing left the category row is removed, together with its
+ * budgets and their snapshots, which have nothing left to measure.
+ * <p>
+ * Jobs are stored, so one interrupted by a restart resumes from its cursor.
+ * A job that fails un-hides the category with whatever it still holds.
+ */
+@Service
+public class CategoryReassignmentService {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryReassignmentService.class);
+
+    private final CategoryReassignmentRepository reassignmentRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionRepository transactionRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final SpendingAnomalyService spendingAnomalyService;
+    private final BudgetRepository budgetRepository;
+    private final BudgetSnapshotRepository budgetSnapshotRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int chunkSize;
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+
+    public CategoryReassignmentService(CategoryReassignmentRepository reassignmentRepository,
+                                       CategoryRepository categoryRepository,
+                                       TransactionRepository transactionRepository,
+                                       SpendingRollupService spendingRollupService,
+                                       SpendingAnomalyService spendingAnomalyService,
+                                       BudgetRepository budgetRepository,
+                                       BudgetSnapshotRepository budgetSnapshotRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager,
+                                       @Qualifier("backgroundTaskExecutor") TaskExecutor taskExecutor,
+                                       @Value("${category.reassign.chunk-size:500}") int chunkSize) {
+        this.reassignmentRepository = reassignmentRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionRepository = transactionRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.spendingAnomalyService = spendingAnomalyService;
+        this.budgetRepository = budgetRepository;
+        this.budgetSnapshotRepository = budgetSnapshotRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    /** Hides {@code category} and queues the move to {@code target}; runs inside the deleting transaction. */
+    public CategoryReassignmentStatus start(Long userId, Category category, Category target) {
+        LocalDateTime now = LocalDateTime.now();
+        category.setDeletionRequestedAt(now);
+        categoryRepository.save(category);
+        CategoryReassignment job = reassignmentRepository.save(CategoryReassignment.builder()
+                .userId(userId)
+                .categoryId(category.getId())
+                .targetCategoryId(target.getId())
+                .status(RUNNING)
+                .total(transactionRepository.countInCategoryIncludingDeleted(userId, category.getId()))
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        eventPublisher.publishEvent(new CategoryReassignmentStartedEvent(job.getId()));
+        return toStatus(job);
+    }
+
+    public CategoryReassignmentStatus getStatus(Long userId, Long jobId) {
+        return reassignmentRepository.findById(jobId)
+                .filter(job -> job.getUserId().equals(userId))
+                .map(CategoryReassignmentService::toStatus)
+                .orElseThrow(() -> new ResourceNotFoundException("Reassignment job not found with id: " + jobId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStarted(CategoryReassignmentStartedEvent event) {
+        submit(event.jobId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunning() {
+        for (CategoryReassignment job : reassignmentRepository.findByStatus(RUNNING)) {
+            log.info("Resuming reassignment {} of category {} after transaction {}",
+                    job.getId(), job.getCategoryId(), job.getLastTransactionId());
+            submit(job.getId());
+        }
+    }
+
+    void run(Long jobId) {
+        try {
+            while (Boolean.TRUE.equals(transactionTemplate.execute(status -> moveChunk(jobId)))) {
+                // Each chunk commits on its own.
+            }
+        } catch (RuntimeException e) {
+            log.error("Reassignment {} failed: {}", jobId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> fail(jobId, e.getMessage()));
+        } finally {
+            active.remove(jobId);
+        }
+    }
+
+    /** Moves the next chunk under the job's row lock; returns whether there is more to do. */
+    boolean moveChunk(Long jobId) {
+        CategoryReassignment job = reassignmentRepository.findForUpdate(jobId).orElse(null);
+        if (job == null || !RUNNING.equals(job.getStatus())) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        job.setUpdatedAt(now);
+        List<Long> ids = transactionRepository.findIdsInCategoryAfter(
+                job.getUserId(), job.getCategoryId(), job.getLastTransactionId(), PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            if (job.getLastTransactionId() > 0) {
+                // One more pass from the start for anything written behind the cursor before the category was hidden.
+                job.setLastTransactionId(0);
+                return true;
+            }
+            // budgets.category_id references the category.
+            budgetSnapshotRepository.deleteByCategoryId(job.getCategoryId());
+            budgetRepository.deleteByCategoryId(job.getCategoryId());
+            categoryRepository.deleteById(job.getCategoryId());
+            // Cached budget overviews still list the removed budgets.
+            eventPublisher.publishEvent(new CategoryChangedEvent(job.getUserId()));
+            job.setStatus(COMPLETED);
+            job.setFinishedAt(now);
+            log.info("Reassignment {} moved {} transactions from category {} to {}",
+                    jobId, job.getMoved(), job.getCategoryId(), job.getTargetCategoryId());
+            return false;
+        }
+
+        Category target = categoryRepository.getReferenceById(job.getTargetCategoryId());
+        SpendingRollupService.Changes changes = new SpendingRollupService.Changes();
+        for (Transaction transaction : transactionRepository.findAllById(ids)) {
+            changes.remove(transaction);
+            transaction.setCategory(target);
+            changes.add(transaction);
+        }
+        // Soft-deleted rows are invisible to the entity queries but still reference the category.
+        transactionRepository.moveToCategory(ids, job.getCategoryId(), job.getTargetCategoryId());
+        spendingRollupService.apply(changes);
+        spendingAnomalyService.reset(job.getUserId(), List.of(job.getCategoryId(), job.getTargetCategoryId()));
+
+        job.setMoved(job.getMoved() + ids.size());
+        job.setLastTransactionId(ids.get(ids.size() - 1));
+        return true;
+    }
+
+    private void fail(Long jobId, String error) {
+        reassignmentRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(FAILED);
+            job.setError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+            job.setFinishedAt(LocalDateTime.now());
+            categoryRepository.findById(job.getCategoryId()).ifPresent(category -> category.setDeletionRequestedAt(null));
+            eventPublisher.publishEvent(new CategoryChangedEvent(job.getUserId()));
+        });
+    }
+
+    private void submit(Long jobId) {
+        if (!active.add(jobId)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            active.remove(jobId);
+            log.warn("Reassignment {} could not be queued; it will resume at the next startup", jobId);
+        }
+    }
+
+    private static CategoryReassignmentStatus toStatus(CategoryReassignment job) {
+        return CategoryReassignmentStatus.builder()
+                .jobId(job.getId())
+                .categoryId(job.getCategoryId())
+                .targetCategoryId(job.getTargetCategoryId())
+                .status(job.getStatus())
+                .total(job.getTotal())
+                .moved(job.getMoved())
+                .error(job.getError())
+                .startedAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
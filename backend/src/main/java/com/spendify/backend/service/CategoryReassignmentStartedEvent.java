@@ -0,0 +1,8 @@
+package com.spendify.backend.service;
+
+/**
+ * Published when a category deletion has queued a reassignment job; the job
+ * starts once the deleting transaction commits.
+ */
+public record CategoryReassignmentStartedEvent(Long jobId) {
+}
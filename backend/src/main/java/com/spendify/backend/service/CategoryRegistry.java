@@ -0,0 +1,155 @@
+package com.spendify.backend.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of the categories each user can assign. System categories
+ * are created once by the data loader and never change at runtime, so they
+ * are read into an immutable snapshot on first use. A user's own categories
+ * are cached per user and dropped after a {@link CategoryChangedEvent} commits;
+ * categories whose deletion is in progress are left out.
+ * <p>
+ * Events only reach the node that handled the change, so entries also expire
+ * a short, fixed time after they were loaded, which bounds how long a category
+ * deleted elsewhere is still offered. A lookup that misses reloads the user's
+ * categories before rejecting, so one created elsewhere is usable at once.
+ * <p>
+ * Cached categories are detached copies whose owner carries only its id. They
+ * can be assigned to transactions but must not be modified or saved. A load
+ * that overlaps an invalidation is returned but not cached.
+ */
+@Component
+public class CategoryRegistry {
+
+    private static final Comparator<Category> DISPLAY_ORDER = Comparator
+            .comparing((Category c) -> c.getDisplayOrder() != null ? c.getDisplayOrder() : Integer.MAX_VALUE)
+            .thenComparing(Category::getId);
+
+    private final CategoryRepository categoryRepository;
+    private final Cache<Long, Map<Long, Category>> userCategories;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Map<Long, Category> systemCategories;
+
+    public CategoryRegistry(CategoryRepository categoryRepository,
+                            @Value("${category.registry.max-users:10000}") long maxUsers,
+                            @Value("${category.registry.ttl-seconds:30}") long ttlSeconds) {
+        this.categoryRepository = categoryRepository;
+        this.userCategories = CacheBuilder.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /** Loads the system snapshot once the data loader has created the defaults. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        systemCategories();
+    }
+
+    /**
+     * The category if it is a system category or one of the user's own, or
+     * empty if it does not exist or belongs to someone else.
+     */
+    public Optional<Category> find(Long userId, Long categoryId) {
+        if (categoryId == null) {
+            return Optional.empty();
+        }
+        Category category = systemCategories().get(categoryId);
+        if (category != null) {
+            return Optional.of(category);
+        }
+        Map<Long, Category> cached = userCategories.getIfPresent(userId);
+        Category own = cached != null ? cached.get(categoryId) : null;
+        return Optional.ofNullable(own != null ? own : loadUserCategories(userId).get(categoryId));
+    }
+
+    /** The system category with this name, such as the "Other" fallback. */
+    public Optional<Category> findSystem(String name) {
+        return systemCategories().values().stream()
+                .filter(category -> category.getName().equals(name))
+                .findFirst();
+    }
+
+    /** System categories in display order, followed by the user's own in creation order. */
+    public List<Category> listForUser(Long userId) {
+        Map<Long, Category> system = systemCategories();
+        Map<Long, Category> own = userCategories(userId);
+        List<Category> categories = new ArrayList<>(system.size() + own.size());
+        categories.addAll(system.values());
+        categories.addAll(own.values());
+        return categories;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        version.incrementAndGet();
+        userCategories.invalidate(event.userId());
+    }
+
+    private Map<Long, Category> systemCategories() {
+        Map<Long, Category> snapshot = systemCategories;
+        if (snapshot == null) {
+            List<Category> loaded = categoryRepository.findByIsSystem(true);
+            snapshot = index(loaded);
+            // Before the data loader has run there is nothing to freeze yet.
+            if (!snapshot.isEmpty()) {
+                systemCategories = snapshot;
+            }
+        }
+        return snapshot;
+    }
+
+    private Map<Long, Category> userCategories(Long userId) {
+        Map<Long, Category> cached = userCategories.getIfPresent(userId);
+        return cached != null ? cached : loadUserCategories(userId);
+    }
+
+    private Map<Long, Category> loadUserCategories(Long userId) {
+        long before = version.get();
+        Map<Long, Category> loaded = index(categoryRepository.findByUserIdAndDeletionRequestedAtIsNull(userId));
+        if (version.get() == before) {
+            userCategories.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private static Map<Long, Category> index(List<Category> categories) {
+        Map<Long, Category> indexed = new LinkedHashMap<>();
+        categories.stream()
+                .sorted(DISPLAY_ORDER)
+                .forEach(category -> indexed.put(category.getId(), copyOf(category)));
+        return Collections.unmodifiableMap(indexed);
+    }
+
+    private static Category copyOf(Category category) {
+        User owner = category.getUser() != null ? User.builder().id(category.getUser().getId()).build() : null;
+        return Category.builder()
+                .id(category.getId())
+                .user(owner)
+                .name(category.getName())
+                .color(category.getColor())
+                .icon(category.getIcon())
+                .isSystem(category.isSystem())
+                .displayOrder(category.getDisplayOrder())
+                .build();
+    }
+}
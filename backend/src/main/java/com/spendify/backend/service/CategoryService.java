@@ -1,5 +1,7 @@
 package com.spendify.backend.service;
 
+import com.spendify.backend.dto.CategoryCount;
+import com.spendify.backend.dto.CategoryReassignmentStatus;
 import com.spendify.backend.dto.CategoryResponse;
 import com.spendify.backend.dto.CreateCategoryRequest;
 import com.spendify.backend.dto.UpdateCategoryRequest;
@@ -7,14 +9,18 @@ import com.spendify.backend.entity.Category;
 import com.spendify.backend.entity.User;
 import com.spendify.backend.exception.ResourceNotFoundException;
 import com.spendify.backend.repository.CategoryRepository;
-import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
 import com.spendify.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,14 +28,23 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryRegistry categoryRegistry;
+    private final CategoryReassignmentService categoryReassignmentService;
     private final UserRepository userRepository;
-    private final TransactionRepository transactionRepository;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<CategoryResponse> getAllCategories() {
         User user = getCurrentUser();
-        return categoryRepository.findByUserIdOrIsSystem(user.getId(), true)
+        // One grouped count over the user's rollup rows instead of a COUNT per category;
+        // counts are the user's own, including for system categories.
+        Map<Long, Long> counts = new HashMap<>();
+        for (CategoryCount count : spendingRollupRepository.countByCategory(user.getId())) {
+            counts.put(count.getCategoryId(), count.getTransactionCount());
+        }
+        return categoryRegistry.listForUser(user.getId())
                 .stream()
-                .map(this::mapToCategoryResponse)
+                .map(category -> mapToCategoryResponse(category, counts.getOrDefault(category.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
@@ -50,20 +65,21 @@ public class CategoryService {
                 .build();
         
         category = categoryRepository.save(category);
-        return mapToCategoryResponse(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(user.getId()));
+        return mapToCategoryResponse(category, 0);
     }
 
     @Transactional
     public CategoryResponse updateCategory(Long id, UpdateCategoryRequest request) {
         User user = getCurrentUser();
-        Category category = categoryRepository.findById(id)
+        Category category = findVisible(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
 
         if (category.isSystem() || !category.getUser().getId().equals(user.getId())) {
             throw new IllegalStateException("User not authorized to update this category.");
         }
 
-        if (request.getName() != null) {
+        if (request.getName() != null && !request.getName().equals(category.getName())) {
             category.setName(request.getName());
         }
         if (request.getColor() != null) {
@@ -74,13 +90,18 @@ public class CategoryService {
         }
         
         category = categoryRepository.save(category);
-        return mapToCategoryResponse(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(user.getId()));
+        return mapToCategoryResponse(category, spendingRollupRepository.countTransactions(user.getId(), category.getId()));
     }
 
+    /**
+     * Hides the category at once and moves its transactions to {@code reassignToId}, or the
+     * system "Other" category, in a background job; the row is removed when the job finishes.
+     */
     @Transactional
-    public void deleteCategory(Long id, Long reassignToId) {
+    public CategoryReassignmentStatus deleteCategory(Long id, Long reassignToId) {
         User user = getCurrentUser();
-        Category category = categoryRepository.findById(id)
+        Category category = findVisible(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
 
         if (category.isSystem() || !category.getUser().getId().equals(user.getId())) {
@@ -89,23 +110,35 @@ public class CategoryService {
 
         Category reassignCategory;
         if (reassignToId != null) {
-            reassignCategory = categoryRepository.findById(reassignToId)
+            reassignCategory = findVisible(reassignToId)
                     .orElseThrow(() -> new ResourceNotFoundException("Reassignment category not found."));
-            if (!reassignCategory.getUser().getId().equals(user.getId()) && !reassignCategory.isSystem()) {
+            if (!reassignCategory.isSystem() && !reassignCategory.getUser().getId().equals(user.getId())) {
                 throw new IllegalStateException("User not authorized to reassign to this category.");
             }
+            if (reassignCategory.getId().equals(id)) {
+                throw new IllegalStateException("Cannot reassign a category to itself.");
+            }
         } else {
             reassignCategory = categoryRepository.findByNameAndUserId("Other", null)
                 .orElseThrow(() -> new IllegalStateException("Default 'Other' category not found."));
         }
-        
-        transactionRepository.reassignCategory(user.getId(), id, reassignCategory.getId());
-        
-        categoryRepository.delete(category);
+
+        CategoryReassignmentStatus status = categoryReassignmentService.start(user.getId(), category, reassignCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(user.getId()));
+        return status;
+    }
+
+    public CategoryReassignmentStatus getReassignmentStatus(Long jobId) {
+        User user = getCurrentUser();
+        return categoryReassignmentService.getStatus(user.getId(), jobId);
+    }
+
+    /** A category being deleted is treated as already gone. */
+    private Optional<Category> findVisible(Long id) {
+        return categoryRepository.findById(id).filter(category -> category.getDeletionRequestedAt() == null);
     }
 
-    private CategoryResponse mapToCategoryResponse(Category category) {
-        long transactionCount = transactionRepository.countByCategoryId(category.getId());
+    private CategoryResponse mapToCategoryResponse(Category category, long transactionCount) {
         return CategoryResponse.builder()
                 .id(category.getId())
                 .name(category.getName())
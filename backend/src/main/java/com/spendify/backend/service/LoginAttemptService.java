@@ -1,49 +1,243 @@
 package com.spendify.backend.service;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.spendify.backend.util.SlidingWindowCounter;
+import com.spendify.backend.util.WindowedCountMinSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+/**
+ * Tracks failed logins per email and per IP over a sliding 15 minute window.
+ * Known keys get an exact lock-free counter in one of several size-bounded
+ * shards; once a shard is full, further keys are counted approximately in a
+ * fixed-size count-min sketch so a flood of random emails cannot grow memory.
+ * <p>
+ * Only exact counters can block a key. Sketch cells are shared, so under a
+ * flood an innocent key's estimate can be inflated by collisions; the sketch
+ * only picks the keys worth promoting into a shard, where they displace the
+ * quietest counter and then have to fail {@link #MAX_ATTEMPT} times on their own.
+ */
 @Service
 public class LoginAttemptService {
 
+    private static final Logger log = LoggerFactory.getLogger(LoginAttemptService.class);
+
     public static final int MAX_ATTEMPT = 5;
-    private final LoadingCache<String, Integer> attemptsCache;
+    public static final int MAX_ATTEMPT_PER_IP = 20;
+    public static final Duration WINDOW = Duration.ofMinutes(15);
+
+    static final int SHARD_COUNT = 16;
+    static final int DEFAULT_SHARD_CAPACITY = 1024;
+    private static final int WINDOW_SLOTS = 15;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 1 << 14;
+    private static final int SKETCH_GENERATIONS = 3;
+    /** Sketch estimate at which a key that found its shard full is given an exact counter. */
+    static final int PROMOTE_AT = 2;
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+    private final WindowedCountMinSketch overflow;
+    private final int shardCapacity;
+    private final long slotMillis;
+    private final LongSupplier clock;
+    private final SharedAttemptCounter sharedCounter;
 
     public LoginAttemptService() {
-        super();
-        attemptsCache = CacheBuilder.newBuilder().
-                expireAfterWrite(15, TimeUnit.MINUTES).build(new CacheLoader<String, Integer>() {
-                    public Integer load(String key) {
-                        return 0;
-                    }
-                });
+        this(null, DEFAULT_SHARD_CAPACITY, System::currentTimeMillis);
+    }
+
+    @Autowired
+    public LoginAttemptService(ObjectProvider<SharedAttemptCounter> sharedCounter) {
+        this(sharedCounter.getIfAvailable(), DEFAULT_SHARD_CAPACITY, System::currentTimeMillis);
+    }
+
+    LoginAttemptService(SharedAttemptCounter sharedCounter, int shardCapacity, LongSupplier clock) {
+        this.sharedCounter = sharedCounter;
+        this.shardCapacity = shardCapacity;
+        this.clock = clock;
+        this.slotMillis = WINDOW.toMillis() / WINDOW_SLOTS;
+        this.overflow = new WindowedCountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH, SKETCH_GENERATIONS,
+                WINDOW.toMillis() / SKETCH_GENERATIONS);
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard();
+        }
     }
 
     public void loginSucceeded(String key) {
-        attemptsCache.invalidate(key);
+        reset(emailKey(key));
     }
 
     public void loginFailed(String key) {
-        int attempts;
-        try {
-            attempts = attemptsCache.get(key);
-        } catch (ExecutionException e) {
-            attempts = 0;
-        }
-        attempts++;
-        attemptsCache.put(key, attempts);
+        increment(emailKey(key));
     }
 
     public boolean isBlocked(String key) {
-        try {
-            return attemptsCache.get(key) >= MAX_ATTEMPT;
-        } catch (ExecutionException e) {
-            return false;
+        return count(emailKey(key)) >= MAX_ATTEMPT;
+    }
+
+    public void loginFailed(String email, String ipAddress) {
+        loginFailed(email);
+        if (ipAddress != null) {
+            increment(ipKey(ipAddress));
+        }
+    }
+
+    public boolean isBlocked(String email, String ipAddress) {
+        return isBlocked(email) || (ipAddress != null && count(ipKey(ipAddress)) >= MAX_ATTEMPT_PER_IP);
+    }
+
+    private void increment(String key) {
+        if (sharedCounter != null) {
+            try {
+                sharedCounter.incrementAndGet(key, WINDOW);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Shared attempt counter unavailable, counting locally: {}", e.getMessage());
+            }
+        }
+        long now = clock.getAsLong();
+        Shard shard = shardFor(key);
+        SlidingWindowCounter counter = shard.counterFor(key, now);
+        if (counter == null) {
+            int estimate = overflow.incrementAndGet(key, now);
+            if (estimate < PROMOTE_AT || (counter = shard.promote(key, estimate, now)) == null) {
+                return;
+            }
+        }
+        counter.incrementAndGet(now);
+    }
+
+    private long count(String key) {
+        if (sharedCounter != null) {
+            try {
+                return sharedCounter.get(key);
+            } catch (RuntimeException e) {
+                log.warn("Shared attempt counter unavailable, reading local count: {}", e.getMessage());
+            }
+        }
+        long now = clock.getAsLong();
+        SlidingWindowCounter counter = shardFor(key).counters.get(key);
+        return counter != null ? counter.sum(now) : 0;
+    }
+
+    private void reset(String key) {
+        if (sharedCounter != null) {
+            try {
+                sharedCounter.reset(key);
+            } catch (RuntimeException e) {
+                log.warn("Shared attempt counter unavailable, resetting locally: {}", e.getMessage());
+            }
+        }
+        // Only exact counters block; the sketch estimate can merely promote the key again.
+        shardFor(key).remove(key);
+    }
+
+    private Shard shardFor(String key) {
+        int h = key.hashCode();
+        return shards[(h ^ (h >>> 16)) & (SHARD_COUNT - 1)];
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + (email == null ? "" : email.toLowerCase());
+    }
+
+    private static String ipKey(String ipAddress) {
+        return "ip:" + ipAddress;
+    }
+
+    private final class Shard {
+        private final ConcurrentHashMap<String, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicLong lastSweep = new AtomicLong();
+
+        SlidingWindowCounter counterFor(String key, long now) {
+            SlidingWindowCounter existing = counters.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (!reserve(now)) {
+                return null;
+            }
+            SlidingWindowCounter created = new SlidingWindowCounter(WINDOW_SLOTS, slotMillis);
+            SlidingWindowCounter raced = counters.putIfAbsent(key, created);
+            if (raced != null) {
+                size.decrementAndGet();
+                return raced;
+            }
+            return created;
+        }
+
+        /**
+         * Gives {@code key} an exact counter in a full shard by evicting the counter
+         * with the fewest failures, provided it has fewer than the key's estimate.
+         */
+        SlidingWindowCounter promote(String key, int estimate, long now) {
+            String quietestKey = null;
+            SlidingWindowCounter quietest = null;
+            int lowest = estimate;
+            for (Map.Entry<String, SlidingWindowCounter> entry : counters.entrySet()) {
+                int sum = entry.getValue().sum(now);
+                if (sum < lowest) {
+                    lowest = sum;
+                    quietestKey = entry.getKey();
+                    quietest = entry.getValue();
+                }
+            }
+            if (quietest == null || !counters.remove(quietestKey, quietest)) {
+                return null;
+            }
+            SlidingWindowCounter created = new SlidingWindowCounter(WINDOW_SLOTS, slotMillis);
+            SlidingWindowCounter raced = counters.putIfAbsent(key, created);
+            if (raced != null) {
+                size.decrementAndGet();
+                return raced;
+            }
+            return created;
+        }
+
+        void remove(String key) {
+            if (counters.remove(key) != null) {
+                size.decrementAndGet();
+            }
+        }
+
+        private boolean reserve(long now) {
+            while (true) {
+                int current = size.get();
+                if (current >= shardCapacity) {
+                    if (!sweep(now)) {
+                        return false;
+                    }
+                    continue;
+                }
+                if (size.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /** Drops idle counters, at most once per slot so a full shard is not rescanned on every miss. */
+        private boolean sweep(long now) {
+            long last = lastSweep.get();
+            if (now - last < slotMillis || !lastSweep.compareAndSet(last, now)) {
+                return false;
+            }
+            int before = size.get();
+            counters.forEach((key, counter) -> {
+                if (counter.isIdle(now) && counters.remove(key, counter)) {
+                    size.decrementAndGet();
+                }
+            });
+            return size.get() < before;
         }
     }
 }
@@ -0,0 +1,108 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.entity.LoginAudit;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.LoginAuditRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entry point for every login attempt. Lockout counters are updated inline
+ * (they are in-memory and must be current for the next attempt), while the
+ * audit row is appended to a bounded buffer and written in batches by a
+ * scheduled flush, so login latency never waits on the database.
+ */
+@Service
+public class LoginAuditService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginAuditService.class);
+
+    private final LoginAuditRepository loginAuditRepository;
+    private final LoginAttemptService loginAttemptService;
+    private final BlockingQueue<LoginAudit> buffer;
+    private final int batchSize;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public LoginAuditService(LoginAuditRepository loginAuditRepository,
+                             LoginAttemptService loginAttemptService,
+                             @Value("${audit.login.buffer-size:8192}") int bufferSize,
+                             @Value("${audit.login.batch-size:200}") int batchSize) {
+        this.loginAuditRepository = loginAuditRepository;
+        this.loginAttemptService = loginAttemptService;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+    }
+
+    public void record(String email, User user, String ipAddress, boolean successful) {
+        if (successful) {
+            loginAttemptService.loginSucceeded(email);
+        } else {
+            loginAttemptService.loginFailed(email, ipAddress);
+        }
+        append(email, user, ipAddress, successful);
+    }
+
+    /**
+     * Audits an attempt turned away because the email or IP is already locked.
+     * It is not counted as a failure: otherwise anyone could keep extending a
+     * victim's lockout by retrying against it.
+     */
+    public void recordBlocked(String email, String ipAddress) {
+        append(email, null, ipAddress, false);
+    }
+
+    private void append(String email, User user, String ipAddress, boolean successful) {
+        LoginAudit audit = LoginAudit.builder()
+                .user(user)
+                .email(email)
+                .ipAddress(ipAddress != null ? ipAddress : "unknown")
+                .timestamp(LocalDateTime.now())
+                .successful(successful)
+                .build();
+        if (!buffer.offer(audit)) {
+            long total = dropped.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                log.warn("Login audit buffer full, {} audit records dropped so far", total);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.login.flush-interval-ms:1000}")
+    public void flush() {
+        while (!buffer.isEmpty()) {
+            List<LoginAudit> batch = new ArrayList<>(batchSize);
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                return;
+            }
+            try {
+                loginAuditRepository.saveAll(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} login audit records: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public int pending() {
+        return buffer.size();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,135 @@
+package com.spendify.backend.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.spendify.backend.dto.MerchantCategory;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.util.BkTree;
+import com.spendify.backend.util.MerchantNames;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Maps the many spellings of a store to one canonical merchant per user and
+ * remembers the category the user last filed it under. Only categories the
+ * user chose count; one the application guessed would otherwise be offered
+ * back as the user's own habit. A merchant is first
+ * normalized by {@link MerchantNames}; what is left of OCR noise and typos is
+ * absorbed by matching against the user's known merchants within a small edit
+ * distance, using a {@link BkTree} so a lookup only compares against a few of
+ * them.
+ * <p>
+ * A user's merchants are loaded on first use from their transactions in
+ * creation order and kept in a bounded cache, then follow user edits through
+ * {@link TransactionChangedEvent}s. Statement imports publish no such events;
+ * their rows are picked up when the user's merchants are next loaded.
+ */
+@Service
+public class MerchantCanonicalizer {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readTemplate;
+    private final Cache<Long, Merchants> users;
+
+    public MerchantCanonicalizer(TransactionRepository transactionRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${merchants.max-users:2000}") long maxUsers) {
+        this.transactionRepository = transactionRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.users = CacheBuilder.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+    }
+
+    /** The category of the user's most recent transaction at this merchant or one of its spellings. */
+    public Optional<Long> lastCategory(Long userId, String merchant) {
+        return merchants(userId).lastCategory(MerchantNames.normalize(merchant));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        Merchants merchants = users.getIfPresent(event.userId());
+        if (merchants == null) {
+            return;
+        }
+        for (TransactionChangedEvent.Change change : event.changes()) {
+            TransactionChangedEvent.Snapshot before = change.previous();
+            TransactionChangedEvent.Snapshot after = change.current();
+            if (after == null || before != null && before.categoryId().equals(after.categoryId())
+                    && before.autoCategorized() == after.autoCategorized()
+                    && Objects.equals(before.merchant(), after.merchant())) {
+                continue;
+            }
+            merchants.remember(after.merchant(), after.autoCategorized() ? null : after.categoryId());
+        }
+    }
+
+    /**
+     * Edits tolerated when matching a normalized merchant: none for short names,
+     * where one edit turns one store into another, then one, then two.
+     */
+    static int maxDistance(String normalized) {
+        return normalized.length() < 5 ? 0 : normalized.length() < 9 ? 1 : 2;
+    }
+
+    private Merchants merchants(Long userId) {
+        try {
+            return users.get(userId, () -> load(userId));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not load merchants for user " + userId, e.getCause());
+        }
+    }
+
+    private Merchants load(Long userId) {
+        Merchants merchants = new Merchants();
+        readTemplate.executeWithoutResult(status -> {
+            try (Stream<MerchantCategory> rows = transactionRepository.streamMerchantCategories(userId)) {
+                rows.forEach(row -> merchants.remember(row.getMerchant(), row.isAutoCategorized() ? null : row.getCategoryId()));
+            }
+        });
+        return merchants;
+    }
+
+    /** One user's canonical merchants and the last category the user chose for each. */
+    static final class Merchants {
+        private final BkTree names = new BkTree();
+        private final Map<String, Long> lastCategories = new HashMap<>();
+
+        synchronized String resolve(String normalized) {
+            if (normalized.isEmpty() || lastCategories.containsKey(normalized)) {
+                return normalized;
+            }
+            String nearest = names.nearest(normalized, maxDistance(normalized));
+            return nearest != null ? nearest : normalized;
+        }
+
+        synchronized Optional<Long> lastCategory(String normalized) {
+            return Optional.ofNullable(lastCategories.get(resolve(normalized)));
+        }
+
+        /** Adds the merchant's spelling; {@code categoryId} is {@code null} when the user did not choose it. */
+        synchronized void remember(String merchant, Long categoryId) {
+            String canonical = resolve(MerchantNames.normalize(merchant));
+            if (canonical.isEmpty()) {
+                return;
+            }
+            names.add(canonical);
+            if (categoryId != null) {
+                lastCategories.put(canonical, categoryId);
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.spendify.backend.service;
+
+import com.google.common.hash.Hashing;
+import com.spendify.backend.dto.MerchantAnalyticsResponse;
+import com.spendify.backend.dto.MonthlyCount;
+import com.spendify.backend.dto.TransactionFingerprint;
+import com.spendify.backend.entity.MerchantSketch;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.exception.ResourceNotFoundException;
+import com.spendify.backend.repository.MerchantSketchRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.UserRepository;
+import com.spendify.backend.util.HyperLogLog;
+import com.spendify.backend.util.MerchantNames;
+import com.spendify.backend.util.SpaceSavingSketch;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains per-user, per-month merchant sketches next to the spending rollup
+ * and answers merchant analytics by merging them. New transactions are folded
+ * into an existing month incrementally; removals mark the month stale since
+ * the sketches cannot subtract. At read time a month is rebuilt from its
+ * transactions when it is missing, stale, or its transaction count disagrees
+ * with the rollup; the rebuilt row is saved against the version read before
+ * the scan, so it never overwrites a write that landed meanwhile. Partial
+ * months at the edges of a range are scanned directly and never stored.
+ * Merchants are counted under {@link MerchantNames#normalize}, the same key
+ * the rest of the application matches merchants by.
+ */
+@Service
+public class MerchantSketchService {
+
+    public static final int MAX_LIMIT = 50;
+    static final int HEAVY_HITTER_CAPACITY = 64;
+    static final int HLL_PRECISION = 11;
+
+    private final MerchantSketchRepository merchantSketchRepository;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+
+    public MerchantSketchService(MerchantSketchRepository merchantSketchRepository,
+                                 SpendingRollupRepository spendingRollupRepository,
+                                 TransactionRepository transactionRepository,
+                                 UserRepository userRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.merchantSketchRepository = merchantSketchRepository;
+        this.spendingRollupRepository = spendingRollupRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public void apply(SpendingRollupService.Changes changes) {
+        Map<Long, Set<String>> removedMonths = new HashMap<>();
+        Map<Long, Map<String, List<SpendingRollupService.MerchantEntry>>> addedMonths = new HashMap<>();
+        changes.merchantChanges().forEach((entry, net) -> {
+            String month = YearMonth.from(entry.date()).toString();
+            if (net < 0) {
+                removedMonths.computeIfAbsent(entry.userId(), id -> new HashSet<>()).add(month);
+            }
+            for (int i = 0; i < net; i++) {
+                addedMonths.computeIfAbsent(entry.userId(), id -> new HashMap<>())
+                        .computeIfAbsent(month, m -> new ArrayList<>()).add(entry);
+            }
+        });
+
+        removedMonths.forEach(merchantSketchRepository::markStale);
+        addedMonths.forEach((userId, months) -> months.forEach((month, entries) -> {
+            if (removedMonths.getOrDefault(userId, Set.of()).contains(month)) {
+                return;
+            }
+            // Months without a sketch are built on first read; nothing to update yet.
+            merchantSketchRepository.findForUpdate(userId, month)
+                    .filter(row -> !row.isStale())
+                    .ifPresent(row -> {
+                        Sketches sketches = Sketches.from(row);
+                        entries.forEach(e -> sketches.add(e.merchant(), e.amount()));
+                        sketches.writeTo(row);
+                        row.setTransactionCount(row.getTransactionCount() + entries.size());
+                        merchantSketchRepository.save(row);
+                    });
+        }));
+    }
+
+    public MerchantAnalyticsResponse getMerchantAnalytics(LocalDate startDate, LocalDate endDate, int limit) {
+        User user = getCurrentUser();
+        Long userId = user.getId();
+
+        YearMonth first = YearMonth.from(startDate);
+        YearMonth last = YearMonth.from(endDate);
+        YearMonth firstWhole = startDate.getDayOfMonth() == 1 ? first : first.plusMonths(1);
+        YearMonth lastWhole = endDate.equals(last.atEndOfMonth()) ? last : last.minusMonths(1);
+
+        Sketches merged = Sketches.empty();
+        if (!firstWhole.isAfter(lastWhole)) {
+            mergeWholeMonths(userId, firstWhole, lastWhole, merged);
+        }
+        if (firstWhole.isAfter(lastWhole) && first.equals(last)) {
+            merged.merge(scan(userId, startDate, endDate));
+        } else {
+            if (!firstWhole.equals(first)) {
+                merged.merge(scan(userId, startDate, first.atEndOfMonth()));
+            }
+            if (!lastWhole.equals(last)) {
+                merged.merge(scan(userId, last.atDay(1), endDate));
+            }
+        }
+
+        return MerchantAnalyticsResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .distinctMerchants(merged.distinct.estimate())
+                .topBySpend(merged.spend.top(limit).stream()
+                        .map(c -> new MerchantAnalyticsResponse.MerchantSpend(c.getLabel(),
+                                BigDecimal.valueOf(c.getCount(), 2), BigDecimal.valueOf(c.getError(), 2)))
+                        .toList())
+                .topByFrequency(merged.frequency.top(limit).stream()
+                        .map(c -> new MerchantAnalyticsResponse.MerchantFrequency(c.getLabel(), c.getCount(), c.getError()))
+                        .toList())
+                .build();
+    }
+
+    private void mergeWholeMonths(Long userId, YearMonth from, YearMonth to, Sketches merged) {
+        Map<YearMonth, Long> expected = new HashMap<>();
+        for (MonthlyCount count : spendingRollupRepository.countByMonth(userId, from.atDay(1), to.atEndOfMonth())) {
+            expected.put(YearMonth.of(count.getYear(), count.getMonth()), count.getTransactionCount());
+        }
+        List<String> months = Stream.iterate(from, m -> !m.isAfter(to), m -> m.plusMonths(1))
+                .filter(m -> expected.getOrDefault(m, 0L) > 0)
+                .map(YearMonth::toString)
+                .toList();
+        if (months.isEmpty()) {
+            return;
+        }
+        Map<String, MerchantSketch> stored = merchantSketchRepository.findByUserIdAndYearMonthIn(userId, months).stream()
+                .collect(Collectors.toMap(MerchantSketch::getYearMonth, Function.identity()));
+
+        for (String month : months) {
+            MerchantSketch row = stored.get(month);
+            long count = expected.get(YearMonth.parse(month));
+            if (row != null && !row.isStale() && row.getTransactionCount() == count) {
+                merged.merge(Sketches.from(row));
+            } else {
+                merged.merge(rebuild(userId, YearMonth.parse(month), row));
+            }
+        }
+    }
+
+    private Sketches rebuild(Long userId, YearMonth month, MerchantSketch existing) {
+        MerchantSketch row = existing != null ? existing : createPlaceholder(userId, month);
+        Sketches sketches = scan(userId, month.atDay(1), month.atEndOfMonth());
+        sketches.writeTo(row);
+        row.setTransactionCount(sketches.transactions);
+        row.setStale(false);
+        try {
+            writeTemplate.executeWithoutResult(status -> merchantSketchRepository.save(row));
+        } catch (OptimisticLockingFailureException e) {
+            // A write changed the month after the row was read; it stays stale for the next read.
+        }
+        return sketches;
+    }
+
+    /**
+     * Stores an empty, stale row for the month before it is scanned, so a transaction removed
+     * during the scan bumps its version and the rebuild's save yields instead of hiding the removal.
+     */
+    private MerchantSketch createPlaceholder(Long userId, YearMonth month) {
+        MerchantSketch placeholder = MerchantSketch.builder().userId(userId).yearMonth(month.toString()).stale(true).build();
+        Sketches.empty().writeTo(placeholder);
+        try {
+            return writeTemplate.execute(status -> merchantSketchRepository.saveAndFlush(placeholder));
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the row first; rebuild against theirs.
+            return readTemplate.execute(status -> merchantSketchRepository
+                    .findByUserIdAndYearMonthIn(userId, List.of(month.toString())).get(0));
+        }
+    }
+
+    private Sketches scan(Long userId, LocalDate startDate, LocalDate endDate) {
+        Sketches sketches = Sketches.empty();
+        readTemplate.executeWithoutResult(status -> {
+            try (Stream<TransactionFingerprint> rows = transactionRepository.streamFingerprintsBetween(userId, startDate, endDate)) {
+                rows.forEach(row -> sketches.add(row.getMerchant(), row.getAmount()));
+            }
+        });
+        return sketches;
+    }
+
+    private User getCurrentUser() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    /** The three sketches of one month or range, kept together so they are always merged in step. */
+    static final class Sketches {
+        private final SpaceSavingSketch spend;
+        private final SpaceSavingSketch frequency;
+        private final HyperLogLog distinct;
+        private long transactions;
+
+        private Sketches(SpaceSavingSketch spend, SpaceSavingSketch frequency, HyperLogLog distinct) {
+            this.spend = spend;
+            this.frequency = frequency;
+            this.distinct = distinct;
+        }
+
+        static Sketches empty() {
+            return new Sketches(new SpaceSavingSketch(HEAVY_HITTER_CAPACITY), new SpaceSavingSketch(HEAVY_HITTER_CAPACITY),
+                    new HyperLogLog(HLL_PRECISION));
+        }
+
+        static Sketches from(MerchantSketch row) {
+            Sketches sketches = new Sketches(SpaceSavingSketch.fromBytes(row.getSpendSketch()),
+                    SpaceSavingSketch.fromBytes(row.getFrequencySketch()), HyperLogLog.fromBytes(row.getDistinctSketch()));
+            sketches.transactions = row.getTransactionCount();
+            return sketches;
+        }
+
+        void add(String merchant, BigDecimal amount) {
+            String key = MerchantNames.normalize(merchant);
+            String label = merchant == null ? "" : merchant.trim();
+            spend.add(key, label, amount.movePointRight(2).longValue());
+            frequency.add(key, label, 1);
+            distinct.addHash(Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8).asLong());
+            transactions++;
+        }
+
+        void merge(Sketches other) {
+            spend.merge(other.spend);
+            frequency.merge(other.frequency);
+            distinct.merge(other.distinct);
+            transactions += other.transactions;
+        }
+
+        void writeTo(MerchantSketch row) {
+            row.setSpendSketch(spend.toBytes());
+            row.setFrequencySketch(frequency.toBytes());
+            row.setDistinctSketch(distinct.toBytes());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.spendify.backend.service;
 
+import com.spendify.backend.dto.CategorySuggestionResponse;
 import com.spendify.backend.dto.OcrResponse;
 import com.spendify.backend.entity.OcrProcessingLog;
 import com.spendify.backend.repository.OcrProcessingLogRepository;
@@ -24,6 +25,7 @@ import java.nio.file.Files; // Added import
 import java.nio.file.Paths; // Added import
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -37,6 +39,7 @@ public class OcrService {
     private static final Logger log = LoggerFactory.getLogger(OcrService.class);
 
     private final OcrProcessingLogRepository ocrProcessingLogRepository;
+    private final TransactionService transactionService;
 
     @Value("${tesseract.data-path}")
     private String tesseractDataPath;
@@ -78,9 +81,13 @@ public class OcrService {
             orclog.setSuccessful(true);
             ocrProcessingLogRepository.save(orclog);
 
+            Optional<CategorySuggestionResponse> category = transactionService.suggestCategory(merchant, null, text);
+
             return OcrResponse.builder()
                     .merchant(merchant)
                     .amount(amount)
+                    .suggestedCategoryId(category.map(CategorySuggestionResponse::getCategoryId).orElse(null))
+                    .suggestedCategoryName(category.map(CategorySuggestionResponse::getCategoryName).orElse(null))
                     .confidence(0.8) // Placeholder
                     .warnings(new ArrayList<>())
                     .build();
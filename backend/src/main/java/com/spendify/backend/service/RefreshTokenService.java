@@ -0,0 +1,106 @@
+package com.spendify.backend.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.spendify.backend.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache in front of {@link RefreshTokenRepository}. Entries are
+ * keyed by the SHA-256 of the token so raw tokens are never held in memory,
+ * and carry the token's expiry so a stale entry is never served. Revocation
+ * (logout, rotation on login) evicts the entry on this node only, so a hit is
+ * still confirmed against the token's unique index before it is served; what
+ * the cache saves is loading the row and its user. Expired rows are purged in
+ * bulk by a scheduled job rather than on access.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Cache<String, CachedRefreshToken> cache;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${auth.refresh-token.cache-size:100000}") long cacheSize,
+                               @Value("${auth.refresh-token.cache-ttl-minutes:30}") long cacheTtlMinutes) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtlMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    public Optional<CachedRefreshToken> lookup(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        String key = hash(token);
+        CachedRefreshToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            // Revoked on another node: the row is gone even though this node still holds the entry.
+            if (!cached.isExpired() && refreshTokenRepository.existsByToken(token)) {
+                return Optional.of(cached);
+            }
+            cache.invalidate(key);
+            if (!cached.isExpired()) {
+                return Optional.empty();
+            }
+        }
+
+        Optional<CachedRefreshToken> loaded = refreshTokenRepository.findByToken(token)
+                .map(t -> new CachedRefreshToken(t.getUser().getId(), t.getUser().getEmail(), t.getExpiryDate()));
+        loaded.filter(t -> !t.isExpired()).ifPresent(t -> cache.put(key, t));
+        return loaded;
+    }
+
+    public void evict(String token) {
+        if (token != null) {
+            cache.invalidate(hash(token));
+        }
+    }
+
+    @Transactional
+    public void revoke(String token) {
+        evict(token);
+        if (token != null) {
+            refreshTokenRepository.deleteByTokenValue(token);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.refresh-token.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteAllExpiredBefore(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    long cachedCount() {
+        cache.cleanUp();
+        return cache.size();
+    }
+
+    private static String hash(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+    }
+
+    public record CachedRefreshToken(Long userId, String email, LocalDateTime expiryDate) {
+        public boolean isExpired() {
+            return expiryDate.isBefore(LocalDateTime.now());
+        }
+    }
+}
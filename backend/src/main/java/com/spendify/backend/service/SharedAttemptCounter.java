@@ -0,0 +1,17 @@
+package com.spendify.backend.service;
+
+import java.time.Duration;
+
+/**
+ * Optional cluster-wide store for login failure counts. When a bean of this
+ * type is present, {@link LoginAttemptService} uses it so every node sees the
+ * same counts; otherwise counts are kept in-process.
+ */
+public interface SharedAttemptCounter {
+
+    long incrementAndGet(String key, Duration window);
+
+    long get(String key);
+
+    void reset(String key);
+}
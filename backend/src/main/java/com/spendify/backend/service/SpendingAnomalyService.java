@@ -0,0 +1,245 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.LogAmountMoments;
+import com.spendify.backend.entity.NotificationLog;
+import com.spendify.backend.entity.SpendingStats;
+import com.spendify.backend.repository.NotificationLogRepository;
+import com.spendify.backend.repository.SpendingStatsRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Flags transactions that are unusually large for their category. Amounts
+ * are compared on a log scale, since spending is right-skewed: a z-score is
+ * taken against the running mean and variance of earlier transactions in the
+ * same category, then the statistics are updated in O(1). Runs after the
+ * write commits, in its own transaction, so a failure here never rolls back
+ * the user's change.
+ * <p>
+ * The first time a (user, category) pair is seen its statistics are seeded
+ * from history with one aggregate query; after that no history is read.
+ * Writers that publish no {@link TransactionChangedEvent}, statement imports
+ * and category reassignment, {@link #reset} the pairs they touch instead, so
+ * those are seeded again. A missing row is inserted before it is locked, and
+ * an event's pairs are locked in category order, so two first writers queue
+ * on the row instead of deadlocking on a range lock. One that still loses,
+ * on the unique key or as a lock victim, runs again against the winner's row.
+ */
+@Service
+public class SpendingAnomalyService {
+
+    public static final String NOTIFICATION_TYPE = "SPENDING_ANOMALY";
+
+    private static final Logger log = LoggerFactory.getLogger(SpendingAnomalyService.class);
+
+    private final SpendingStatsRepository spendingStatsRepository;
+    private final TransactionRepository transactionRepository;
+    private final NotificationLogRepository notificationLogRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate writeTemplate;
+    private final long minSamples;
+    private final double zThreshold;
+
+    public SpendingAnomalyService(SpendingStatsRepository spendingStatsRepository,
+                                  TransactionRepository transactionRepository,
+                                  NotificationLogRepository notificationLogRepository,
+                                  UserRepository userRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${anomaly.min-samples:10}") long minSamples,
+                                  @Value("${anomaly.z-threshold:3.0}") double zThreshold) {
+        this.spendingStatsRepository = spendingStatsRepository;
+        this.transactionRepository = transactionRepository;
+        this.notificationLogRepository = notificationLogRepository;
+        this.userRepository = userRepository;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.minSamples = minSamples;
+        this.zThreshold = zThreshold;
+    }
+
+    @TransactionalEventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        try {
+            try {
+                writeTemplate.executeWithoutResult(status -> process(event));
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                // Another listener seeded or locked one of these pairs first; the retry updates its row instead.
+                writeTemplate.executeWithoutResult(status -> process(event));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Anomaly detection skipped for user {}: {}", event.userId(), e.getMessage());
+        }
+    }
+
+    /** Drops the statistics of the given categories so they are seeded from history on next use. */
+    public void reset(Long userId, Collection<Long> categoryIds) {
+        if (!categoryIds.isEmpty()) {
+            spendingStatsRepository.deleteByUserIdAndCategoryIds(userId, categoryIds);
+        }
+    }
+
+    void process(TransactionChangedEvent event) {
+        Map<Long, Stats> statsByCategory = new HashMap<>();
+        List<NotificationLog> notifications = new ArrayList<>();
+        Set<Long> categoryIds = new TreeSet<>();
+        for (TransactionChangedEvent.Change change : event.changes()) {
+            if (change.previous() != null && isPositive(change.previous().amount())) {
+                categoryIds.add(change.previous().categoryId());
+            }
+            if (change.current() != null && isPositive(change.current().amount())) {
+                categoryIds.add(change.current().categoryId());
+            }
+        }
+        categoryIds.forEach(categoryId -> stats(event.userId(), categoryId, statsByCategory));
+
+        for (TransactionChangedEvent.Change change : event.changes()) {
+            TransactionChangedEvent.Snapshot previous = change.previous();
+            TransactionChangedEvent.Snapshot current = change.current();
+            if (previous != null && isPositive(previous.amount())) {
+                Stats stats = stats(event.userId(), previous.categoryId(), statsByCategory);
+                if (!stats.seeded) {
+                    stats.remove(Math.log(previous.amount().doubleValue()));
+                }
+            }
+            if (current != null && isPositive(current.amount())) {
+                Stats stats = stats(event.userId(), current.categoryId(), statsByCategory);
+                double x = Math.log(current.amount().doubleValue());
+                if (stats.seeded) {
+                    // Seeded from committed history, which already includes this row.
+                    stats.remove(x);
+                }
+                if (isAnomalous(stats, x)) {
+                    notifications.add(notification(event.userId(), current, stats));
+                }
+                stats.add(x);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Stats stats : statsByCategory.values()) {
+            stats.row.setSampleCount(stats.count);
+            stats.row.setMean(stats.mean);
+            stats.row.setM2(stats.m2);
+            stats.row.setUpdatedAt(now);
+        }
+        spendingStatsRepository.saveAllAndFlush(statsByCategory.values().stream().map(s -> s.row).toList());
+        if (!notifications.isEmpty()) {
+            notificationLogRepository.saveAll(notifications);
+        }
+    }
+
+    private boolean isAnomalous(Stats stats, double x) {
+        if (stats.count < minSamples) {
+            return false;
+        }
+        double sd = Math.sqrt(stats.m2 / (stats.count - 1));
+        return sd > 0 && (x - stats.mean) / sd >= zThreshold;
+    }
+
+    private NotificationLog notification(Long userId, TransactionChangedEvent.Snapshot transaction, Stats stats) {
+        BigDecimal typical = BigDecimal.valueOf(Math.exp(stats.mean)).setScale(2, RoundingMode.HALF_UP);
+        return NotificationLog.builder()
+                .user(userRepository.getReferenceById(userId))
+                .type(NOTIFICATION_TYPE)
+                .message(String.format("Unusual spending: %s at %s in %s, your typical %s spend is about %s",
+                        transaction.amount().setScale(2, RoundingMode.HALF_UP).toPlainString(), transaction.merchant(),
+                        transaction.categoryName(), transaction.categoryName(), typical.toPlainString()))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Stats stats(Long userId, Long categoryId, Map<Long, Stats> cache) {
+        return cache.computeIfAbsent(categoryId, id -> {
+            boolean created = spendingStatsRepository.insertIfAbsent(userId, id) > 0;
+            SpendingStats row = spendingStatsRepository.findForUpdate(userId, id)
+                    .orElseThrow(() -> new IllegalStateException("Statistics for category " + id + " were reset concurrently"));
+            return created ? seed(row) : new Stats(row);
+        });
+    }
+
+    private Stats seed(SpendingStats row) {
+        Stats stats = new Stats(row);
+        stats.seeded = true;
+        LogAmountMoments moments = transactionRepository.findLogAmountMoments(row.getUserId(), row.getCategoryId());
+        if (moments != null && moments.getCount() != null && moments.getCount() > 0) {
+            long n = moments.getCount();
+            stats.count = n;
+            stats.mean = moments.getSum() / n;
+            stats.m2 = Math.max(0, moments.getSumOfSquares() - n * stats.mean * stats.mean);
+        }
+        return stats;
+    }
+
+    private static boolean isPositive(BigDecimal amount) {
+        return amount != null && amount.signum() > 0;
+    }
+
+    /** Welford accumulator over a {@link SpendingStats} row; supports removal for edits and deletes. */
+    static final class Stats {
+        private final SpendingStats row;
+        private long count;
+        private double mean;
+        private double m2;
+        private boolean seeded;
+
+        Stats(SpendingStats row) {
+            this.row = row;
+            this.count = row.getSampleCount();
+            this.mean = row.getMean();
+            this.m2 = row.getM2();
+        }
+
+        void add(double x) {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+
+        long count() {
+            return count;
+        }
+
+        double mean() {
+            return mean;
+        }
+
+        double m2() {
+            return m2;
+        }
+
+        void remove(double x) {
+            if (count <= 1) {
+                count = 0;
+                mean = 0;
+                m2 = 0;
+                return;
+            }
+            double previousMean = (count * mean - x) / (count - 1);
+            m2 = Math.max(0, m2 - (x - previousMean) * (x - mean));
+            mean = previousMean;
+            count--;
+        }
+    }
+}
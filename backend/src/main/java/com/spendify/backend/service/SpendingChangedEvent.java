@@ -0,0 +1,19 @@
+package com.spendify.backend.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a user's spending changes. {@code from} and {@code to} bound
+ * the affected transaction dates; both are {@code null} when any date may have
+ * changed (e.g. after a category is deleted).
+ */
+public record SpendingChangedEvent(Long userId, LocalDate from, LocalDate to) {
+
+    public static SpendingChangedEvent allDates(Long userId) {
+        return new SpendingChangedEvent(userId, null, null);
+    }
+
+    public boolean overlaps(LocalDate start, LocalDate end) {
+        return from == null || (!from.isAfter(end) && !to.isBefore(start));
+    }
+}
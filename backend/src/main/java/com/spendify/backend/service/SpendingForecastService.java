@@ -0,0 +1,268 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.DailyAmountStats;
+import com.spendify.backend.entity.SpendingForecastModel;
+import com.spendify.backend.repository.SpendingForecastModelRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Month-end spending forecasts per user and category. Daily spend is modelled
+ * as a compound Poisson process per weekday: the model keeps the transaction
+ * count, amount sum and sum of squared amounts for each weekday, so a day's
+ * expected spend is {@code sum / days} and its variance {@code squares / days}.
+ * A per-calendar-month sum gives a seasonal index, shrunk towards 1 while a
+ * month has little history.
+ * <p>
+ * The statistics are plain sums, so they are updated from the rollup's
+ * {@link SpendingRollupService.Changes} in the writing transaction, including
+ * removals. The first write to a category without a model inserts a stale
+ * placeholder, locks it like any other row and seeds it from up to two years
+ * of history with one grouped query, so the seed already counts that write and
+ * no concurrent delta can slip between the history read and the insert. Reads
+ * never write: a category nobody has written to since the model was reset is
+ * built from history in memory. Once seeded, a forecast only decodes 264 bytes
+ * and walks the rest of the month.
+ */
+@Service
+public class SpendingForecastService {
+
+    static final int HISTORY_DAYS = 730;
+    static final int MIN_HISTORY_DAYS = 28;
+    /** Two-sided 90% normal interval. */
+    static final double Z_90 = 1.645;
+    /** Days of history at which a calendar month's seasonal index gets half weight. */
+    static final double SEASON_PRIOR_DAYS = 60;
+
+    private final SpendingForecastModelRepository modelRepository;
+    private final TransactionRepository transactionRepository;
+
+    public SpendingForecastService(SpendingForecastModelRepository modelRepository,
+                                   TransactionRepository transactionRepository) {
+        this.modelRepository = modelRepository;
+        this.transactionRepository = transactionRepository;
+    }
+
+    @Transactional
+    public void apply(SpendingRollupService.Changes changes) {
+        Map<Long, Map<Long, List<SpendingRollupService.DayDelta>>> byUser = new HashMap<>();
+        for (SpendingRollupService.DayDelta delta : changes.dayDeltas()) {
+            byUser.computeIfAbsent(delta.userId(), id -> new HashMap<>())
+                    .computeIfAbsent(delta.categoryId(), id -> new ArrayList<>())
+                    .add(delta);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        byUser.forEach((userId, byCategory) -> {
+            // Missing models get their placeholder in this transaction before any lock is
+            // taken: a lock on an absent key is a range lock on SQL Server, which blocks
+            // another connection's insert and a concurrent writer's own.
+            Set<Long> missing = new HashSet<>(byCategory.keySet());
+            modelRepository.findByUserIdAndCategoryIdIn(userId, byCategory.keySet())
+                    .forEach(row -> missing.remove(row.getCategoryId()));
+            byte[] empty = emptyState();
+            for (Long categoryId : missing) {
+                modelRepository.insertPlaceholder(userId, categoryId, LocalDate.now(), empty);
+            }
+            List<SpendingForecastModel> rows = modelRepository.findForUpdate(userId, byCategory.keySet());
+
+            Set<Long> unseeded = new HashSet<>();
+            rows.stream().filter(SpendingForecastModel::isStale).forEach(row -> unseeded.add(row.getCategoryId()));
+            // Read under the row lock and after this transaction's own writes, so
+            // the seed includes the changes below and nobody else's are missed.
+            Map<Long, Model> seeded = unseeded.isEmpty() ? Map.of() : seed(userId, unseeded);
+            for (SpendingForecastModel row : rows) {
+                Model model;
+                if (row.isStale()) {
+                    model = seeded.get(row.getCategoryId());
+                    row.setStale(false);
+                } else {
+                    model = Model.from(row);
+                    for (SpendingRollupService.DayDelta delta : byCategory.get(row.getCategoryId())) {
+                        model.add(delta.date(), delta.count(), delta.amount().doubleValue(), delta.squares());
+                    }
+                }
+                model.writeTo(row);
+                row.setUpdatedAt(now);
+            }
+            modelRepository.saveAll(rows);
+        });
+    }
+
+    /** Drops a user's models after a bulk change the deltas did not describe; the next write re-seeds them. */
+    @Transactional
+    public void reset(Long userId) {
+        modelRepository.deleteByUserId(userId);
+    }
+
+    public Map<Long, Model> loadModels(Long userId, Collection<Long> categoryIds) {
+        Map<Long, Model> models = new HashMap<>();
+        if (categoryIds.isEmpty()) {
+            return models;
+        }
+        for (SpendingForecastModel row : modelRepository.findByUserIdAndCategoryIdIn(userId, categoryIds)) {
+            if (!row.isStale()) {
+                models.put(row.getCategoryId(), Model.from(row));
+            }
+        }
+        Set<Long> missing = new HashSet<>(categoryIds);
+        missing.removeAll(models.keySet());
+        if (!missing.isEmpty()) {
+            // Not stored here: the next write to the category seeds its model under the row lock.
+            models.putAll(seed(userId, missing));
+        }
+        return models;
+    }
+
+    private Map<Long, Model> seed(Long userId, Set<Long> categoryIds) {
+        LocalDate today = LocalDate.now();
+        Map<Long, Model> seeded = new HashMap<>();
+        for (Long categoryId : categoryIds) {
+            seeded.put(categoryId, new Model(today));
+        }
+        for (DailyAmountStats row : transactionRepository.findDailyAmountStats(userId, categoryIds, today.minusDays(HISTORY_DAYS))) {
+            seeded.get(row.getCategoryId()).add(row.getDate(), row.getTransactionCount(),
+                    row.getTotal().doubleValue(), row.getSumOfSquares().doubleValue());
+        }
+        return seeded;
+    }
+
+    private static byte[] emptyState() {
+        SpendingForecastModel row = new SpendingForecastModel();
+        new Model(LocalDate.now()).writeTo(row);
+        return row.getState();
+    }
+
+    /** Projected month-end spend with a 90% interval. */
+    public record Forecast(BigDecimal expected, BigDecimal low, BigDecimal high) {
+    }
+
+    /**
+     * Decoded model state. Seven weekday slots (Monday first) of count, sum and
+     * sum of squares, then twelve calendar-month sums, stored as big-endian doubles.
+     */
+    public static final class Model {
+
+        private static final int WEEKDAYS = 7;
+        private static final int MONTHS = 12;
+        private static final int STATE_BYTES = (3 * WEEKDAYS + MONTHS) * Double.BYTES;
+
+        private LocalDate startDate;
+        private final double[] counts = new double[WEEKDAYS];
+        private final double[] sums = new double[WEEKDAYS];
+        private final double[] squares = new double[WEEKDAYS];
+        private final double[] monthSums = new double[MONTHS];
+
+        Model(LocalDate startDate) {
+            this.startDate = startDate;
+        }
+
+        static Model from(SpendingForecastModel row) {
+            Model model = new Model(row.getStartDate());
+            ByteBuffer buffer = ByteBuffer.wrap(row.getState());
+            if (buffer.remaining() != STATE_BYTES) {
+                throw new IllegalStateException("Unexpected forecast model size: " + buffer.remaining());
+            }
+            for (double[] values : List.of(model.counts, model.sums, model.squares, model.monthSums)) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = buffer.getDouble();
+                }
+            }
+            return model;
+        }
+
+        void writeTo(SpendingForecastModel row) {
+            ByteBuffer buffer = ByteBuffer.allocate(STATE_BYTES);
+            for (double[] values : List.of(counts, sums, squares, monthSums)) {
+                for (double value : values) {
+                    buffer.putDouble(value);
+                }
+            }
+            row.setStartDate(startDate);
+            row.setState(buffer.array());
+        }
+
+        void add(LocalDate date, long count, double amount, double squaredAmounts) {
+            if (date.isBefore(startDate)) {
+                startDate = date;
+            }
+            int weekday = date.getDayOfWeek().getValue() - 1;
+            counts[weekday] += count;
+            sums[weekday] += amount;
+            squares[weekday] += squaredAmounts;
+            monthSums[date.getMonthValue() - 1] += amount;
+        }
+
+        /**
+         * Month-end projection for {@code month} given what has been spent up to and
+         * including {@code today}, or {@code null} while there is under
+         * {@value #MIN_HISTORY_DAYS} days of history.
+         */
+        public Forecast forecast(YearMonth month, BigDecimal spent, LocalDate today) {
+            long observedDays = ChronoUnit.DAYS.between(startDate, today) + 1;
+            if (observedDays < MIN_HISTORY_DAYS) {
+                return null;
+            }
+
+            long[] weekdayDays = new long[WEEKDAYS];
+            int firstWeekday = startDate.getDayOfWeek().getValue() - 1;
+            for (int i = 0; i < WEEKDAYS; i++) {
+                weekdayDays[(firstWeekday + i) % WEEKDAYS] = observedDays / WEEKDAYS + (i < observedDays % WEEKDAYS ? 1 : 0);
+            }
+
+            double expected = 0;
+            double variance = 0;
+            LocalDate first = today.plusDays(1).isAfter(month.atDay(1)) ? today.plusDays(1) : month.atDay(1);
+            for (LocalDate day = first; !day.isAfter(month.atEndOfMonth()); day = day.plusDays(1)) {
+                int weekday = day.getDayOfWeek().getValue() - 1;
+                expected += sums[weekday] / weekdayDays[weekday];
+                variance += squares[weekday] / weekdayDays[weekday];
+            }
+            double season = seasonalIndex(month.getMonthValue() - 1, observedDays, today);
+            expected = Math.max(0, expected * season);
+            double spread = Z_90 * Math.sqrt(variance) * season;
+
+            return new Forecast(
+                    spent.add(BigDecimal.valueOf(expected)).setScale(2, RoundingMode.HALF_UP),
+                    spent.add(BigDecimal.valueOf(Math.max(0, expected - spread))).setScale(2, RoundingMode.HALF_UP),
+                    spent.add(BigDecimal.valueOf(expected + spread)).setScale(2, RoundingMode.HALF_UP));
+        }
+
+        private double seasonalIndex(int monthIndex, long observedDays, LocalDate today) {
+            double total = 0;
+            for (double sum : sums) {
+                total += sum;
+            }
+            long monthDays = 0;
+            for (YearMonth m = YearMonth.from(startDate); !m.isAfter(YearMonth.from(today)); m = m.plusMonths(1)) {
+                if (m.getMonthValue() - 1 == monthIndex) {
+                    LocalDate from = m.atDay(1).isBefore(startDate) ? startDate : m.atDay(1);
+                    LocalDate to = m.atEndOfMonth().isAfter(today) ? today : m.atEndOfMonth();
+                    monthDays += ChronoUnit.DAYS.between(from, to) + 1;
+                }
+            }
+            if (total <= 0 || monthDays == 0) {
+                return 1;
+            }
+            double raw = (monthSums[monthIndex] / monthDays) / (total / observedDays);
+            double weight = monthDays / (monthDays + SEASON_PRIOR_DAYS);
+            return 1 + weight * (raw - 1);
+        }
+    }
+}
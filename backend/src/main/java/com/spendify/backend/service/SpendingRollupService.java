@@ -0,0 +1,230 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.RollupChecksum;
+import com.spendify.backend.entity.SpendingRollup;
+import com.spendify.backend.entity.Transaction;
+import com.spendify.backend.repository.SpendingRollupRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the {@link SpendingRollup} table in step with transaction writes.
+ * Callers collect the rows they add and remove in a {@link Changes} and apply
+ * it inside their own transaction; entries that cancel out (e.g. an update
+ * that only touches the description) cost nothing. A nightly job compares
+ * per-user, per-category checksums against the raw table and rebuilds any
+ * user that has drifted. Every write publishes a {@link SpendingChangedEvent}
+ * before it touches the rollup, so listeners that lock inside the writing
+ * transaction do so ahead of the rollup rows; read-side caches drop the
+ * affected entries once it commits.
+ * <p>
+ * A missing cell is created empty in a short transaction of its own and then
+ * incremented like any other, so two writers creating the same cell at once
+ * never fail each other's transactions on the unique key.
+ */
+@Service
+public class SpendingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpendingRollupService.class);
+
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final MerchantSketchService merchantSketchService;
+    private final SpendingForecastService spendingForecastService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate cellTemplate;
+
+    public SpendingRollupService(SpendingRollupRepository spendingRollupRepository,
+                                 TransactionRepository transactionRepository,
+                                 MerchantSketchService merchantSketchService,
+                                 SpendingForecastService spendingForecastService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager) {
+        this.spendingRollupRepository = spendingRollupRepository;
+        this.transactionRepository = transactionRepository;
+        this.merchantSketchService = merchantSketchService;
+        this.spendingForecastService = spendingForecastService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cellTemplate = new TransactionTemplate(transactionManager);
+        this.cellTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public void apply(Changes changes) {
+        Map<Long, SpendingChangedEvent> events = new HashMap<>();
+        for (DayDelta delta : changes.dayDeltas()) {
+            events.merge(delta.userId(), new SpendingChangedEvent(delta.userId(), delta.date(), delta.date()),
+                    (a, b) -> new SpendingChangedEvent(a.userId(),
+                            a.from().isBefore(b.from()) ? a.from() : b.from(),
+                            a.to().isAfter(b.to()) ? a.to() : b.to()));
+        }
+        // Published before the cells are touched: the snapshot listener locks the user's budgets
+        // here, in the same order the snapshot job takes them (budgets, then rollups).
+        events.values().forEach(eventPublisher::publishEvent);
+        for (Map.Entry<Key, Delta> entry : changes.deltas.entrySet()) {
+            Key key = entry.getKey();
+            Delta delta = entry.getValue();
+            if (delta.count == 0 && delta.amount.signum() == 0) {
+                continue;
+            }
+            if (spendingRollupRepository.increment(key.userId(), key.categoryId(), key.date(), delta.amount, delta.count) == 0) {
+                createCell(key);
+                spendingRollupRepository.increment(key.userId(), key.categoryId(), key.date(), delta.amount, delta.count);
+            }
+        }
+        merchantSketchService.apply(changes);
+        spendingForecastService.apply(changes);
+    }
+
+    private void createCell(Key key) {
+        try {
+            cellTemplate.executeWithoutResult(status -> spendingRollupRepository.saveAndFlush(SpendingRollup.builder()
+                    .userId(key.userId())
+                    .categoryId(key.categoryId())
+                    .spendDate(key.date())
+                    .total(BigDecimal.ZERO)
+                    .transactionCount(0)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            // Another writer created the cell first; incrementing theirs is all that is left.
+        }
+    }
+
+    /**
+     * Replaces a user's rollup rows with a fresh aggregate of their transactions.
+     * Used after bulk statements that bypass {@link #apply}, and by the verify job.
+     */
+    @Transactional
+    public void rebuildUser(Long userId) {
+        eventPublisher.publishEvent(SpendingChangedEvent.allDates(userId));
+        spendingRollupRepository.deleteByUserId(userId);
+        spendingRollupRepository.rebuildForUser(userId);
+        spendingForecastService.reset(userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (spendingRollupRepository.count() == 0 && transactionRepository.count() > 0) {
+            log.info("Spending rollup table is empty; building it from existing transactions");
+            verifyAll();
+        }
+    }
+
+    @Scheduled(cron = "${rollup.verify-cron:0 30 3 * * *}")
+    public void verifyAll() {
+        Set<Long> drifted = findDriftedUsers(
+                transactionRepository.findRollupChecksums(),
+                spendingRollupRepository.findChecksums());
+        for (Long userId : drifted) {
+            transactionTemplate.executeWithoutResult(status -> rebuildUser(userId));
+        }
+        if (!drifted.isEmpty()) {
+            log.warn("Rebuilt spending rollups for {} users", drifted.size());
+        }
+    }
+
+    static Set<Long> findDriftedUsers(List<RollupChecksum> expected, List<RollupChecksum> actual) {
+        Map<Key, RollupChecksum> remaining = new HashMap<>();
+        for (RollupChecksum row : actual) {
+            if (row.getTransactionCount() != 0 || row.getTotal().signum() != 0) {
+                remaining.put(new Key(row.getUserId(), row.getCategoryId(), null), row);
+            }
+        }
+        Set<Long> drifted = new TreeSet<>();
+        for (RollupChecksum row : expected) {
+            RollupChecksum rollup = remaining.remove(new Key(row.getUserId(), row.getCategoryId(), null));
+            if (rollup == null
+                    || !rollup.getTransactionCount().equals(row.getTransactionCount())
+                    || rollup.getTotal().compareTo(row.getTotal()) != 0) {
+                drifted.add(row.getUserId());
+            }
+        }
+        remaining.keySet().forEach(key -> drifted.add(key.userId()));
+        return drifted;
+    }
+
+    private record Key(Long userId, Long categoryId, LocalDate date) {
+    }
+
+    record MerchantEntry(Long userId, LocalDate date, String merchant, BigDecimal amount) {
+    }
+
+    /** Net change to one (user, category, day) cell, including the sum of squared amounts. */
+    record DayDelta(Long userId, Long categoryId, LocalDate date, long count, BigDecimal amount, double squares) {
+    }
+
+    private static final class Delta {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+        private double squares;
+    }
+
+    /**
+     * Net effect of a set of transaction writes on the rollup. Call
+     * {@link #remove} before mutating a transaction and {@link #add} after, so
+     * the old and new (user, category, day) cells are both adjusted.
+     */
+    public static final class Changes {
+
+        private final Map<Key, Delta> deltas = new HashMap<>();
+        private final Map<MerchantEntry, Integer> merchants = new HashMap<>();
+
+        public Changes add(Transaction transaction) {
+            return record(transaction, transaction.getAmount(), 1);
+        }
+
+        public Changes remove(Transaction transaction) {
+            return record(transaction, transaction.getAmount().negate(), -1);
+        }
+
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+
+        private Changes record(Transaction transaction, BigDecimal amount, int count) {
+            Key key = new Key(transaction.getUser().getId(), transaction.getCategory().getId(), transaction.getTransactionDate());
+            Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+            delta.amount = delta.amount.add(amount);
+            delta.count += count;
+            delta.squares += count * transaction.getAmount().doubleValue() * transaction.getAmount().doubleValue();
+            merchants.merge(new MerchantEntry(key.userId(), key.date(), transaction.getMerchant(),
+                    transaction.getAmount().setScale(2, RoundingMode.HALF_UP)), count, Integer::sum);
+            return this;
+        }
+
+        List<DayDelta> dayDeltas() {
+            return deltas.entrySet().stream()
+                    .filter(e -> e.getValue().count != 0 || e.getValue().amount.signum() != 0)
+                    .map(e -> new DayDelta(e.getKey().userId(), e.getKey().categoryId(), e.getKey().date(),
+                            e.getValue().count, e.getValue().amount, e.getValue().squares))
+                    .toList();
+        }
+
+        /** Net count per (user, date, merchant, amount); edits that change none of these cancel out. */
+        Map<MerchantEntry, Integer> merchantChanges() {
+            return merchants;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.spendify.backend.service;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Column layouts accepted by {@link TransactionImportService}. Columns are
+ * located by header name (case-insensitive, first alias found wins), so
+ * extra or reordered columns in an export do not matter.
+ */
+public enum StatementFormat {
+
+    /** Spendify's own export and generic spreadsheets: positive amounts are spending. */
+    CSV(List.of("date", "transaction date"),
+            List.of("amount"),
+            List.of(),
+            List.of("merchant", "payee", "description"),
+            List.of("description", "notes", "memo"),
+            List.of("category"),
+            AmountSign.POSITIVE_IS_SPEND,
+            "yyyy-MM-dd", "dd/MM/yyyy"),
+
+    /** HK bank statements with separate withdrawal and deposit columns; deposits are skipped. */
+    HK_BANK(List.of("transaction date", "date", "post date"),
+            List.of("withdrawal", "withdrawals", "debit", "debit amount"),
+            List.of("deposit", "deposits", "credit", "credit amount"),
+            List.of("description", "transaction details", "details", "merchant"),
+            List.of("transaction details", "details", "remarks", "reference"),
+            List.of(),
+            AmountSign.SEPARATE_COLUMNS,
+            "dd/MM/yyyy", "dd MMM yyyy", "yyyy-MM-dd"),
+
+    /** Octopus card records: spending is negative, top-ups positive and skipped. */
+    OCTOPUS(List.of("transaction date/time", "date/time", "date", "transaction time"),
+            List.of("amount", "transaction amount"),
+            List.of(),
+            List.of("merchant", "details", "transaction details", "description", "location"),
+            List.of(),
+            List.of(),
+            AmountSign.NEGATIVE_IS_SPEND,
+            "yyyy-MM-dd HH:mm:ss", "dd/MM/yyyy HH:mm", "dd/MM/yyyy HH:mm:ss", "yyyy-MM-dd", "dd/MM/yyyy");
+
+    public enum AmountSign {
+        POSITIVE_IS_SPEND,
+        NEGATIVE_IS_SPEND,
+        SEPARATE_COLUMNS
+    }
+
+    private final List<String> dateColumns;
+    private final List<String> amountColumns;
+    private final List<String> creditColumns;
+    private final List<String> merchantColumns;
+    private final List<String> descriptionColumns;
+    private final List<String> categoryColumns;
+    private final AmountSign amountSign;
+    private final List<DateTimeFormatter> dateFormats;
+
+    StatementFormat(List<String> dateColumns, List<String> amountColumns, List<String> creditColumns,
+                    List<String> merchantColumns, List<String> descriptionColumns, List<String> categoryColumns,
+                    AmountSign amountSign,
+                    String... datePatterns) {
+        this.dateColumns = dateColumns;
+        this.amountColumns = amountColumns;
+        this.creditColumns = creditColumns;
+        this.merchantColumns = merchantColumns;
+        this.descriptionColumns = descriptionColumns;
+        this.categoryColumns = categoryColumns;
+        this.amountSign = amountSign;
+        this.dateFormats = Arrays.stream(datePatterns)
+                .map(p -> DateTimeFormatter.ofPattern(p, Locale.ENGLISH))
+                .toList();
+    }
+
+    public List<String> getDateColumns() {
+        return dateColumns;
+    }
+
+    public List<String> getAmountColumns() {
+        return amountColumns;
+    }
+
+    public List<String> getCreditColumns() {
+        return creditColumns;
+    }
+
+    public List<String> getMerchantColumns() {
+        return merchantColumns;
+    }
+
+    public List<String> getDescriptionColumns() {
+        return descriptionColumns;
+    }
+
+    public List<String> getCategoryColumns() {
+        return categoryColumns;
+    }
+
+    public AmountSign getAmountSign() {
+        return amountSign;
+    }
+
+    public List<DateTimeFormatter> getDateFormats() {
+        return dateFormats;
+    }
+}
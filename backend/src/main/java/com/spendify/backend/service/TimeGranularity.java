@@ -0,0 +1,89 @@
+package com.spendify.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/** Bucket sizes for time-series analytics. Weeks start on Monday. */
+public enum TimeGranularity {
+
+    DAY(7, ChronoUnit.DAYS, 1) {
+        @Override
+        LocalDate bucketStart(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusDays(1);
+        }
+    },
+    WEEK(4, ChronoUnit.WEEKS, 1) {
+        @Override
+        LocalDate bucketStart(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusWeeks(1);
+        }
+    },
+    MONTH(3, ChronoUnit.MONTHS, 1) {
+        @Override
+        LocalDate bucketStart(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusMonths(1);
+        }
+    },
+    QUARTER(4, ChronoUnit.MONTHS, 3) {
+        @Override
+        LocalDate bucketStart(LocalDate date) {
+            return LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1);
+        }
+
+        @Override
+        LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusMonths(3);
+        }
+    },
+    YEAR(3, ChronoUnit.YEARS, 1) {
+        @Override
+        LocalDate bucketStart(LocalDate date) {
+            return date.withDayOfYear(1);
+        }
+
+        @Override
+        LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusYears(1);
+        }
+    };
+
+    private final int defaultWindow;
+    private final ChronoUnit unit;
+    private final int unitsPerBucket;
+
+    TimeGranularity(int defaultWindow, ChronoUnit unit, int unitsPerBucket) {
+        this.defaultWindow = defaultWindow;
+        this.unit = unit;
+        this.unitsPerBucket = unitsPerBucket;
+    }
+
+    public int getDefaultWindow() {
+        return defaultWindow;
+    }
+
+    /** Number of buckets a series from {@code start} to {@code end} has, counting partial ones at both ends. */
+    public long bucketCount(LocalDate start, LocalDate end) {
+        return unit.between(bucketStart(start), bucketStart(end)) / unitsPerBucket + 1;
+    }
+
+    abstract LocalDate bucketStart(LocalDate date);
+
+    abstract LocalDate next(LocalDate bucketStart);
+}
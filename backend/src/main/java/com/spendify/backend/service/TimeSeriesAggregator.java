@@ -0,0 +1,79 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.TimeSeriesResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds date-ordered daily totals into gap-filled buckets in one pass. Sums
+ * are kept in long cents; {@link BigDecimal} is only created once per output
+ * point. The moving average is a trailing mean over the last {@code window}
+ * buckets (fewer at the start of the series).
+ */
+class TimeSeriesAggregator {
+
+    private final TimeGranularity granularity;
+    private final LocalDate endDate;
+    private final long[] windowCents;
+    private final List<TimeSeriesResponse.Point> points = new ArrayList<>();
+
+    private LocalDate bucketStart;
+    private long bucketCents;
+    private long bucketCount;
+    private long cumulativeCents;
+    private long windowSum;
+    private int emitted;
+
+    TimeSeriesAggregator(TimeGranularity granularity, LocalDate startDate, LocalDate endDate, int window) {
+        this.granularity = granularity;
+        this.endDate = endDate;
+        this.windowCents = new long[window];
+        this.bucketStart = granularity.bucketStart(startDate);
+    }
+
+    void accept(LocalDate date, long cents, long count) {
+        while (!date.isBefore(granularity.next(bucketStart))) {
+            emit();
+        }
+        bucketCents += cents;
+        bucketCount += count;
+    }
+
+    List<TimeSeriesResponse.Point> finish() {
+        while (!bucketStart.isAfter(endDate)) {
+            emit();
+        }
+        return points;
+    }
+
+    long totalCents() {
+        return cumulativeCents;
+    }
+
+    private void emit() {
+        cumulativeCents += bucketCents;
+        int slot = emitted % windowCents.length;
+        windowSum += bucketCents - windowCents[slot];
+        windowCents[slot] = bucketCents;
+        emitted++;
+
+        LocalDate next = granularity.next(bucketStart);
+        long divisor = Math.min(emitted, windowCents.length);
+        points.add(TimeSeriesResponse.Point.builder()
+                .periodStart(bucketStart)
+                .periodEnd(next.minusDays(1))
+                .total(BigDecimal.valueOf(bucketCents, 2))
+                .transactionCount(bucketCount)
+                .cumulative(BigDecimal.valueOf(cumulativeCents, 2))
+                .movingAverage(BigDecimal.valueOf(windowSum, 2).divide(BigDecimal.valueOf(divisor), 2, RoundingMode.HALF_UP))
+                .build());
+
+        bucketStart = next;
+        bucketCents = 0;
+        bucketCount = 0;
+    }
+}
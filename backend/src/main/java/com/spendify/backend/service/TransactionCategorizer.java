@@ -0,0 +1,253 @@
+package com.spendify.backend.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.spendify.backend.dto.CategorizedText;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Suggests a category for a transaction from its merchant, description and
+ * receipt text. Each user gets a {@link CategoryClassifier} trained on their
+ * own transactions, built in the background on first use and kept in a
+ * bounded cache; a shared classifier trained on recent transactions in system
+ * categories covers users with little history of their own, and every user
+ * until their model is ready.
+ * <p>
+ * Both follow user edits through {@link TransactionChangedEvent}s, so a
+ * recategorized transaction moves its features from the old category to the
+ * new one. Statement imports publish no such events; their rows are picked
+ * up when the user's model is next built. Only categories the user chose are
+ * learned: a transaction the application categorized itself, including the
+ * 'Other' fallback, would otherwise reinforce the guess that filed it.
+ */
+@Service
+public class TransactionCategorizer {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionCategorizer.class);
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryRegistry categoryRegistry;
+    private final TransactionTemplate readTemplate;
+    private final TaskExecutor taskExecutor;
+    private final Cache<Long, CategoryClassifier> userModels;
+    private final ThreadLocal<CategoryClassifier.Scratch> scratch = ThreadLocal.withInitial(CategoryClassifier.Scratch::new);
+    private final int userBucketBits;
+    private final int globalBucketBits;
+    private final long minUserSamples;
+    private final double minConfidence;
+    private final int historyDays;
+    private volatile CategoryClassifier global;
+    private final Object globalLock = new Object();
+    // Model being trained from history; edits are applied to it as well as to global. Guarded by globalLock.
+    private CategoryClassifier retraining;
+    private final Object userLock = new Object();
+    // User models being built from history, handed off to userModels like retraining to global. Guarded by userLock.
+    private final Map<Long, CategoryClassifier> building = new HashMap<>();
+
+    public TransactionCategorizer(TransactionRepository transactionRepository,
+                                  CategoryRegistry categoryRegistry,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("backgroundTaskExecutor") TaskExecutor taskExecutor,
+                                  @Value("${categorizer.max-users:500}") long maxUsers,
+                                  @Value("${categorizer.user-bucket-bits:11}") int userBucketBits,
+                                  @Value("${categorizer.global-bucket-bits:16}") int globalBucketBits,
+                                  @Value("${categorizer.min-user-samples:20}") long minUserSamples,
+                                  @Value("${categorizer.min-confidence:0.6}") double minConfidence,
+                                  @Value("${categorizer.global-history-days:365}") int historyDays) {
+        this.transactionRepository = transactionRepository;
+        this.categoryRegistry = categoryRegistry;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.userModels = CacheBuilder.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+        this.userBucketBits = userBucketBits;
+        this.globalBucketBits = globalBucketBits;
+        this.minUserSamples = minUserSamples;
+        this.minConfidence = minConfidence;
+        this.historyDays = historyDays;
+        this.global = new CategoryClassifier(globalBucketBits);
+    }
+
+    /** A suggested category and the model's probability for it. */
+    public record Suggestion(Long categoryId, double confidence) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void trainGlobalModelInBackground() {
+        taskExecutor.execute(() -> {
+            try {
+                trainGlobalModel();
+            } catch (RuntimeException e) {
+                log.warn("Shared categorizer not trained: {}", e.getMessage());
+            }
+        });
+    }
+
+    void trainGlobalModel() {
+        CategoryClassifier model = new CategoryClassifier(globalBucketBits);
+        CategoryClassifier.Scratch buffers = scratch.get();
+        // Edits committed after the history is read would be lost on the swap, so they are
+        // applied to the new model too. One committed just before the read counts twice,
+        // which is noise against a year of history.
+        synchronized (globalLock) {
+            retraining = model;
+        }
+        try {
+            readTemplate.executeWithoutResult(status -> {
+                try (Stream<CategorizedText> rows = transactionRepository.streamSystemCategorizedText(LocalDate.now().minusDays(historyDays))) {
+                    rows.forEach(row -> model.train(row.getCategoryId(), row.getMerchant(), row.getDescription(), 1, buffers));
+                }
+            });
+            synchronized (globalLock) {
+                global = model;
+            }
+        } finally {
+            synchronized (globalLock) {
+                retraining = null;
+            }
+        }
+        log.info("Shared categorizer trained on {} transactions", model.documents());
+    }
+
+    /**
+     * The user's own model when it has enough history and is confident, else the
+     * shared model; empty when neither is confident or the category is not
+     * available to the user.
+     */
+    public Optional<Suggestion> suggest(Long userId, String merchant, String description, String text) {
+        CategoryClassifier.Scratch buffers = scratch.get();
+        CategoryClassifier own = userModel(userId);
+        if (own != null && own.documents() >= minUserSamples) {
+            long categoryId = own.predict(merchant, description, text, buffers);
+            if (accept(userId, categoryId, buffers.confidence())) {
+                return Optional.of(new Suggestion(categoryId, buffers.confidence()));
+            }
+        }
+        long categoryId = global.predict(merchant, description, text, buffers);
+        if (accept(userId, categoryId, buffers.confidence())) {
+            return Optional.of(new Suggestion(categoryId, buffers.confidence()));
+        }
+        return Optional.empty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        CategoryClassifier own;
+        CategoryClassifier pending;
+        // Read together so a build finishing in between cannot slip past both
+        synchronized (userLock) {
+            own = userModels.getIfPresent(event.userId());
+            pending = building.get(event.userId());
+        }
+        CategoryClassifier.Scratch buffers = scratch.get();
+        for (TransactionChangedEvent.Change change : event.changes()) {
+            TransactionChangedEvent.Snapshot before = change.previous();
+            TransactionChangedEvent.Snapshot after = change.current();
+            if (before != null && after != null && before.categoryId().equals(after.categoryId())
+                    && before.autoCategorized() == after.autoCategorized()
+                    && Objects.equals(before.merchant(), after.merchant())
+                    && Objects.equals(before.description(), after.description())) {
+                continue;
+            }
+            learn(event.userId(), own, pending, before, -1, buffers);
+            learn(event.userId(), own, pending, after, 1, buffers);
+        }
+    }
+
+    private void learn(Long userId, CategoryClassifier own, CategoryClassifier pending,
+                       TransactionChangedEvent.Snapshot snapshot, int weight, CategoryClassifier.Scratch buffers) {
+        if (snapshot == null || snapshot.autoCategorized()) {
+            return;
+        }
+        if (own != null) {
+            own.train(snapshot.categoryId(), snapshot.merchant(), snapshot.description(), weight, buffers);
+        }
+        if (pending != null) {
+            pending.train(snapshot.categoryId(), snapshot.merchant(), snapshot.description(), weight, buffers);
+        }
+        if (categoryRegistry.find(userId, snapshot.categoryId()).map(Category::isSystem).orElse(false)) {
+            synchronized (globalLock) {
+                global.train(snapshot.categoryId(), snapshot.merchant(), snapshot.description(), weight, buffers);
+                if (retraining != null) {
+                    retraining.train(snapshot.categoryId(), snapshot.merchant(), snapshot.description(), weight, buffers);
+                }
+            }
+        }
+    }
+
+    private boolean accept(Long userId, long categoryId, double confidence) {
+        return categoryId != CategoryClassifier.NONE && confidence >= minConfidence
+                && categoryRegistry.find(userId, categoryId).isPresent();
+    }
+
+    /** The user's model, or null while it is being built. */
+    private CategoryClassifier userModel(Long userId) {
+        CategoryClassifier own = userModels.getIfPresent(userId);
+        if (own != null) {
+            return own;
+        }
+        CategoryClassifier model = new CategoryClassifier(userBucketBits);
+        synchronized (userLock) {
+            if (userModels.getIfPresent(userId) != null || building.putIfAbsent(userId, model) != null) {
+                return userModels.getIfPresent(userId);
+            }
+        }
+        try {
+            taskExecutor.execute(() -> buildUserModel(userId, model));
+        } catch (TaskRejectedException e) {
+            synchronized (userLock) {
+                building.remove(userId);
+            }
+            log.warn("Categorizer for user {} could not be queued; the shared model is used meanwhile", userId);
+        }
+        return userModels.getIfPresent(userId);
+    }
+
+    private void buildUserModel(Long userId, CategoryClassifier model) {
+        CategoryClassifier.Scratch buffers = scratch.get();
+        // Edits committed while the history is read reach the model through building, as
+        // they reach the shared model through retraining.
+        boolean built = false;
+        try {
+            readTemplate.executeWithoutResult(status -> {
+                try (Stream<CategorizedText> rows = transactionRepository.streamCategorizedText(userId)) {
+                    rows.forEach(row -> model.train(row.getCategoryId(), row.getMerchant(), row.getDescription(), 1, buffers));
+                }
+            });
+            built = true;
+        } catch (RuntimeException e) {
+            log.warn("Categorizer for user {} not built: {}", userId, e.getMessage());
+        } finally {
+            synchronized (userLock) {
+                building.remove(userId);
+                if (built) {
+                    userModels.put(userId, model);
+                }
+            }
+        }
+    }
+}
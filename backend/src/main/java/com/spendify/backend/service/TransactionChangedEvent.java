@@ -0,0 +1,34 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by {@link TransactionService} for every user-initiated write.
+ * Each change holds the transaction's state before and after the write:
+ * {@code previous} is {@code null} for creates and restores, {@code current}
+ * is {@code null} for deletes.
+ */
+public record TransactionChangedEvent(Long userId, List<Change> changes) {
+
+    public static TransactionChangedEvent of(Long userId, Snapshot previous, Snapshot current) {
+        return new TransactionChangedEvent(userId, List.of(new Change(previous, current)));
+    }
+
+    public record Change(Snapshot previous, Snapshot current) {
+    }
+
+    /** {@code autoCategorized} is set when the category was the application's guess rather than the user's choice. */
+    public record Snapshot(Long transactionId, Long categoryId, String categoryName, BigDecimal amount,
+                           LocalDate transactionDate, String merchant, String description, boolean autoCategorized) {
+
+        public static Snapshot of(Transaction transaction) {
+            return new Snapshot(transaction.getId(), transaction.getCategory().getId(), transaction.getCategory().getName(),
+                    transaction.getAmount(), transaction.getTransactionDate(), transaction.getMerchant(),
+                    transaction.getDescription(), transaction.isAutoCategorized());
+        }
+    }
+}
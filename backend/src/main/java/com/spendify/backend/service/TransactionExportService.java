@@ -0,0 +1,147 @@
+package com.spendify.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spendify.backend.dto.TransactionExportRow;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.exception.ResourceNotFoundException;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.UserRepository;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a user's transaction history as CSV or NDJSON. Rows are pulled from
+ * a forward-only cursor and written straight to the response, so heap use is
+ * independent of how many transactions the user has.
+ */
+@Service
+public class TransactionExportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String CSV_HEADER = "id,date,amount,merchant,description,categoryId,category\n";
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    UserRepository userRepository,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Resolves the current user on the request thread and returns a body that
+     * opens its own read-only transaction when the container writes it.
+     */
+    public StreamingResponseBody export(Format format, boolean gzip, LocalDate startDate, LocalDate endDate, Long categoryId) {
+        Long userId = getCurrentUser().getId();
+        return outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TransactionExportRow> rows = transactionRepository.streamExportRows(userId, startDate, endDate, categoryId)) {
+                    if (format == Format.CSV) {
+                        writeCsv(rows.iterator(), target);
+                    } else {
+                        writeNdjson(rows.iterator(), target);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            outputStream.flush();
+        };
+    }
+
+    private void writeCsv(Iterator<TransactionExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        writer.write(CSV_HEADER);
+        while (rows.hasNext()) {
+            TransactionExportRow row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getTransactionDate()));
+            writer.write(',');
+            writer.write(row.getAmount().toPlainString());
+            writer.write(',');
+            writeCsvField(writer, row.getMerchant());
+            writer.write(',');
+            writeCsvField(writer, row.getDescription());
+            writer.write(',');
+            writer.write(String.valueOf(row.getCategoryId()));
+            writer.write(',');
+            writeCsvField(writer, row.getCategoryName());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Iterator<TransactionExportRow> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        while (rows.hasNext()) {
+            TransactionExportRow row = rows.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getId());
+            generator.writeStringField("date", String.valueOf(row.getTransactionDate()));
+            generator.writeNumberField("amount", row.getAmount());
+            generator.writeStringField("merchant", row.getMerchant());
+            generator.writeStringField("description", row.getDescription());
+            generator.writeNumberField("categoryId", row.getCategoryId());
+            generator.writeStringField("category", row.getCategoryName());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private User getCurrentUser() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+}
@@ -0,0 +1,438 @@
+package com.spendify.backend.service;
+
+import com.google.common.hash.Hashing;
+import com.spendify.backend.dto.TransactionFingerprint;
+import com.spendify.backend.dto.TransactionImportStatus;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.Transaction;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.exception.ResourceNotFoundException;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.UserRepository;
+import com.spendify.backend.util.CsvReader;
+import com.spendify.backend.util.LongMultiset;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports CSV bank and Octopus statements in the background. The file is read
+ * one record at a time, each row is fingerprinted by (date, amount, merchant)
+ * and matched against a primitive multiset of the user's existing rows, and
+ * new rows are written in fixed-size chunks, each in its own short transaction.
+ * <p>
+ * Each stored row absorbs at most one row of the file, so importing the same
+ * statement again adds nothing, while repeated purchases within a statement
+ * (two coffees on one day; Octopus rows carry no time) are all kept. Rows
+ * without a category are filed the way a manual entry is, by
+ * {@link TransactionService#categorize}.
+ */
+@Service
+public class TransactionImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final int MAX_MERCHANT_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryRegistry categoryRegistry;
+    private final TransactionService transactionService;
+    private final UserRepository userRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final SpendingAnomalyService spendingAnomalyService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int batchSize;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public TransactionImportService(TransactionRepository transactionRepository,
+                                    CategoryRegistry categoryRegistry,
+                                    TransactionService transactionService,
+                                    UserRepository userRepository,
+                                    SpendingRollupService spendingRollupService,
+                                    SpendingAnomalyService spendingAnomalyService,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    @Qualifier("backgroundTaskExecutor") TaskExecutor taskExecutor,
+                                    @Value("${import.batch-size:500}") int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.categoryRegistry = categoryRegistry;
+        this.transactionService = transactionService;
+        this.userRepository = userRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.spendingAnomalyService = spendingAnomalyService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.batchSize = batchSize;
+    }
+
+    public TransactionImportStatus startImport(MultipartFile file, StatementFormat format) {
+        User user = getCurrentUser();
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        pruneFinishedJobs();
+
+        Path upload;
+        try {
+            upload = Files.createTempFile("spendify-import-", ".csv");
+            file.transferTo(upload);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store uploaded statement: " + e.getMessage(), e);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), user.getId(), format);
+        jobs.put(job.id, job);
+        try {
+            taskExecutor.execute(() -> {
+                try (Reader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+                    importStatement(user, reader, format, job);
+                } catch (Exception e) {
+                    log.error("Import {} failed: {}", job.id, e.getMessage());
+                    job.finish("FAILED", e.getMessage());
+                } finally {
+                    deleteUpload(upload);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Import {} rejected, background executor is saturated", job.id);
+            job.finish("FAILED", "Too many imports in progress, please try again later");
+            deleteUpload(upload);
+        }
+        return job.snapshot();
+    }
+
+    private static void deleteUpload(Path upload) {
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}: {}", upload, e.getMessage());
+        }
+    }
+
+    public TransactionImportStatus getImportStatus(String jobId) {
+        User user = getCurrentUser();
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(user.getId())) {
+            throw new ResourceNotFoundException("Import job not found with id: " + jobId);
+        }
+        return job.snapshot();
+    }
+
+    TransactionImportStatus importStatement(User user, Reader input, StatementFormat format, ImportJob job) throws IOException {
+        Map<String, Category> categoriesByName = new HashMap<>();
+        for (Category category : categoryRegistry.listForUser(user.getId())) {
+            // User categories take precedence over system ones with the same name.
+            categoriesByName.merge(category.getName().toLowerCase(Locale.ROOT), category,
+                    (existing, candidate) -> candidate.isSystem() ? existing : candidate);
+        }
+
+        LongMultiset stored = loadFingerprints(user.getId());
+
+        try (CsvReader csv = new CsvReader(input)) {
+            List<String> header = csv.next();
+            if (header == null) {
+                job.finish("COMPLETED", null);
+                return job.snapshot();
+            }
+            Columns columns = Columns.resolve(header, format);
+            List<Transaction> batch = new ArrayList<>(batchSize);
+
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                job.rowsRead.incrementAndGet();
+                try {
+                    BigDecimal amount = columns.spendAmount(record, format);
+                    if (amount == null) {
+                        job.skipped.incrementAndGet();
+                        continue;
+                    }
+                    LocalDate date = parseDate(columns.value(record, columns.date), format);
+                    String merchant = normalizeMerchant(columns.value(record, columns.merchant));
+                    String description = normalizeDescription(columns.value(record, columns.description));
+
+                    if (stored.take(fingerprint(date, amount, merchant))) {
+                        job.duplicates.incrementAndGet();
+                        continue;
+                    }
+
+                    Category named = namedCategory(columns.value(record, columns.category), categoriesByName);
+                    batch.add(Transaction.builder()
+                            .user(user)
+                            .category(named != null ? named : transactionService.categorize(user, merchant, description))
+                            .autoCategorized(named == null)
+                            .amount(amount)
+                            .transactionDate(date)
+                            .merchant(merchant)
+                            .description(description)
+                            .build());
+                    if (batch.size() >= batchSize) {
+                        writeChunk(batch, job);
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                    job.error("Line " + csv.getLineNumber() + ": " + e.getMessage());
+                }
+            }
+            writeChunk(batch, job);
+        }
+        job.finish("COMPLETED", null);
+        return job.snapshot();
+    }
+
+    private LongMultiset loadFingerprints(Long userId) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        LongMultiset stored = new LongMultiset(1024);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<TransactionFingerprint> rows = transactionRepository.streamFingerprints(userId)) {
+                rows.forEach(row -> stored.add(fingerprint(row.getTransactionDate(), row.getAmount(),
+                        normalizeMerchant(row.getMerchant()))));
+            }
+        });
+        return stored;
+    }
+
+    private void writeChunk(List<Transaction> batch, ImportJob job) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionRepository.saveAll(batch);
+            SpendingRollupService.Changes rollupChanges = new SpendingRollupService.Changes();
+            batch.forEach(rollupChanges::add);
+            spendingRollupService.apply(rollupChanges);
+            // Imports publish no change events, so the touched categories' statistics are seeded again.
+            spendingAnomalyService.reset(batch.get(0).getUser().getId(),
+                    batch.stream().map(t -> t.getCategory().getId()).collect(Collectors.toSet()));
+            entityManager.flush();
+            entityManager.clear();
+        });
+        job.imported.addAndGet(batch.size());
+        batch.clear();
+    }
+
+    private static Category namedCategory(String categoryName, Map<String, Category> categoriesByName) {
+        return categoryName == null || categoryName.isBlank() ? null
+                : categoriesByName.get(categoryName.trim().toLowerCase(Locale.ROOT));
+    }
+
+    static long fingerprint(LocalDate date, BigDecimal amount, String merchant) {
+        return Hashing.murmur3_128().newHasher()
+                .putLong(date.toEpochDay())
+                .putLong(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact())
+                .putString(merchant.toLowerCase(Locale.ROOT), StandardCharsets.UTF_8)
+                .hash()
+                .asLong();
+    }
+
+    static String normalizeMerchant(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return "Unknown Merchant";
+        }
+        String merchant = raw.trim().replaceAll("\\s+", " ");
+        return merchant.length() > MAX_MERCHANT_LENGTH ? merchant.substring(0, MAX_MERCHANT_LENGTH) : merchant;
+    }
+
+    static String normalizeDescription(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        String description = raw.trim().replaceAll("\\s+", " ");
+        return description.length() > MAX_DESCRIPTION_LENGTH ? description.substring(0, MAX_DESCRIPTION_LENGTH) : description;
+    }
+
+    private static LocalDate parseDate(String value, StatementFormat format) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Date is required");
+        }
+        String text = value.trim();
+        for (DateTimeFormatter formatter : format.getDateFormats()) {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(text, formatter);
+            } catch (DateTimeParseException e) {
+                try {
+                    date = LocalDateTime.parse(text, formatter).toLocalDate();
+                } catch (DateTimeParseException ignored) {
+                    continue;
+                }
+            }
+            if (date.isAfter(LocalDate.now())) {
+                throw new IllegalArgumentException("Transaction date cannot be in the future");
+            }
+            return date;
+        }
+        throw new IllegalArgumentException("Unrecognised date: " + text);
+    }
+
+    static BigDecimal parseAmount(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        boolean negative = text.startsWith("(") && text.endsWith(")") || text.startsWith("-") || text.endsWith("-");
+        String digits = text.replaceAll("[^0-9.]", "");
+        if (digits.isEmpty()) {
+            throw new IllegalArgumentException("Unrecognised amount: " + text);
+        }
+        BigDecimal amount = new BigDecimal(digits);
+        return negative ? amount.negate() : amount;
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private User getCurrentUser() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    private record Columns(int date, int amount, int credit, int merchant, int description, int category) {
+
+        static Columns resolve(List<String> header, StatementFormat format) {
+            List<String> names = header.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+            int date = require(names, format.getDateColumns(), "date");
+            int amount = require(names, format.getAmountColumns(), "amount");
+            int merchant = require(names, format.getMerchantColumns(), "merchant");
+            // A column already read as the merchant is not repeated as the description.
+            int description = find(names, format.getDescriptionColumns());
+            return new Columns(date, amount, find(names, format.getCreditColumns()), merchant,
+                    description == merchant ? -1 : description, find(names, format.getCategoryColumns()));
+        }
+
+        private static int require(List<String> names, List<String> aliases, String label) {
+            int index = find(names, aliases);
+            if (index < 0) {
+                throw new IllegalArgumentException("Missing " + label + " column, expected one of " + aliases);
+            }
+            return index;
+        }
+
+        private static int find(List<String> names, List<String> aliases) {
+            for (String alias : aliases) {
+                int index = names.indexOf(alias);
+                if (index >= 0) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        String value(List<String> record, int index) {
+            return index >= 0 && index < record.size() ? record.get(index) : null;
+        }
+
+        /** Returns the spend as a positive amount, or {@code null} for rows that are not spending. */
+        BigDecimal spendAmount(List<String> record, StatementFormat format) {
+            BigDecimal value = parseAmount(value(record, amount));
+            if (value == null) {
+                if (format.getAmountSign() == StatementFormat.AmountSign.SEPARATE_COLUMNS
+                        && parseAmount(value(record, credit)) != null) {
+                    return null;
+                }
+                throw new IllegalArgumentException("Amount is required");
+            }
+            BigDecimal spend = switch (format.getAmountSign()) {
+                case POSITIVE_IS_SPEND -> value;
+                case NEGATIVE_IS_SPEND -> value.negate();
+                case SEPARATE_COLUMNS -> value.abs();
+            };
+            return spend.signum() > 0 ? spend : null;
+        }
+    }
+
+    static final class ImportJob {
+        private final String id;
+        private final Long userId;
+        private final StatementFormat format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<String> errors = new ArrayList<>();
+        private volatile String status = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(String id, Long userId, StatementFormat format) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format;
+        }
+
+        synchronized void error(String message) {
+            failed.incrementAndGet();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        synchronized void finish(String finalStatus, String message) {
+            if (message != null && errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+            status = finalStatus;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized TransactionImportStatus snapshot() {
+            return TransactionImportStatus.builder()
+                    .jobId(id)
+                    .status(status)
+                    .format(format.name())
+                    .rowsRead(rowsRead.get())
+                    .imported(imported.get())
+                    .duplicates(duplicates.get())
+                    .skipped(skipped.get())
+                    .failed(failed.get())
+                    .errors(List.copyOf(errors))
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
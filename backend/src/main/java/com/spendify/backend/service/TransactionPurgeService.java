@@ -0,0 +1,90 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.repository.TransactionArchiveRepository;
+import com.spendify.backend.repository.TransactionItemRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves soft-deleted transactions, and their line items, into the archive
+ * tables once the undo window plus a grace period has passed, so the live
+ * table and its indexes only hold active rows. Each batch is copied and
+ * deleted in its own short transaction, oldest deletions first; a run stops
+ * after a bounded number of batches and the next run carries on.
+ * <p>
+ * Soft deletes already left the spending rollup and every derived view, so
+ * removing the rows changes nothing users can see.
+ */
+@Service
+public class TransactionPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPurgeService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionItemRepository transactionItemRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration grace;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public TransactionPurgeService(TransactionRepository transactionRepository,
+                                   TransactionItemRepository transactionItemRepository,
+                                   TransactionArchiveRepository transactionArchiveRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${transactions.purge.grace-hours:24}") long graceHours,
+                                   @Value("${transactions.purge.batch-size:500}") int batchSize,
+                                   @Value("${transactions.purge.max-batches:200}") int maxBatches) {
+        this.transactionRepository = transactionRepository;
+        this.transactionItemRepository = transactionItemRepository;
+        this.transactionArchiveRepository = transactionArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.grace = Duration.ofHours(graceHours);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${transactions.purge.cron:0 15 4 * * *}")
+    public void purgeDeleted() {
+        run(LocalDateTime.now());
+    }
+
+    /** Archives transactions deleted before {@code now} less the undo window and grace; returns how many. */
+    int run(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(TransactionService.UNDO_WINDOW).minus(grace);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff, now));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+        }
+        if (archived > 0) {
+            log.info("Archived {} transactions deleted before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    int archiveBatch(LocalDateTime cutoff, LocalDateTime now) {
+        List<Long> ids = transactionRepository.findIdsDeletedBefore(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        transactionArchiveRepository.archiveItems(ids);
+        transactionItemRepository.deleteByTransactionIds(ids);
+        transactionArchiveRepository.archiveDeleted(ids, now);
+        return transactionRepository.purgeDeleted(ids);
+    }
+}
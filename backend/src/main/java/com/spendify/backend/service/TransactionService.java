@@ -1,5 +1,9 @@
 package com.spendify.backend.service;
 
+import com.spendify.backend.dto.CategorySuggestionResponse;
+import com.spendify.backend.dto.TransactionBulkRequest;
+import com.spendify.backend.dto.TransactionBulkResponse;
+import com.spendify.backend.dto.TransactionBulkUpdate;
 import com.spendify.backend.dto.TransactionCreateRequest;
 import com.spendify.backend.dto.TransactionResponse;
 import com.spendify.backend.dto.TransactionUpdateRequest;
@@ -11,7 +15,10 @@ import com.spendify.backend.exception.UnauthorizedException;
 import com.spendify.backend.repository.CategoryRepository;
 import com.spendify.backend.repository.TransactionRepository;
 import com.spendify.backend.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,24 +28,42 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
 
+    /** How long after a delete {@link #undoDeleteTransaction} can still restore the transaction. */
+    public static final Duration UNDO_WINDOW = Duration.ofSeconds(10);
+
     private final TransactionRepository transactionRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryRegistry categoryRegistry;
+    private final TransactionCategorizer transactionCategorizer;
+    private final MerchantCanonicalizer merchantCanonicalizer;
     private final UserRepository userRepository;
+    private final Validator validator;
+    private final SpendingRollupService spendingRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public TransactionResponse createTransaction(TransactionCreateRequest request) {
         User user = getCurrentUser();
-        Category category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + request.getCategoryId()));
-
-        if (category.getUser() != null && !category.getUser().getId().equals(user.getId())) {
-            throw new UnauthorizedException("User not authorized for this category");
-        }
+        Category category = request.getCategoryId() != null
+                ? resolveCategory(request.getCategoryId(), user)
+                : categorize(user, request.getMerchant(), request.getDescription());
 
         Transaction transaction = Transaction.builder()
                 .amount(request.getAmount())
@@ -47,12 +72,171 @@ public class TransactionService {
                 .category(category)
                 .merchant(request.getMerchant())
                 .user(user)
+                .autoCategorized(request.getCategoryId() == null)
                 .build();
 
         transaction = transactionRepository.save(transaction);
+        spendingRollupService.apply(new SpendingRollupService.Changes().add(transaction));
+        eventPublisher.publishEvent(TransactionChangedEvent.of(user.getId(), null, TransactionChangedEvent.Snapshot.of(transaction)));
         return mapToTransactionResponse(transaction);
     }
 
+    /**
+     * Applies creates, updates and soft deletes in one transaction. Referenced
+     * categories and transactions are loaded with one query each, and new rows
+     * are written with {@code saveAll} so Hibernate can batch the inserts.
+     * Items that fail validation or ownership checks are reported individually
+     * and do not abort the rest of the batch. A transaction id may appear only
+     * once across updates and deletes; every item naming a repeated id is
+     * rejected, since its effects would otherwise be counted once per item.
+     */
+    @Transactional
+    public TransactionBulkResponse bulkTransactions(TransactionBulkRequest request) {
+        User user = getCurrentUser();
+        List<TransactionCreateRequest> creates = request.getCreate() != null ? request.getCreate() : List.of();
+        List<TransactionBulkUpdate> updates = request.getUpdate() != null ? request.getUpdate() : List.of();
+        List<Long> deletes = request.getDelete() != null ? request.getDelete() : List.of();
+
+        Set<Long> categoryIds = new HashSet<>();
+        creates.stream().filter(Objects::nonNull).map(TransactionCreateRequest::getCategoryId).forEach(categoryIds::add);
+        updates.stream().filter(u -> u != null && u.getChanges() != null)
+                .map(u -> u.getChanges().getCategoryId()).forEach(categoryIds::add);
+        categoryIds.remove(null);
+        Map<Long, Category> categories = new HashMap<>();
+        for (Long categoryId : categoryIds) {
+            categoryRegistry.find(user.getId(), categoryId).ifPresent(category -> categories.put(categoryId, category));
+        }
+        // Only ids the registry does not know go to the database, to report them as missing or foreign.
+        categoryIds.removeAll(categories.keySet());
+        if (!categoryIds.isEmpty()) {
+            categoryRepository.findAllById(categoryIds).forEach(category -> categories.put(category.getId(), category));
+        }
+
+        Set<Long> transactionIds = new HashSet<>();
+        Set<Long> repeatedIds = new HashSet<>();
+        Stream.concat(updates.stream().filter(Objects::nonNull).map(TransactionBulkUpdate::getId), deletes.stream())
+                .filter(Objects::nonNull)
+                .forEach(id -> {
+                    if (!transactionIds.add(id)) {
+                        repeatedIds.add(id);
+                    }
+                });
+        transactionIds.removeAll(repeatedIds);
+        Map<Long, Transaction> existing = transactionIds.isEmpty() ? Map.of() : transactionRepository.findAllById(transactionIds).stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+
+        List<TransactionBulkResponse.ItemResult> results = new ArrayList<>();
+        List<Transaction> toSave = new ArrayList<>();
+        SpendingRollupService.Changes rollupChanges = new SpendingRollupService.Changes();
+        // Previous state per written transaction, null for creates, for the change event.
+        Map<Transaction, TransactionChangedEvent.Snapshot> written = new IdentityHashMap<>();
+        // Identity map: Transaction's Lombok hashCode changes once ids are assigned.
+        Map<Transaction, TransactionBulkResponse.ItemResult> pending = new IdentityHashMap<>();
+
+        for (int i = 0; i < creates.size(); i++) {
+            TransactionCreateRequest item = creates.get(i);
+            TransactionBulkResponse.ItemResult result = itemResult("create", i, null);
+            results.add(result);
+            String error = item == null ? "Item is required" : firstViolation(item);
+            Category category = item == null ? null
+                    : item.getCategoryId() == null ? categorize(user, item.getMerchant(), item.getDescription())
+                    : categories.get(item.getCategoryId());
+            if (error == null) {
+                error = checkCategory(category, item.getCategoryId(), user);
+            }
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+            Transaction transaction = Transaction.builder()
+                    .amount(item.getAmount())
+                    .transactionDate(item.getTransactionDate())
+                    .description(item.getDescription())
+                    .category(category)
+                    .merchant(item.getMerchant())
+                    .user(user)
+                    .autoCategorized(item.getCategoryId() == null)
+                    .build();
+            toSave.add(transaction);
+            pending.put(transaction, result);
+            rollupChanges.add(transaction);
+            written.put(transaction, null);
+        }
+
+        for (int i = 0; i < updates.size(); i++) {
+            TransactionBulkUpdate item = updates.get(i);
+            TransactionBulkResponse.ItemResult result = itemResult("update", i, item == null ? null : item.getId());
+            results.add(result);
+            String error = item == null ? "Item is required" : firstViolation(item);
+            Transaction transaction = item == null ? null : existing.get(item.getId());
+            if (error == null) {
+                error = repeatedIds.contains(item.getId()) ? repeatedIdError(item.getId())
+                        : checkOwnership(transaction, item.getId(), user);
+            }
+            Category category = null;
+            if (error == null && item.getChanges().getCategoryId() != null) {
+                category = categories.get(item.getChanges().getCategoryId());
+                error = checkCategory(category, item.getChanges().getCategoryId(), user);
+            }
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+            rollupChanges.remove(transaction);
+            written.putIfAbsent(transaction, TransactionChangedEvent.Snapshot.of(transaction));
+            applyUpdate(transaction, item.getChanges(), category);
+            rollupChanges.add(transaction);
+            toSave.add(transaction);
+            pending.put(transaction, result);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < deletes.size(); i++) {
+            Long id = deletes.get(i);
+            TransactionBulkResponse.ItemResult result = itemResult("delete", i, id);
+            results.add(result);
+            Transaction transaction = id == null ? null : existing.get(id);
+            String error = id == null ? "Transaction ID is required"
+                    : repeatedIds.contains(id) ? repeatedIdError(id)
+                    : checkOwnership(transaction, id, user);
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+            if (!transaction.isDeleted()) {
+                rollupChanges.remove(transaction);
+                written.putIfAbsent(transaction, TransactionChangedEvent.Snapshot.of(transaction));
+            }
+            transaction.setDeleted(true);
+            transaction.setDeletedDate(now);
+            toSave.add(transaction);
+            result.setSuccess(true);
+        }
+
+        for (Transaction saved : transactionRepository.saveAll(toSave)) {
+            TransactionBulkResponse.ItemResult result = pending.get(saved);
+            if (result != null) {
+                result.setId(saved.getId());
+                result.setSuccess(true);
+                result.setTransaction(mapToTransactionResponse(saved));
+            }
+        }
+        spendingRollupService.apply(rollupChanges);
+        if (!written.isEmpty()) {
+            List<TransactionChangedEvent.Change> changes = new ArrayList<>();
+            written.forEach((transaction, previous) -> changes.add(new TransactionChangedEvent.Change(previous,
+                    transaction.isDeleted() ? null : TransactionChangedEvent.Snapshot.of(transaction))));
+            eventPublisher.publishEvent(new TransactionChangedEvent(user.getId(), changes));
+        }
+
+        int succeeded = (int) results.stream().filter(TransactionBulkResponse.ItemResult::isSuccess).count();
+        return TransactionBulkResponse.builder()
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
     public Page<TransactionResponse> getTransactions(LocalDate startDate, LocalDate endDate, Long categoryId, String merchant, Pageable pageable) {
         User user = getCurrentUser();
         return transactionRepository.findByUserIdAndFilters(user.getId(), startDate, endDate, categoryId, merchant, pageable)
@@ -79,28 +263,17 @@ public class TransactionService {
             throw new UnauthorizedException("User not authorized for this transaction");
         }
 
-        if (request.getAmount() != null) {
-            transaction.setAmount(request.getAmount());
-        }
-        if (request.getTransactionDate() != null) {
-            transaction.setTransactionDate(request.getTransactionDate());
-        }
-        if (request.getDescription() != null) {
-            transaction.setDescription(request.getDescription());
-        }
+        Category category = null;
         if (request.getCategoryId() != null) {
-            Category category = categoryRepository.findById(request.getCategoryId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + request.getCategoryId()));
-            if (category.getUser() != null && !category.getUser().getId().equals(user.getId())) {
-                throw new UnauthorizedException("User not authorized for this category");
-            }
-            transaction.setCategory(category);
-        }
-        if (request.getMerchant() != null) {
-            transaction.setMerchant(request.getMerchant());
+            category = resolveCategory(request.getCategoryId(), user);
         }
+        SpendingRollupService.Changes rollupChanges = new SpendingRollupService.Changes().remove(transaction);
+        TransactionChangedEvent.Snapshot previous = TransactionChangedEvent.Snapshot.of(transaction);
+        applyUpdate(transaction, request, category);
 
         transaction = transactionRepository.save(transaction);
+        spendingRollupService.apply(rollupChanges.add(transaction));
+        eventPublisher.publishEvent(TransactionChangedEvent.of(user.getId(), previous, TransactionChangedEvent.Snapshot.of(transaction)));
         return mapToTransactionResponse(transaction);
     }
 
@@ -116,6 +289,8 @@ public class TransactionService {
         transaction.setDeleted(true);
         transaction.setDeletedDate(LocalDateTime.now());
         transactionRepository.save(transaction);
+        spendingRollupService.apply(new SpendingRollupService.Changes().remove(transaction));
+        eventPublisher.publishEvent(TransactionChangedEvent.of(user.getId(), TransactionChangedEvent.Snapshot.of(transaction), null));
     }
 
     @Transactional
@@ -130,16 +305,135 @@ public class TransactionService {
         }
 
         if (transaction.isDeleted() && (transaction.getDeletedDate() != null &&
-                Duration.between(transaction.getDeletedDate(), LocalDateTime.now()).getSeconds() <= 10)) {
+                Duration.between(transaction.getDeletedDate(), LocalDateTime.now()).compareTo(UNDO_WINDOW) <= 0)) {
             transaction.setDeleted(false);
             transaction.setDeletedDate(null);
             transaction = transactionRepository.save(transaction);
+            spendingRollupService.apply(new SpendingRollupService.Changes().add(transaction));
+            eventPublisher.publishEvent(TransactionChangedEvent.of(user.getId(), null, TransactionChangedEvent.Snapshot.of(transaction)));
         } else {
             throw new UnsupportedOperationException("Undo delete is not available for this transaction.");
         }
         return mapToTransactionResponse(transaction);
     }
 
+    private void applyUpdate(Transaction transaction, TransactionUpdateRequest request, Category category) {
+        if (request.getAmount() != null) {
+            transaction.setAmount(request.getAmount());
+        }
+        if (request.getTransactionDate() != null) {
+            transaction.setTransactionDate(request.getTransactionDate());
+        }
+        if (request.getDescription() != null) {
+            transaction.setDescription(request.getDescription());
+        }
+        if (category != null) {
+            transaction.setCategory(category);
+            transaction.setAutoCategorized(false);
+        }
+        if (request.getMerchant() != null) {
+            transaction.setMerchant(request.getMerchant());
+        }
+    }
+
+    /** The category last used at this merchant, with full confidence, else the categorizer's suggestion. */
+    public Optional<CategorySuggestionResponse> suggestCategory(String merchant, String description, String text) {
+        User user = getCurrentUser();
+        Optional<CategorySuggestionResponse> remembered = rememberedCategory(user, merchant)
+                .map(category -> suggestionResponse(category, 1.0));
+        if (remembered.isPresent()) {
+            return remembered;
+        }
+        return transactionCategorizer.suggest(user.getId(), merchant, description, text)
+                .flatMap(suggestion -> categoryRegistry.find(user.getId(), suggestion.categoryId())
+                        .map(category -> suggestionResponse(category, suggestion.confidence())));
+    }
+
+    /**
+     * Category for a transaction created or imported without one: the one last
+     * used at the same merchant, else the categorizer's suggestion, else "Other".
+     */
+    Category categorize(User user, String merchant, String description) {
+        return rememberedCategory(user, merchant)
+                .or(() -> transactionCategorizer.suggest(user.getId(), merchant, description, null)
+                        .flatMap(suggestion -> categoryRegistry.find(user.getId(), suggestion.categoryId())))
+                .or(() -> categoryRegistry.findSystem("Other"))
+                .orElseThrow(() -> new IllegalStateException("Default 'Other' category not found."));
+    }
+
+    /** Skips a remembered category that has since been deleted or is being deleted. */
+    private Optional<Category> rememberedCategory(User user, String merchant) {
+        return merchantCanonicalizer.lastCategory(user.getId(), merchant)
+                .flatMap(categoryId -> categoryRegistry.find(user.getId(), categoryId));
+    }
+
+    private static CategorySuggestionResponse suggestionResponse(Category category, double confidence) {
+        return CategorySuggestionResponse.builder()
+                .categoryId(category.getId())
+                .categoryName(category.getName())
+                .confidence(confidence)
+                .build();
+    }
+
+    /**
+     * Looks the category up in the registry, so the usual case needs no query.
+     * A miss falls back to the database to tell a missing category from one
+     * owned by another user.
+     */
+    private Category resolveCategory(Long categoryId, User user) {
+        Optional<Category> registered = categoryRegistry.find(user.getId(), categoryId);
+        if (registered.isPresent()) {
+            return registered.get();
+        }
+        Category category = categoryRepository.findById(categoryId)
+                .filter(c -> c.getDeletionRequestedAt() == null)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
+        if (category.getUser() != null && !category.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException("User not authorized for this category");
+        }
+        return category;
+    }
+
+    private String firstViolation(Object item) {
+        return validator.validate(item).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String checkCategory(Category category, Long categoryId, User user) {
+        if (category == null || category.getDeletionRequestedAt() != null) {
+            return "Category not found with id: " + categoryId;
+        }
+        if (category.getUser() != null && !category.getUser().getId().equals(user.getId())) {
+            return "User not authorized for this category";
+        }
+        return null;
+    }
+
+    private static String checkOwnership(Transaction transaction, Long id, User user) {
+        if (transaction == null) {
+            return "Transaction not found with id: " + id;
+        }
+        if (!transaction.getUser().getId().equals(user.getId())) {
+            return "User not authorized for this transaction";
+        }
+        return null;
+    }
+
+    private static String repeatedIdError(Long id) {
+        return "Transaction ID appears more than once in the request: " + id;
+    }
+
+    private static TransactionBulkResponse.ItemResult itemResult(String operation, int index, Long id) {
+        return TransactionBulkResponse.ItemResult.builder()
+                .operation(operation)
+                .index(index)
+                .id(id)
+                .build();
+    }
+
     private User getCurrentUser() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         return userRepository.findByEmail(email)
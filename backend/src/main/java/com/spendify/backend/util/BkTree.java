@@ -0,0 +1,132 @@
+package com.spendify.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * Burkhard-Keller tree over strings under Levenshtein distance. A node's
+ * children are keyed by their distance to it, so by the triangle inequality a
+ * search within {@code k} of the query only descends into children whose key
+ * is within {@code k} of the query's distance to the node. Not thread-safe.
+ */
+public class BkTree {
+
+    private Node root;
+    private int size;
+    private int[] previousRow = new int[16];
+    private int[] currentRow = new int[16];
+
+    /** Adds {@code term}; returns false if it was already present. */
+    public boolean add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(term, node.term);
+            if (distance == 0) {
+                return false;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, new Node(term));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * The closest term within {@code maxDistance} of {@code query}, or {@code null}.
+     * Ties go to the term added first.
+     */
+    public String nearest(String query, int maxDistance) {
+        if (root == null) {
+            return null;
+        }
+        Node best = null;
+        int bestDistance = maxDistance + 1;
+        Node[] stack = new Node[Math.max(16, size)];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            Node node = stack[--top];
+            int distance = distance(query, node.term);
+            if (distance < bestDistance || distance == bestDistance && best != null && node.order < best.order) {
+                best = node;
+                bestDistance = distance;
+                if (distance == 0) {
+                    break;
+                }
+            }
+            int radius = Math.min(maxDistance, bestDistance);
+            for (int i = 0; i < node.childCount; i++) {
+                if (Math.abs(node.distances[i] - distance) <= radius) {
+                    stack[top++] = node.children[i];
+                }
+            }
+        }
+        return best != null && bestDistance <= maxDistance ? best.term : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Levenshtein distance with two reused rows. */
+    int distance(String a, String b) {
+        if (b.length() + 1 > previousRow.length) {
+            previousRow = new int[b.length() * 2 + 1];
+            currentRow = new int[b.length() * 2 + 1];
+        }
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private final class Node {
+        private final String term;
+        private final int order = size;
+        private int[] distances = new int[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+
+        private Node(String term) {
+            this.term = term;
+        }
+
+        private Node child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (distances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(int distance, Node child) {
+            if (childCount == children.length) {
+                distances = Arrays.copyOf(distances, Math.max(4, childCount * 2));
+                children = Arrays.copyOf(children, distances.length);
+            }
+            distances[childCount] = distance;
+            children[childCount++] = child;
+        }
+    }
+}
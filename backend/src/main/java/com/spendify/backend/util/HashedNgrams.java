@@ -0,0 +1,71 @@
+package com.spendify.backend.util;
+
+/**
+ * Hashed text features for the transaction categorizer: character trigrams
+ * of the lower-cased letters and digits, with dots and apostrophes dropped,
+ * every run of other characters folded to one space and the ends padded,
+ * plus one feature per whole word.
+ * Works on the characters in place and writes bucket indexes into a caller
+ * buffer, so extraction allocates nothing.
+ */
+public final class HashedNgrams {
+
+    private static final int PRIME = 0x01000193;
+    private static final int WORD_SALT = 0x5BD1E995;
+
+    private HashedNgrams() {
+    }
+
+    /**
+     * Appends the features of {@code text} to {@code out} from {@code offset},
+     * as bucket indexes under {@code mask}; stops when {@code out} is full.
+     * Returns the new end offset.
+     */
+    public static int extract(CharSequence text, int seed, int[] out, int offset, int mask) {
+        if (text == null) {
+            return offset;
+        }
+        int n = offset;
+        int a = ' ';
+        int b = ' ';
+        int word = seed ^ WORD_SALT;
+        int length = text.length();
+        for (int i = 0; i <= length && n < out.length; i++) {
+            int c = ' ';
+            if (i < length) {
+                char ch = text.charAt(i);
+                if (Character.isLetterOrDigit(ch)) {
+                    c = Character.toLowerCase(ch);
+                } else if (ch == '.' || ch == '\'' || ch == '\u2019') {
+                    // "M.T.R." and "McDonald's" read as one word.
+                    continue;
+                }
+            }
+            if (c == ' ' && b == ' ') {
+                continue;
+            }
+            out[n++] = mix(((seed * PRIME ^ a) * PRIME ^ b) * PRIME ^ c) & mask;
+            if (c == ' ') {
+                if (n < out.length) {
+                    out[n++] = mix(word) & mask;
+                }
+                word = seed ^ WORD_SALT;
+            } else {
+                word = word * PRIME ^ c;
+            }
+            a = b;
+            b = c;
+        }
+        return n;
+    }
+
+    /** Murmur3 finalizer. */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,90 @@
+package com.spendify.backend.util;
+
+/**
+ * Open-addressing multiset of primitive longs (linear probing, 0 reserved as
+ * the empty marker and tracked separately). Twelve bytes per slot, no boxing.
+ * Taking a value only lowers its count; the slot stays until the set is dropped.
+ */
+public class LongMultiset {
+
+    private long[] slots;
+    private int[] counts;
+    private int used;
+    private int zeroCount;
+
+    public LongMultiset(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        slots = new long[capacity];
+        counts = new int[capacity];
+    }
+
+    public void add(long value) {
+        if (value == 0) {
+            zeroCount++;
+            return;
+        }
+        if ((used + 1) * 2 > slots.length) {
+            resize();
+        }
+        counts[slotFor(slots, value)]++;
+    }
+
+    /** Removes one occurrence of {@code value}; returns false if there was none left. */
+    public boolean take(long value) {
+        if (value == 0) {
+            if (zeroCount == 0) {
+                return false;
+            }
+            zeroCount--;
+            return true;
+        }
+        int mask = slots.length - 1;
+        for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == 0) {
+                return false;
+            }
+            if (slot == value) {
+                if (counts[i] == 0) {
+                    return false;
+                }
+                counts[i]--;
+                return true;
+            }
+        }
+    }
+
+    /** Index of {@code value} in {@code table}, claiming an empty slot for it if absent. */
+    private int slotFor(long[] table, long value) {
+        int mask = table.length - 1;
+        for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+            long slot = table[i];
+            if (slot == 0) {
+                table[i] = value;
+                used++;
+                return i;
+            }
+            if (slot == value) {
+                return i;
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldSlots = slots;
+        int[] oldCounts = counts;
+        slots = new long[oldSlots.length << 1];
+        counts = new int[slots.length];
+        used = 0;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                counts[slotFor(slots, oldSlots[i])] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,69 @@
+package com.spendify.backend.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Rule-based normalization of merchant strings as they arrive from receipts,
+ * statements and manual entry: case, accents, punctuation and spacing are
+ * folded, card-terminal prefixes are dropped, and trailing legal suffixes and
+ * branch or terminal numbers are removed. "M.T.R. Tsuen Wan" and
+ * "SQ *Starbucks Coffee Co. #1234" become "mtr tsuen wan" and
+ * "starbucks coffee".
+ */
+public final class MerchantNames {
+
+    private static final Set<String> PREFIXES = Set.of("pos", "sq", "paypal");
+    private static final Set<String> SUFFIXES = Set.of("ltd", "limited", "inc", "co", "corp", "llc", "plc",
+            "company", "branch");
+
+    private MerchantNames() {
+    }
+
+    /** The normalized form of {@code merchant}; empty for a missing or blank merchant. */
+    public static String normalize(String merchant) {
+        if (merchant == null || merchant.isBlank()) {
+            return "";
+        }
+        String folded = Normalizer.normalize(merchant, Normalizer.Form.NFKD).toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK || c == '.' || c == '\'' || c == '’') {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+
+        int from = 0;
+        int to = tokens.size();
+        while (to - from > 1 && PREFIXES.contains(tokens.get(from))) {
+            from++;
+        }
+        while (to - from > 1 && (SUFFIXES.contains(tokens.get(to - 1)) || isNumber(tokens.get(to - 1)))) {
+            to--;
+        }
+        return String.join(" ", tokens.subList(from, to));
+    }
+
+    private static boolean isNumber(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
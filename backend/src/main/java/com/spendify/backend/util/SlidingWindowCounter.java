@@ -0,0 +1,61 @@
+package com.spendify.backend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window counter split into fixed time slots.
+ * Each slot packs its epoch and count into a single long so a slot can be
+ * rolled over and incremented with one CAS.
+ */
+public class SlidingWindowCounter {
+
+    static final int COUNT_BITS = 20;
+    static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final long slotMillis;
+
+    public SlidingWindowCounter(int slotCount, long slotMillis) {
+        this.slots = new AtomicLongArray(slotCount);
+        this.slotMillis = slotMillis;
+    }
+
+    public int incrementAndGet(long nowMillis) {
+        long epoch = nowMillis / slotMillis;
+        increment(slots, (int) (epoch % slots.length()), epoch, 1);
+        return sum(nowMillis);
+    }
+
+    public int sum(long nowMillis) {
+        long epoch = nowMillis / slotMillis;
+        int total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            total += live(slots.get(i), epoch, slots.length());
+        }
+        return total;
+    }
+
+    public boolean isIdle(long nowMillis) {
+        return sum(nowMillis) == 0;
+    }
+
+    static void increment(AtomicLongArray cells, int index, long epoch, int delta) {
+        while (true) {
+            long current = cells.get(index);
+            long next = (current >>> COUNT_BITS) == epoch
+                    ? Math.min(current + delta, (epoch << COUNT_BITS) | COUNT_MASK)
+                    : (epoch << COUNT_BITS) | delta;
+            if (cells.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    static int live(long packed, long currentEpoch, int slotCount) {
+        long epoch = packed >>> COUNT_BITS;
+        if (epoch > currentEpoch - slotCount && epoch <= currentEpoch) {
+            return (int) (packed & COUNT_MASK);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,154 @@
+package com.spendify.backend.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted Space-Saving heavy-hitters summary with at most {@code capacity}
+ * counters. Each counter's estimate over-counts by at most its recorded
+ * error, and any item whose true weight exceeds {@code total / capacity} is
+ * guaranteed to be tracked. Sketches merge by adding counters, charging an
+ * item missing from a full sketch that sketch's minimum, and keeping the
+ * largest {@code capacity} results.
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key, String label, long weight) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(key, label, weight, 0));
+            return;
+        }
+        Counter min = minCounter();
+        counters.remove(min.key);
+        counters.put(key, new Counter(key, label, min.count + weight, min.count));
+    }
+
+    public void merge(SpaceSavingSketch other) {
+        long thisFloor = floor();
+        long otherFloor = other.floor();
+        Map<String, Counter> merged = new HashMap<>();
+        for (Counter counter : counters.values()) {
+            Counter theirs = other.counters.get(counter.key);
+            merged.put(counter.key, theirs != null
+                    ? new Counter(counter.key, counter.label, counter.count + theirs.count, counter.error + theirs.error)
+                    : new Counter(counter.key, counter.label, counter.count + otherFloor, counter.error + otherFloor));
+        }
+        for (Counter theirs : other.counters.values()) {
+            merged.computeIfAbsent(theirs.key, key ->
+                    new Counter(key, theirs.label, theirs.count + thisFloor, theirs.error + thisFloor));
+        }
+        counters.clear();
+        merged.values().stream()
+                .sorted(Comparator.comparingLong((Counter c) -> c.count).reversed())
+                .limit(capacity)
+                .forEach(c -> counters.put(c.key, c));
+    }
+
+    public List<Counter> top(int limit) {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort(Comparator.comparingLong((Counter c) -> c.count).reversed().thenComparing(c -> c.key));
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(capacity);
+            out.writeInt(counters.size());
+            for (Counter counter : counters.values()) {
+                out.writeUTF(counter.key);
+                out.writeUTF(counter.label);
+                out.writeLong(counter.count);
+                out.writeLong(counter.error);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SpaceSavingSketch fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            SpaceSavingSketch sketch = new SpaceSavingSketch(in.readInt());
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                Counter counter = new Counter(in.readUTF(), in.readUTF(), in.readLong(), in.readLong());
+                sketch.counters.put(counter.key, counter);
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Smallest count an untracked item could have, or 0 while the sketch has free counters. */
+    private long floor() {
+        return counters.size() < capacity ? 0 : minCounter().count;
+    }
+
+    private Counter minCounter() {
+        Counter min = null;
+        for (Counter counter : counters.values()) {
+            if (min == null || counter.count < min.count) {
+                min = counter;
+            }
+        }
+        return min;
+    }
+
+    public static final class Counter {
+        private final String key;
+        private final String label;
+        private long count;
+        private final long error;
+
+        private Counter(String key, String label, long count, long error) {
+            this.key = key;
+            this.label = label;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.spendify.backend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch whose cells are sliding-window counters, so estimates
+ * age out the same way {@link SlidingWindowCounter} does. Uses conservative
+ * update: only the rows holding the current minimum are incremented, which
+ * keeps over-estimation low when many distinct keys share the sketch.
+ * Memory is fixed at {@code depth * width * generations} longs.
+ */
+public class WindowedCountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final int generations;
+    private final long generationMillis;
+    private final AtomicLongArray cells;
+
+    public WindowedCountMinSketch(int depth, int width, int generations, long generationMillis) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Sketch width must be a power of two");
+        }
+        this.depth = depth;
+        this.widthMask = width - 1;
+        this.generations = generations;
+        this.generationMillis = generationMillis;
+        this.cells = new AtomicLongArray(depth * width * generations);
+    }
+
+    public int incrementAndGet(String key, long nowMillis) {
+        long epoch = nowMillis / generationMillis;
+        int slot = (int) (epoch % generations);
+        int[] columns = columns(key);
+        int min = estimate(columns, epoch);
+        for (int row = 0; row < depth; row++) {
+            if (rowSum(row, columns[row], epoch) == min) {
+                SlidingWindowCounter.increment(cells, cellBase(row, columns[row]) + slot, epoch, 1);
+            }
+        }
+        return min + 1;
+    }
+
+    public int estimate(String key, long nowMillis) {
+        return estimate(columns(key), nowMillis / generationMillis);
+    }
+
+    private int estimate(int[] columns, long epoch) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, rowSum(row, columns[row], epoch));
+        }
+        return min;
+    }
+
+    private int rowSum(int row, int column, long epoch) {
+        int base = cellBase(row, column);
+        int total = 0;
+        for (int g = 0; g < generations; g++) {
+            total += SlidingWindowCounter.live(cells.get(base + g), epoch, generations);
+        }
+        return total;
+    }
+
+    private int cellBase(int row, int column) {
+        return (row * (widthMask + 1) + column) * generations;
+    }
+
+    private int[] columns(String key) {
+        // Kirsch-Mitzenmacher: derive every row hash from two base hashes.
+        int h1 = key.hashCode();
+        int h2 = 0x811C9DC5;
+        for (int i = 0; i < key.length(); i++) {
+            h2 = (h2 ^ key.charAt(i)) * 0x01000193;
+        }
+        h2 |= 1;
+        int[] columns = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            int h = h1 + row * h2;
+            columns[row] = (h ^ (h >>> 16)) & widthMask;
+        }
+        return columns;
+    }
+}
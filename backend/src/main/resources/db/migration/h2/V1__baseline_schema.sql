@@ -0,0 +1,118 @@
+-- H2 twin of sqlserver/V1__baseline_schema.sql for tests and local runs; keep
+-- the two in step. H2 treats NULLs as distinct in unique constraints, so the
+-- filtered unique indexes become plain unique constraints here.
+
+create sequence users_seq start with 1 increment by 50;
+create sequence budgets_seq start with 1 increment by 50;
+create sequence login_audits_seq start with 1 increment by 50;
+create sequence notification_logs_seq start with 1 increment by 50;
+create sequence ocr_processing_logs_seq start with 1 increment by 50;
+create sequence refresh_tokens_seq start with 1 increment by 50;
+create sequence transaction_items_seq start with 1 increment by 50;
+create sequence transactions_seq start with 1 increment by 50;
+
+create table users (
+    id bigint not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id)
+);
+
+create table categories (
+    id bigint generated by default as identity,
+    user_id bigint,
+    name varchar(255) not null,
+    color varchar(255) not null,
+    icon varchar(255) not null,
+    is_system boolean not null,
+    display_order integer,
+    primary key (id)
+);
+
+create table transactions (
+    id bigint not null,
+    user_id bigint not null,
+    category_id bigint not null,
+    amount numeric(10,2) not null,
+    transaction_date date not null,
+    merchant varchar(255) not null,
+    description varchar(255),
+    receipt_hash varchar(255),
+    receipt_url varchar(255),
+    is_deleted boolean not null,
+    deleted_date timestamp(6),
+    primary key (id)
+);
+
+create table transaction_items (
+    id bigint not null,
+    transaction_id bigint not null,
+    name varchar(255) not null,
+    quantity integer not null,
+    price numeric(10,2) not null,
+    primary key (id)
+);
+
+create table budgets (
+    id bigint not null,
+    user_id bigint not null,
+    category_id bigint not null,
+    year_month varchar(7) not null,
+    "limit" numeric(10,2) not null,
+    primary key (id)
+);
+
+create table refresh_tokens (
+    id bigint not null,
+    user_id bigint not null,
+    token varchar(255) not null,
+    expiry_date timestamp(6) not null,
+    primary key (id)
+);
+
+create table login_audits (
+    id bigint not null,
+    user_id bigint,
+    ip_address varchar(255) not null,
+    timestamp timestamp(6) not null,
+    successful boolean not null,
+    primary key (id)
+);
+
+create table notification_logs (
+    id bigint not null,
+    user_id bigint not null,
+    message varchar(255) not null,
+    type varchar(255) not null,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create table ocr_processing_logs (
+    id bigint not null,
+    input_image_name varchar(255),
+    processing_time_ms bigint not null,
+    tesseract_version varchar(255),
+    detected_text clob,
+    confidence float(53) not null,
+    error_message varchar(255),
+    is_successful boolean not null,
+    primary key (id)
+);
+
+alter table users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table categories add constraint UKri8sui6nhryjeixqyhgnp0rqt unique (user_id, name);
+alter table transactions add constraint UK_jdbyo1val0h1lv1b7rfjs53r1 unique (receipt_hash);
+alter table budgets add constraint UKf2wj5inshptls39rf3pk4ks7v unique (user_id, year_month, category_id);
+alter table refresh_tokens add constraint UK_7tdcd6ab5wsgoudnvj7xf1b7l unique (user_id);
+alter table refresh_tokens add constraint UK_ghpmfn23vmxfu3spu3lfg4r2d unique (token);
+
+alter table categories add constraint FKghuylkwuedgl2qahxjt8g41kb foreign key (user_id) references users;
+alter table transactions add constraint FKqwv7rmvc8va8rep7piikrojds foreign key (user_id) references users;
+alter table transactions add constraint FKsqqi7sneo04kast0o138h19mv foreign key (category_id) references categories;
+alter table transaction_items add constraint FKfaqqkmi2ahnahay1ciwffqwyp foreign key (transaction_id) references transactions;
+alter table budgets add constraint FKln0tm5tgf3f9q3sp9sa5m8m7b foreign key (user_id) references users;
+alter table budgets add constraint FKn7qib00712y8dwelmqfwis6ka foreign key (category_id) references categories;
+alter table refresh_tokens add constraint FK1lih5y2npsf8u5o3vhdb9y0os foreign key (user_id) references users;
+alter table login_audits add constraint FKrrof8076dr9yfkrbqqksnwb43 foreign key (user_id) references users;
+alter table notification_logs add constraint FKsbx1lf2w8tr7siwwibcj9k3fg foreign key (user_id) references users;
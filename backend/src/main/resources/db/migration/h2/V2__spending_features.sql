@@ -0,0 +1,121 @@
+-- H2 twin of sqlserver/V2__spending_features.sql.
+
+alter table categories add deletion_requested_at timestamp(6);
+alter table budgets add alerted_percent integer;
+alter table login_audits add email varchar(255);
+
+create table transactions_archive (
+    id bigint not null,
+    user_id bigint not null,
+    category_id bigint not null,
+    amount numeric(10,2) not null,
+    transaction_date date not null,
+    merchant varchar(255) not null,
+    description varchar(255),
+    receipt_hash varchar(255),
+    receipt_url varchar(255),
+    deleted_date timestamp(6),
+    archived_at timestamp(6) not null,
+    primary key (id)
+);
+
+create table transaction_items_archive (
+    id bigint not null,
+    transaction_id bigint not null,
+    name varchar(255) not null,
+    quantity integer not null,
+    price numeric(10,2) not null,
+    primary key (id)
+);
+
+create table budget_snapshots (
+    id bigint generated by default as identity,
+    budget_id bigint not null,
+    user_id bigint not null,
+    category_id bigint not null,
+    year_month varchar(7) not null,
+    limit_amount numeric(10,2) not null,
+    total_spent numeric(12,2) not null,
+    percentage_spent float(53) not null,
+    overspend_amount numeric(12,2) not null,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create table category_reassignments (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    category_id bigint not null,
+    target_category_id bigint not null,
+    status varchar(16) not null,
+    total bigint not null,
+    moved bigint not null,
+    last_transaction_id bigint not null,
+    error varchar(500),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    finished_at timestamp(6),
+    primary key (id)
+);
+
+create table spending_rollups (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    category_id bigint not null,
+    spend_date date not null,
+    total numeric(14,2) not null,
+    transaction_count bigint not null,
+    primary key (id)
+);
+
+create table spending_stats (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    category_id bigint not null,
+    sample_count bigint not null,
+    mean float(53) not null,
+    m2 float(53) not null,
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table spending_forecast_models (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    category_id bigint not null,
+    start_date date not null,
+    state blob not null,
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table merchant_sketches (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    year_month varchar(7) not null,
+    transaction_count bigint not null,
+    stale boolean not null,
+    spend_sketch blob not null,
+    frequency_sketch blob not null,
+    distinct_sketch blob not null,
+    primary key (id)
+);
+
+create table job_checkpoints (
+    job_name varchar(64) not null,
+    run_key varchar(32) not null,
+    last_id bigint not null,
+    updated_at timestamp(6),
+    primary key (job_name)
+);
+
+create index idx_transactions_archive_user on transactions_archive (user_id, transaction_date);
+create index idx_transaction_items_archive_transaction on transaction_items_archive (transaction_id);
+alter table budget_snapshots add constraint UKlmpjv9f4li232ut1h76c7ph1f unique (budget_id);
+create index IDX5jguecaksfyxdcf1pwscvv7y4 on budget_snapshots (user_id, year_month);
+create index idx_category_reassignments_status on category_reassignments (status);
+alter table spending_rollups add constraint UKdm4q8wjqmpxny9mhpnrnbivaw unique (user_id, spend_date, category_id);
+create index idx_spending_rollups_user_date on spending_rollups (user_id, spend_date);
+alter table spending_stats add constraint UK7ydjiew3sa3reov9emvadb5ld unique (user_id, category_id);
+alter table spending_forecast_models add constraint UKbjcksnao4uwgt2w29jj2bqgdg unique (user_id, category_id);
+alter table merchant_sketches add constraint UKp0kpp9e5kykv80sw1iqx1o0du unique (user_id, year_month);
@@ -0,0 +1,16 @@
+-- H2 twin of sqlserver/V3__query_indexes.sql: the same key columns, without the
+-- INCLUDE lists and index filters H2 does not support. IndexUsageTest checks
+-- the repository queries against these.
+
+create index ix_transactions_user_date
+    on transactions (user_id, transaction_date);
+
+create index ix_transactions_user_category_date
+    on transactions (user_id, category_id, transaction_date);
+
+create index ix_transactions_deleted_date on transactions (deleted_date);
+
+create index ix_transaction_items_transaction on transaction_items (transaction_id);
+create index ix_budgets_category on budgets (category_id);
+
+create index ix_categories_system on categories (is_system, display_order);
@@ -0,0 +1,2 @@
+-- H2 twin of sqlserver/V4__forecast_model_stale.sql.
+alter table spending_forecast_models add stale boolean default false not null;
@@ -0,0 +1,6 @@
+-- H2 twin of sqlserver/V5__transaction_auto_categorized.sql; the index there
+-- only gains an included column, which H2 does not have.
+alter table transactions add auto_categorized boolean default false not null;
+
+update transactions set auto_categorized = true
+where category_id in (select id from categories where is_system = true and name = 'Other');
@@ -0,0 +1,2 @@
+-- H2 twin of sqlserver/V6__merchant_sketch_version.sql.
+alter table merchant_sketches add version bigint default 0 not null;
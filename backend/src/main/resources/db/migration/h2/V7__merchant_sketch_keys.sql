@@ -0,0 +1,2 @@
+-- H2 twin of sqlserver/V7__merchant_sketch_keys.sql.
+update merchant_sketches set stale = true, version = version + 1;
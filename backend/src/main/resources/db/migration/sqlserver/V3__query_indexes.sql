@@ -0,0 +1,28 @@
+-- Composite indexes for the repository queries. Soft-deleted transactions are
+-- archived a day after deletion, so is_deleted (filtered by the entity's @Where
+-- clause) is carried as an included column rather than a key. Budgets by
+-- (user_id, year_month) are served by their unique constraint, as are refresh
+-- tokens by token and users by email.
+
+-- Transaction list and export, analytics by day and category, import
+-- fingerprints, categorizer and merchant loads: one user's rows by date.
+create index ix_transactions_user_date
+    on transactions (user_id, transaction_date)
+    include (is_deleted, category_id, amount, merchant);
+
+-- Category-filtered paths: budget spend, anomaly moments, forecast seeding,
+-- and the reassignment count and keyset walk over live and deleted rows.
+create index ix_transactions_user_category_date
+    on transactions (user_id, category_id, transaction_date)
+    include (is_deleted, amount);
+
+-- Archive job: soft-deleted rows, oldest deletion first. Live rows have no
+-- deleted_date and sort before any range the job asks for.
+create index ix_transactions_deleted_date on transactions (deleted_date);
+
+-- Foreign keys probed when a transaction is purged or a category removed.
+create index ix_transaction_items_transaction on transaction_items (transaction_id);
+create index ix_budgets_category on budgets (category_id);
+
+-- System categories, loaded by the category registry.
+create index ix_categories_system on categories (is_system, display_order);
@@ -0,0 +1,5 @@
+-- Forecast models are seeded by the first write to their category, under the
+-- row lock: the writer inserts a stale placeholder, locks it and rebuilds it
+-- from history. Existing models are already seeded.
+alter table spending_forecast_models add stale bit not null
+    constraint df_spending_forecast_models_stale default 0;
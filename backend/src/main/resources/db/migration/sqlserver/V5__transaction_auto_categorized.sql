@@ -0,0 +1,16 @@
+-- Marks transactions whose category the application picked (a suggestion, a
+-- merchant rule or the 'Other' fallback) rather than the user, so the
+-- categorizer does not learn from its own guesses. Which older rows were
+-- guessed is unknown; those in 'Other' were almost all the fallback.
+alter table transactions add auto_categorized bit not null
+    constraint df_transactions_auto_categorized default 0;
+
+update transactions set auto_categorized = 1
+where category_id in (select id from categories where is_system = 1 and name = 'Other');
+
+-- Carry the flag in the user/date index so the merchant and categorizer
+-- loads filter on it without key lookups.
+create index ix_transactions_user_date
+    on transactions (user_id, transaction_date)
+    include (is_deleted, category_id, amount, merchant, auto_categorized)
+    with (drop_existing = on);
@@ -0,0 +1,5 @@
+-- Merchant sketches are rebuilt outside the writing transaction and saved
+-- against the version they were read at; markStale and incremental updates
+-- move it on.
+alter table merchant_sketches add version bigint not null
+    constraint df_merchant_sketches_version default 0;
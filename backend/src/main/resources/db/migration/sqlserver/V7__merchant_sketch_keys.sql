@@ -0,0 +1,3 @@
+-- Merchant sketches are now keyed by the normalized merchant name; rows built
+-- under the old key are rebuilt on next read.
+update merchant_sketches set stale = 1, version = version + 1;
@@ -0,0 +1,82 @@
+package com.spendify.backend.benchmark;
+
+import com.spendify.backend.service.CategoryClassifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inference latency of the categorizer at realistic sizes: a per-user model
+ * (4096 buckets) and the shared model (65536 buckets), each trained on
+ * synthetic merchants spread over {@code categories} categories. Run with
+ * {@code mvn -B test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath com.spendify.backend.benchmark.CategoryClassifierBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategoryClassifierBenchmark {
+
+    private static final String[] WORDS = {
+            "coffee", "central", "market", "express", "mall", "station", "bakery", "garden", "city", "taxi",
+            "bus", "supermarket", "pharmacy", "cinema", "noodle", "tea", "electric", "mobile", "book", "fashion"};
+
+    @Param({"12", "16"})
+    public int bucketBits;
+
+    @Param({"8", "30"})
+    public int categories;
+
+    private CategoryClassifier classifier;
+    private CategoryClassifier.Scratch scratch;
+    private String merchant;
+    private String description;
+    private String receipt;
+
+    @Setup(Level.Trial)
+    public void train() {
+        classifier = new CategoryClassifier(bucketBits);
+        scratch = new CategoryClassifier.Scratch();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            int category = random.nextInt(categories);
+            String name = WORDS[category % WORDS.length] + " " + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(500);
+            classifier.train(category + 1, name, random.nextBoolean() ? "weekly " + WORDS[category % WORDS.length] : null, 1, scratch);
+        }
+        merchant = "Pacific Coffee Central #0231";
+        description = "flat white and croissant";
+        receipt = "PACIFIC COFFEE\nShop 1021, Level 1, IFC Mall\nFlat White (L) 42.00\nCroissant 24.00\nTOTAL HKD 66.00\nVISA ****1234";
+    }
+
+    @Benchmark
+    public long merchantOnly() {
+        return classifier.predict(merchant, null, null, scratch);
+    }
+
+    @Benchmark
+    public long merchantDescriptionAndReceipt() {
+        return classifier.predict(merchant, description, receipt, scratch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CategoryClassifierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
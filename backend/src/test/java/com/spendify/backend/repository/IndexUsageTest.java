@@ -0,0 +1,156 @@
+package com.spendify.backend.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the indexes created by the migrations: runs the hot repository
+ * queries against the migrated H2 schema, records the SQL Hibernate sends,
+ * and checks H2's EXPLAIN plan for each seeks an index rather than scanning
+ * the table.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.spendify.backend.repository.IndexUsageTest$RecordingInspector")
+@ActiveProfiles("test")
+class IndexUsageTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private BudgetRepository budgetRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static final String USER_FOREIGN_KEY_INDEX = "FKQWV7RMVC8VA8REP7PIIKROJDS_INDEX";
+
+    private final LocalDate from = LocalDate.of(2025, 12, 1);
+    private final LocalDate to = LocalDate.of(2025, 12, 31);
+
+    @BeforeEach
+    void setUp() {
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void transactionQueries_shouldSeekUserIndexes() {
+        // Date bounds here are optional parameters (or absent), which H2 cannot use
+        // for a range, so it seeks user_id alone through the index backing the
+        // foreign key; SQL Server seeks ix_transactions_user_date. H2 names that
+        // index after the constraint with a generated suffix.
+        assertPlan(USER_FOREIGN_KEY_INDEX,
+                () -> transactionRepository.findByUserIdAndFilters(1L, from, to, null, null, PageRequest.of(0, 20)));
+        assertPlan(USER_FOREIGN_KEY_INDEX,
+                () -> drain(transactionRepository.streamExportRows(1L, from, to, null)));
+        assertPlan(USER_FOREIGN_KEY_INDEX,
+                () -> drain(transactionRepository.streamMerchantCategories(1L)));
+        // H2 costs the date range on the user index below the category IN list;
+        // SQL Server seeks ix_transactions_user_category_date.
+        assertPlan("IX_TRANSACTIONS_USER_DATE",
+                () -> transactionRepository.findDailyAmountStats(1L, Set.of(2L, 3L), from));
+        assertPlan("IX_TRANSACTIONS_USER_DATE",
+                () -> drain(transactionRepository.streamFingerprintsBetween(1L, from, to)));
+        assertPlan("IX_TRANSACTIONS_USER_DATE",
+                () -> transactionRepository.findSpendingByDay(1L, from, to));
+        assertPlan("IX_TRANSACTIONS_USER_CATEGORY_DATE",
+                () -> transactionRepository.sumAmountByUserIdAndCategoryIdAndTransactionDateBetween(1L, 2L, from, to));
+        assertPlan("IX_TRANSACTIONS_USER_CATEGORY_DATE",
+                () -> transactionRepository.findIdsInCategoryAfter(1L, 2L, 0, PageRequest.of(0, 500)));
+        assertPlan("IX_TRANSACTIONS_USER_CATEGORY_DATE",
+                () -> transactionRepository.countInCategoryIncludingDeleted(1L, 2L));
+        assertPlan("IX_TRANSACTIONS_DELETED_DATE",
+                () -> transactionRepository.findIdsDeletedBefore(LocalDateTime.of(2025, 12, 1, 0, 0), PageRequest.of(0, 500)));
+    }
+
+    @Test
+    void budgetCategoryAndTokenQueries_shouldSeekTheirIndexes() {
+        assertPlan("UKF2WJ5INSHPTLS39RF3PK4KS7V",
+                () -> budgetRepository.findAllByUserIdAndYearMonth(1L, "2025-12"));
+        assertPlan("UKF2WJ5INSHPTLS39RF3PK4KS7V",
+                () -> budgetRepository.findByUserIdAndYearMonthAndCategoryId(1L, "2025-12", 2L));
+        // H2 indexes the user_id foreign key; SQL Server, which does not, seeks the
+        // filtered unique index on (user_id, name) instead.
+        assertPlan("FKGHUYLKWUEDGL2QAHXJT8G41KB_INDEX",
+                () -> categoryRepository.findByUserIdAndDeletionRequestedAtIsNull(1L));
+        assertPlan("IX_CATEGORIES_SYSTEM",
+                () -> categoryRepository.findByIsSystem(true));
+        assertPlan("UK_GHPMFN23VMXFU3SPU3LFG4R2D",
+                () -> refreshTokenRepository.findByToken("token"));
+        assertPlan("UK_GHPMFN23VMXFU3SPU3LFG4R2D",
+                () -> refreshTokenRepository.existsByToken("token"));
+    }
+
+    /**
+     * Runs {@code call} in a transaction and checks the plan of the first SELECT
+     * it issued: never a table scan, and through {@code index}.
+     */
+    private void assertPlan(String index, Runnable call) {
+        RecordingInspector.STATEMENTS.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> call.run());
+        List<String> selects = new ArrayList<>();
+        for (String sql : RecordingInspector.STATEMENTS) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                selects.add(sql);
+            }
+        }
+        assertThat(selects).as("SQL issued").isNotEmpty();
+        String plan = explain(selects.get(0));
+        assertThat(plan).as(selects.get(0)).doesNotContain("tableScan").contains(index);
+    }
+
+    private static void drain(Stream<?> rows) {
+        try (rows) {
+            rows.forEach(row -> { });
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                try (ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    return rows.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
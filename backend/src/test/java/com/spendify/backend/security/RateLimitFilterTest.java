@@ -0,0 +1,155 @@
+package com.spendify.backend.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private InMemoryRateLimitStore store;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryRateLimitStore();
+        filter = new RateLimitFilter(store, true, now::get);
+        filter.setLimit(RateLimitGroup.OCR, new RateLimitStore.BucketSpec(2, 60));
+        filter.setLimit(RateLimitGroup.AUTH, new RateLimitStore.BucketSpec(2, 60));
+        filter.setLimit(RateLimitGroup.WRITE, new RateLimitStore.BucketSpec(5, 60));
+        filter.setLimit(RateLimitGroup.READ, new RateLimitStore.BucketSpec(3, 60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private MockHttpServletResponse perform(String method, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr("203.0.113.5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void doFilter_whenUnderLimit_shouldPassAndSetHeaders() throws Exception {
+        // Given
+        authenticateAs("user@example.com");
+
+        // When
+        MockHttpServletResponse response = perform("GET", "/transactions");
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("3");
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("2");
+        assertThat(response.getHeader("RateLimit-Reset")).isEqualTo("1");
+    }
+
+    @Test
+    void doFilter_whenBucketIsEmpty_shouldReturn429UntilRefilled() throws Exception {
+        // Given
+        authenticateAs("user@example.com");
+        perform("POST", "/ocr/process");
+        perform("POST", "/ocr/process");
+
+        // When
+        MockHttpServletResponse rejected = perform("POST", "/ocr/process");
+
+        // Then
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+
+        // When one token has refilled (60 per minute = one per second)
+        now.addAndGet(1_000);
+
+        // Then
+        assertThat(perform("POST", "/ocr/process").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_shouldKeepGroupsAndUsersIndependent() throws Exception {
+        // Given one user has exhausted OCR
+        authenticateAs("user@example.com");
+        perform("POST", "/ocr/process");
+        perform("POST", "/ocr/process");
+        assertThat(perform("POST", "/ocr/process").getStatus()).isEqualTo(429);
+
+        // Then reads are still allowed for that user, and OCR for another user
+        assertThat(perform("GET", "/transactions").getStatus()).isEqualTo(200);
+        authenticateAs("other@example.com");
+        assertThat(perform("POST", "/ocr/process").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_whenAnonymous_shouldKeyByIp() throws Exception {
+        // When
+        perform("POST", "/auth/login");
+        perform("POST", "/auth/login");
+
+        // Then
+        assertThat(perform("POST", "/auth/login").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void doFilter_whenCalledConcurrently_shouldNeverOverAdmit() throws Exception {
+        // Given
+        authenticateAs("user@example.com");
+        var context = SecurityContextHolder.getContext();
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When 100 writes race for 5 tokens
+        for (int i = 0; i < 100; i++) {
+            executor.submit(() -> {
+                SecurityContextHolder.setContext(context);
+                if (perform("POST", "/transactions").getStatus() == 200) {
+                    allowed.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(allowed.get()).isEqualTo(5);
+    }
+
+    @Test
+    void evictIdleBuckets_shouldDropFullBuckets() throws Exception {
+        // Given
+        authenticateAs("user@example.com");
+        perform("GET", "/transactions");
+        assertThat(store.size()).isEqualTo(1);
+
+        // When the bucket has fully refilled
+        now.addAndGet(60_000);
+        filter.evictIdleBuckets();
+
+        // Then
+        assertThat(store.size()).isZero();
+    }
+}
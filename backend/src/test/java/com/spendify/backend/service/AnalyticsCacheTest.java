@@ -0,0 +1,89 @@
+package com.spendify.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDate january = LocalDate.of(2025, 1, 1);
+    private final LocalDate february = LocalDate.of(2025, 2, 1);
+
+    private AnalyticsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AnalyticsCache(meterRegistry, 1000, 10);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void onSpendingChanged_shouldOnlyEvictOverlappingRangesOfThatUser() {
+        // Given
+        load(1L, january, january.plusDays(30));
+        load(1L, february, february.plusDays(27));
+        load(2L, january, january.plusDays(30));
+
+        // When
+        cache.onSpendingChanged(new SpendingChangedEvent(1L, january.plusDays(4), january.plusDays(4)));
+        load(1L, january, january.plusDays(30));
+        load(1L, february, february.plusDays(27));
+        load(2L, january, january.plusDays(30));
+
+        // Then
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.hitRatio()).isEqualTo(2 / 6.0);
+        assertThat(meterRegistry.get("analytics.cache.hit.ratio").gauge().value()).isEqualTo(2 / 6.0);
+
+        cache.onSpendingChanged(SpendingChangedEvent.allDates(1L));
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void onCategoryChanged_shouldEvictEveryEntryOfThatUser() {
+        // Given
+        load(1L, january, january.plusDays(30));
+        load(1L, february, february.plusDays(27));
+        load(2L, january, january.plusDays(30));
+
+        // When
+        cache.onCategoryChanged(new CategoryChangedEvent(1L));
+
+        // Then
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldNotCacheResultLoadedWhileUserWasInvalidated() {
+        // When
+        List<String> stale = cache.get(1L, AnalyticsCache.Query.DAILY_BREAKDOWN, january, february, () -> {
+            loads.incrementAndGet();
+            cache.onSpendingChanged(new SpendingChangedEvent(1L, january, january));
+            return List.of("stale");
+        }, List::size);
+        cache.get(1L, AnalyticsCache.Query.DAILY_BREAKDOWN, january, february, () -> {
+            loads.incrementAndGet();
+            return List.of("fresh");
+        }, List::size);
+
+        // Then
+        assertThat(stale).containsExactly("stale");
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    private void load(Long userId, LocalDate start, LocalDate end) {
+        cache.get(userId, AnalyticsCache.Query.CATEGORY_SUMMARY, start, end, () -> {
+            loads.incrementAndGet();
+            return List.of(userId);
+        }, List::size);
+    }
+}
@@ -1,17 +1,23 @@
 package com.spendify.backend.service;
 
+import com.spendify.backend.dto.AnalyticsComparisonResponse;
 import com.spendify.backend.dto.CategorySpendingSummary;
 import com.spendify.backend.dto.CategorySummaryResponse;
 import com.spendify.backend.dto.DailyBreakdownResponse;
 import com.spendify.backend.dto.DailySpending;
+import com.spendify.backend.dto.DailyTotalRow;
+import com.spendify.backend.dto.SpendingRollupRow;
+import com.spendify.backend.dto.TimeSeriesResponse;
 import com.spendify.backend.entity.User;
-import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
 import com.spendify.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -21,21 +27,28 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AnalyticsServiceTest {
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private SpendingRollupRepository spendingRollupRepository;
     @Mock
     private UserRepository userRepository;
     @Mock
     private SecurityContext securityContext;
     @Mock
     private Authentication authentication;
+    @Spy
+    private AnalyticsCache analyticsCache = new AnalyticsCache(new SimpleMeterRegistry(), 1000, 10);
 
     @InjectMocks
     private AnalyticsService analyticsService;
@@ -67,7 +80,7 @@ class AnalyticsServiceTest {
         CategorySpendingSummary transportSummary = createCategorySpendingSummary(2L, "Transport", new BigDecimal("100.00"));
         
         List<CategorySpendingSummary> spendingList = List.of(foodSummary, transportSummary);
-        when(transactionRepository.findSpendingByCategory(currentUser.getId(), startDate, endDate)).thenReturn(spendingList);
+        when(spendingRollupRepository.findSpendingByCategory(currentUser.getId(), startDate, endDate)).thenReturn(spendingList);
 
         // When
         CategorySummaryResponse response = analyticsService.getCategorySpendingSummary(startDate, endDate);
@@ -95,7 +108,7 @@ class AnalyticsServiceTest {
     @Test
     void getCategorySpendingSummary_whenNoTransactionsExist_shouldReturnEmptySummary() {
         // Given
-        when(transactionRepository.findSpendingByCategory(currentUser.getId(), startDate, endDate)).thenReturn(List.of());
+        when(spendingRollupRepository.findSpendingByCategory(currentUser.getId(), startDate, endDate)).thenReturn(List.of());
 
         // When
         CategorySummaryResponse response = analyticsService.getCategorySpendingSummary(startDate, endDate);
@@ -113,7 +126,7 @@ class AnalyticsServiceTest {
         DailySpending day2 = createDailySpending(LocalDate.of(2025, 12, 3), new BigDecimal("75.50"));
         
         List<DailySpending> dailyList = List.of(day1, day2);
-        when(transactionRepository.findSpendingByDay(currentUser.getId(), startDate, endDate)).thenReturn(dailyList);
+        when(spendingRollupRepository.findSpendingByDay(currentUser.getId(), startDate, endDate)).thenReturn(dailyList);
 
         // When
         DailyBreakdownResponse response = analyticsService.getDailySpendingBreakdown(startDate, endDate);
@@ -128,6 +141,71 @@ class AnalyticsServiceTest {
     }
 
     // Helper method to create mock CategorySpendingSummary
+    @Test
+    void comparePeriods_shouldSplitOneQueryIntoPeriodsWithDeltas() {
+        // Given
+        LocalDate anchor = LocalDate.of(2025, 12, 15);
+        when(spendingRollupRepository.findRowsInRanges(eq(currentUser.getId()), anyList())).thenReturn(List.of(
+                new SpendingRollupRow(LocalDate.of(2024, 12, 5), 1L, "Food", new BigDecimal("50.00")),
+                new SpendingRollupRow(LocalDate.of(2025, 11, 3), 1L, "Food", new BigDecimal("200.00")),
+                new SpendingRollupRow(LocalDate.of(2025, 11, 3), 2L, "Transport", new BigDecimal("40.00")),
+                new SpendingRollupRow(LocalDate.of(2025, 12, 1), 1L, "Food", new BigDecimal("150.00")),
+                new SpendingRollupRow(LocalDate.of(2025, 12, 2), 1L, "Food", new BigDecimal("150.00"))));
+
+        // When
+        AnalyticsComparisonResponse response = analyticsService.comparePeriods(AnalyticsService.ComparisonType.MONTH, anchor);
+
+        // Then
+        verify(spendingRollupRepository, times(1)).findRowsInRanges(eq(currentUser.getId()), anyList());
+        assertThat(response.getPeriods()).extracting(AnalyticsComparisonResponse.PeriodSummary::getLabel)
+                .containsExactly("2025-12", "2025-11", "2024-12");
+
+        AnalyticsComparisonResponse.PeriodSummary current = response.getPeriods().get(0);
+        assertThat(current.getTotal()).isEqualByComparingTo("300.00");
+        assertThat(current.getDelta()).isNull();
+        assertThat(current.getDaily()).hasSize(2);
+
+        AnalyticsComparisonResponse.PeriodSummary lastMonth = response.getPeriods().get(1);
+        assertThat(lastMonth.getTotal()).isEqualByComparingTo("240.00");
+        assertThat(lastMonth.getDelta()).isEqualByComparingTo("60.00");
+        assertThat(lastMonth.getGrowthRate()).isEqualTo(0.25);
+        assertThat(lastMonth.getCategories()).extracting(AnalyticsComparisonResponse.CategoryTotal::getCategoryName)
+                .containsExactly("Food", "Transport");
+        assertThat(lastMonth.getCategories().get(1).getDelta()).isEqualByComparingTo("-40.00");
+
+        AnalyticsComparisonResponse.PeriodSummary lastYear = response.getPeriods().get(2);
+        assertThat(lastYear.getGrowthRate()).isEqualTo(5.0);
+    }
+
+    @Test
+    void getTimeSeries_shouldBucketByWeekAndFillGaps() {
+        // Given
+        LocalDate from = LocalDate.of(2025, 12, 3); // Wednesday
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        when(spendingRollupRepository.streamDailyTotals(currentUser.getId(), from, to, null)).thenReturn(Stream.of(
+                new DailyTotalRow(LocalDate.of(2025, 12, 3), 1000, 1),
+                new DailyTotalRow(LocalDate.of(2025, 12, 7), 2050, 2),
+                new DailyTotalRow(LocalDate.of(2025, 12, 22), 4000, 1)));
+
+        // When
+        TimeSeriesResponse response = analyticsService.getTimeSeries(from, to, TimeGranularity.WEEK, null, 2);
+
+        // Then
+        assertThat(response.getTotal()).isEqualByComparingTo("70.50");
+        assertThat(response.getPoints()).extracting(TimeSeriesResponse.Point::getPeriodStart).containsExactly(
+                LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 8), LocalDate.of(2025, 12, 15),
+                LocalDate.of(2025, 12, 22), LocalDate.of(2025, 12, 29));
+        assertThat(response.getPoints()).extracting(p -> p.getTotal().toPlainString())
+                .containsExactly("30.50", "0.00", "0.00", "40.00", "0.00");
+        assertThat(response.getPoints()).extracting(p -> p.getCumulative().toPlainString())
+                .containsExactly("30.50", "30.50", "30.50", "70.50", "70.50");
+        assertThat(response.getPoints()).extracting(p -> p.getMovingAverage().toPlainString())
+                .containsExactly("30.50", "15.25", "0.00", "20.00", "20.00");
+        assertThat(response.getPoints().get(0).getTransactionCount()).isEqualTo(3);
+        assertThat(response.getPoints().get(4).getPeriodEnd()).isEqualTo(LocalDate.of(2026, 1, 4));
+        assertThat(TimeGranularity.WEEK.bucketCount(from, to)).isEqualTo(response.getPoints().size());
+    }
+
     private CategorySpendingSummary createCategorySpendingSummary(Long id, String name, BigDecimal total) {
         return new CategorySpendingSummary() {
             @Override public Long getCategoryId() { return id; }
@@ -10,7 +10,6 @@ import com.spendify.backend.exception.AccountLockedException;
 import com.spendify.backend.exception.DuplicateEmailException;
 import com.spendify.backend.exception.InvalidCredentialsException;
 import com.spendify.backend.exception.ResourceNotFoundException;
-import com.spendify.backend.repository.RefreshTokenRepository;
 import com.spendify.backend.repository.UserRepository;
 import com.spendify.backend.security.JwtTokenProvider;
 import org.junit.jupiter.api.Test;
@@ -31,6 +30,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,13 +46,17 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
     @Mock
-    private RefreshTokenRepository refreshTokenRepository;
+    private RefreshTokenService refreshTokenService;
     @Mock
     private LoginAttemptService loginAttemptService;
+    @Mock
+    private LoginAuditService loginAuditService;
 
     @InjectMocks
     private AuthService authService;
 
+    private static final String IP_ADDRESS = "203.0.113.10";
+
     @Test
     void register_whenEmailIsNew_shouldCreateUserAndReturnTokens() {
         // Given
@@ -98,33 +103,33 @@ class AuthServiceTest {
         LoginRequest request = new LoginRequest("test@user.com", "password");
         User user = User.builder().id(1L).email(request.getEmail()).build();
 
-        when(loginAttemptService.isBlocked(request.getEmail())).thenReturn(false);
+        when(loginAttemptService.isBlocked(request.getEmail(), IP_ADDRESS)).thenReturn(false);
         when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
         when(jwtTokenProvider.generateToken(any(User.class))).thenReturn("jwt-token");
 
         // When
-        AuthenticationResponse response = authService.login(request);
+        AuthenticationResponse response = authService.login(request, IP_ADDRESS);
 
         // Then
         assertThat(response).isNotNull();
         assertThat(response.getToken()).isEqualTo("jwt-token");
         verify(authenticationManager).authenticate(any());
-        verify(loginAttemptService).loginSucceeded(request.getEmail());
+        verify(loginAuditService).record(request.getEmail(), user, IP_ADDRESS, true);
     }
 
     @Test
     void login_whenCredentialsAreInvalid_shouldThrowInvalidCredentialsException() {
         // Given
         LoginRequest request = new LoginRequest("test@user.com", "wrong-password");
-        when(loginAttemptService.isBlocked(request.getEmail())).thenReturn(false);
+        when(loginAttemptService.isBlocked(request.getEmail(), IP_ADDRESS)).thenReturn(false);
         doThrow(new BadCredentialsException("bad creds")).when(authenticationManager).authenticate(any());
 
         // When & Then
-        assertThatThrownBy(() -> authService.login(request))
+        assertThatThrownBy(() -> authService.login(request, IP_ADDRESS))
                 .isInstanceOf(InvalidCredentialsException.class)
                 .hasMessage("Invalid email or password");
 
-        verify(loginAttemptService).loginFailed(request.getEmail());
+        verify(loginAuditService).record(request.getEmail(), null, IP_ADDRESS, false);
         verify(userRepository, never()).findByEmail(any());
     }
 
@@ -132,14 +137,16 @@ class AuthServiceTest {
     void login_whenAccountIsLocked_shouldThrowAccountLockedException() {
         // Given
         LoginRequest request = new LoginRequest("locked@user.com", "password");
-        when(loginAttemptService.isBlocked(request.getEmail())).thenReturn(true);
+        when(loginAttemptService.isBlocked(request.getEmail(), IP_ADDRESS)).thenReturn(true);
 
         // When & Then
-        assertThatThrownBy(() -> authService.login(request))
+        assertThatThrownBy(() -> authService.login(request, IP_ADDRESS))
                 .isInstanceOf(AccountLockedException.class)
                 .hasMessage("Account is locked");
 
         verify(authenticationManager, never()).authenticate(any());
+        verify(loginAuditService).recordBlocked(request.getEmail(), IP_ADDRESS);
+        verify(loginAuditService, never()).record(any(), any(), any(), anyBoolean());
     }
 
     @Test
@@ -191,15 +198,10 @@ class AuthServiceTest {
         // Given
         String oldRefreshTokenString = "old-refresh-token";
         String newJwtToken = "new-jwt-token";
-        User user = User.builder().id(1L).email("user@example.com").build();
-        RefreshToken oldRefreshToken = RefreshToken.builder()
-                .token(oldRefreshTokenString)
-                .user(user)
-                .expiryDate(LocalDateTime.now().plusDays(1))
-                .build();
-        
-        when(refreshTokenRepository.findByToken(oldRefreshTokenString)).thenReturn(Optional.of(oldRefreshToken));
-        when(jwtTokenProvider.generateToken(user)).thenReturn(newJwtToken);
+        var cachedToken = new RefreshTokenService.CachedRefreshToken(1L, "user@example.com", LocalDateTime.now().plusDays(1));
+
+        when(refreshTokenService.lookup(oldRefreshTokenString)).thenReturn(Optional.of(cachedToken));
+        when(jwtTokenProvider.generateToken(1L, "user@example.com")).thenReturn(newJwtToken);
 
         // When
         AuthenticationResponse response = authService.refreshToken(new RefreshTokenRequest(oldRefreshTokenString));
@@ -214,7 +216,7 @@ class AuthServiceTest {
     void refreshToken_whenTokenNotFound_shouldThrowRuntimeException() {
         // Given
         String nonExistentToken = "non-existent-token";
-        when(refreshTokenRepository.findByToken(nonExistentToken)).thenReturn(Optional.empty());
+        when(refreshTokenService.lookup(nonExistentToken)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest(nonExistentToken)))
@@ -223,50 +225,49 @@ class AuthServiceTest {
     }
 
     @Test
-    void refreshToken_whenTokenExpired_shouldThrowRuntimeExceptionAndRemoveToken() {
+    void refreshToken_whenTokenExpired_shouldThrowRuntimeExceptionAndLeaveRemovalToPurge() {
         // Given
         String expiredTokenString = "expired-token";
-        User user = User.builder().id(1L).email("user@example.com").build();
-        RefreshToken expiredRefreshToken = RefreshToken.builder()
-                .token(expiredTokenString)
-                .user(user)
-                .expiryDate(LocalDateTime.now().minusDays(1)) // Expired
-                .build();
-        
-        when(refreshTokenRepository.findByToken(expiredTokenString)).thenReturn(Optional.of(expiredRefreshToken));
+        var expiredToken = new RefreshTokenService.CachedRefreshToken(1L, "user@example.com", LocalDateTime.now().minusDays(1));
+
+        when(refreshTokenService.lookup(expiredTokenString)).thenReturn(Optional.of(expiredToken));
 
         // When & Then
         assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest(expiredTokenString)))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Refresh token expired");
-        
-        verify(refreshTokenRepository).delete(expiredRefreshToken);
+
+        verify(refreshTokenService, never()).revoke(any());
+        verify(jwtTokenProvider, never()).generateToken(anyLong(), any());
     }
 
     @Test
-    void logout_whenTokenExists_shouldDeleteToken() {
+    void logout_shouldRevokeToken() {
         // Given
         String tokenToDelete = "token-to-delete";
-        RefreshToken existingToken = RefreshToken.builder().token(tokenToDelete).build();
-        when(refreshTokenRepository.findByToken(tokenToDelete)).thenReturn(Optional.of(existingToken));
 
         // When
         authService.logout(new RefreshTokenRequest(tokenToDelete));
 
         // Then
-        verify(refreshTokenRepository).delete(existingToken);
+        verify(refreshTokenService).revoke(tokenToDelete);
     }
 
     @Test
-    void logout_whenTokenNotFound_shouldDoNothing() {
+    void login_whenUserHasPreviousRefreshToken_shouldEvictItFromCache() {
         // Given
-        String nonExistentToken = "non-existent-token";
-        when(refreshTokenRepository.findByToken(nonExistentToken)).thenReturn(Optional.empty());
+        LoginRequest request = new LoginRequest("test@user.com", "password");
+        User user = User.builder().id(1L).email(request.getEmail()).build();
+        user.setRefreshToken(RefreshToken.builder().token("previous-token").user(user).build());
+
+        when(loginAttemptService.isBlocked(request.getEmail(), IP_ADDRESS)).thenReturn(false);
+        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
 
         // When
-        authService.logout(new RefreshTokenRequest(nonExistentToken));
+        AuthenticationResponse response = authService.login(request, IP_ADDRESS);
 
         // Then
-        verify(refreshTokenRepository, never()).delete(any());
+        verify(refreshTokenService).evict("previous-token");
+        assertThat(response.getRefreshToken()).isNotEqualTo("previous-token");
     }
 }
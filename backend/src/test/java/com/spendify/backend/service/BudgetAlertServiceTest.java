@@ -0,0 +1,101 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.CategoryMonthTotal;
+import com.spendify.backend.entity.Budget;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.NotificationLog;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.BudgetRepository;
+import com.spendify.backend.repository.NotificationLogRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
+import com.spendify.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetAlertServiceTest {
+
+    @Mock
+    private BudgetRepository budgetRepository;
+    @Mock
+    private SpendingRollupRepository spendingRollupRepository;
+    @Mock
+    private NotificationLogRepository notificationLogRepository;
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private BudgetAlertService budgetAlertService;
+
+    private Budget food;
+    private Budget transport;
+    private final SpendingChangedEvent event =
+            new SpendingChangedEvent(1L, LocalDate.of(2025, 12, 3), LocalDate.of(2025, 12, 5));
+
+    @BeforeEach
+    void setUp() {
+        food = Budget.builder().id(1L).category(Category.builder().id(10L).name("Food").build())
+                .yearMonth("2025-12").limit(new BigDecimal("500.00")).build();
+        transport = Budget.builder().id(2L).category(Category.builder().id(11L).name("Transport").build())
+                .yearMonth("2025-12").limit(new BigDecimal("100.00")).build();
+        when(budgetRepository.findForUpdate(1L, "2025-12", "2025-12")).thenReturn(List.of(food, transport));
+    }
+
+    @Test
+    void process_shouldNotifyEachThresholdCrossingOnceInOneBatch() {
+        // Given
+        when(userRepository.getReferenceById(1L)).thenReturn(User.builder().id(1L).build());
+        when(spendingRollupRepository.sumTotalsByCategoryAndMonth(eq(1L), any(), eq(LocalDate.of(2025, 12, 1)), eq(LocalDate.of(2025, 12, 31))))
+                .thenReturn(List.of(
+                        new CategoryMonthTotal(10L, 2025, 12, new BigDecimal("420.00")),
+                        new CategoryMonthTotal(11L, 2025, 12, new BigDecimal("130.00"))));
+
+        // When
+        budgetAlertService.process(event);
+        budgetAlertService.process(event);
+
+        // Then
+        ArgumentCaptor<List<NotificationLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationLogRepository, times(1)).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(NotificationLog::getType)
+                .containsExactly(BudgetAlertService.WARNING_TYPE, BudgetAlertService.CRITICAL_TYPE);
+        assertThat(captor.getValue().get(0).getMessage()).contains("80%", "Food", "420.00");
+        assertThat(food.getAlertedPercent()).isEqualTo(80);
+        assertThat(transport.getAlertedPercent()).isEqualTo(100);
+    }
+
+    @Test
+    void process_shouldRearmThresholdWhenSpendingFallsBack() {
+        // Given
+        food.setAlertedPercent(100);
+        transport.setAlertedPercent(80);
+        when(spendingRollupRepository.sumTotalsByCategoryAndMonth(eq(1L), any(), any(), any()))
+                .thenReturn(List.of(new CategoryMonthTotal(10L, 2025, 12, new BigDecimal("450.00"))));
+
+        // When
+        budgetAlertService.process(event);
+
+        // Then
+        verify(notificationLogRepository, never()).saveAll(anyList());
+        assertThat(food.getAlertedPercent()).isEqualTo(80);
+        assertThat(transport.getAlertedPercent()).isZero();
+    }
+}
@@ -1,31 +1,44 @@
 package com.spendify.backend.service;
 
+import com.spendify.backend.dto.BudgetOverviewResponse;
 import com.spendify.backend.dto.BudgetResponse;
+import com.spendify.backend.dto.CategoryMonthTotal;
 import com.spendify.backend.dto.CreateBudgetRequest;
 import com.spendify.backend.entity.Budget;
+import com.spendify.backend.entity.BudgetSnapshot;
 import com.spendify.backend.entity.Category;
 import com.spendify.backend.entity.User;
 import com.spendify.backend.exception.ResourceNotFoundException;
 import com.spendify.backend.repository.BudgetRepository;
+import com.spendify.backend.repository.BudgetSnapshotRepository;
 import com.spendify.backend.repository.CategoryRepository;
-import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
 import com.spendify.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +51,15 @@ class BudgetServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private TransactionRepository transactionRepository;
+    private SpendingRollupRepository spendingRollupRepository;
+    @Mock
+    private BudgetSnapshotRepository budgetSnapshotRepository;
+    @Mock
+    private SpendingForecastService spendingForecastService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private AnalyticsCache analyticsCache = new AnalyticsCache(new SimpleMeterRegistry(), 1000, 10);
     @Mock
     private SecurityContext securityContext;
     @Mock
@@ -82,7 +103,7 @@ class BudgetServiceTest {
         when(budgetRepository.findByUserIdAndYearMonthAndCategoryId(testUser.getId(), request.getYearMonth(), request.getCategoryId()))
                 .thenReturn(Optional.empty());
         when(budgetRepository.save(any(Budget.class))).thenReturn(savedBudget);
-        when(transactionRepository.sumAmountByUserIdAndCategoryIdAndTransactionDateBetween(any(), any(), any(), any()))
+        when(spendingRollupRepository.sumTotal(any(), any(), any(), any()))
                 .thenReturn(BigDecimal.ZERO); // No spending yet
 
         // When
@@ -154,7 +175,7 @@ class BudgetServiceTest {
         when(authentication.getName()).thenReturn(testUser.getEmail());
         when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
         when(budgetRepository.findByUserIdAndYearMonth(testUser.getId(), currentYearMonth)).thenReturn(Optional.of(existingBudget));
-        when(transactionRepository.sumAmountByUserIdAndCategoryIdAndTransactionDateBetween(any(), any(), any(), any()))
+        when(spendingRollupRepository.sumTotal(any(), any(), any(), any()))
                 .thenReturn(new BigDecimal("250.00")); // Assume some spending
 
         // When
@@ -191,8 +212,9 @@ class BudgetServiceTest {
         when(authentication.getName()).thenReturn(testUser.getEmail());
         when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
         when(budgetRepository.findAllByUserId(testUser.getId(), pageable)).thenReturn(budgetPage);
-        when(transactionRepository.sumAmountByUserIdAndCategoryIdAndTransactionDateBetween(any(), any(), any(), any()))
-                .thenReturn(BigDecimal.TEN); // Mock spending for mapping
+        when(spendingRollupRepository.sumTotalsByCategoryAndMonth(eq(testUser.getId()), eq(Set.of(testCategory.getId())),
+                eq(LocalDate.of(2025, 10, 1)), eq(LocalDate.of(2025, 11, 30))))
+                .thenReturn(List.of(new CategoryMonthTotal(testCategory.getId(), 2025, 11, BigDecimal.TEN)));
 
         // When
         org.springframework.data.domain.Page<BudgetResponse> responsePage = budgetService.getBudgetHistory(pageable);
@@ -202,6 +224,91 @@ class BudgetServiceTest {
         assertThat(responsePage.getTotalElements()).isEqualTo(2);
         assertThat(responsePage.getContent().get(0).getId()).isEqualTo(budget1.getId());
         assertThat(responsePage.getContent().get(0).getTotalSpent()).isEqualByComparingTo(BigDecimal.TEN);
+        assertThat(responsePage.getContent().get(1).getTotalSpent()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void getBudgetHistory_whenMonthsAreFrozen_shouldReadSnapshotsWithoutAggregating() {
+        // Given
+        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(0, 10);
+        Budget closed = Budget.builder().id(1L).user(testUser).category(testCategory).yearMonth("2025-10").limit(new BigDecimal("100")).build();
+        when(authentication.getName()).thenReturn(testUser.getEmail());
+        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(budgetRepository.findAllByUserId(testUser.getId(), pageable))
+                .thenReturn(new org.springframework.data.domain.PageImpl<>(List.of(closed), pageable, 1));
+        when(budgetSnapshotRepository.findByBudgetIdIn(List.of(1L))).thenReturn(List.of(BudgetSnapshot.builder()
+                .budgetId(1L).userId(1L).categoryId(10L).yearMonth("2025-10").limitAmount(new BigDecimal("100"))
+                .totalSpent(new BigDecimal("130.00")).percentageSpent(1.3).overspendAmount(new BigDecimal("30.00")).build()));
+
+        // When
+        org.springframework.data.domain.Page<BudgetResponse> responsePage = budgetService.getBudgetHistory(pageable);
+
+        // Then
+        BudgetResponse response = responsePage.getContent().get(0);
+        assertThat(response.getTotalSpent()).isEqualByComparingTo("130.00");
+        assertThat(response.getOverspendAmount()).isEqualByComparingTo("30.00");
+        assertThat(response.getCategoryName()).isEqualTo("Food");
+        verifyNoInteractions(spendingRollupRepository);
+    }
+
+    @Test
+    void getBudgetHistory_shouldIssueOneSpendingQueryRegardlessOfPageSize() {
+        // Given
+        when(authentication.getName()).thenReturn(testUser.getEmail());
+        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(spendingRollupRepository.sumTotalsByCategoryAndMonth(any(), any(), any(), any())).thenReturn(List.of());
+
+        for (int pageSize : new int[] {1, 20, 100}) {
+            org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(0, pageSize);
+            List<Budget> budgets = new ArrayList<>();
+            for (int i = 0; i < pageSize; i++) {
+                Category category = Category.builder().id((long) i % 7).name("Category " + i % 7).build();
+                budgets.add(Budget.builder().id((long) i).user(testUser).category(category)
+                        .yearMonth(YearMonth.of(2025, 1).plusMonths(i % 12).toString()).limit(new BigDecimal("100")).build());
+            }
+            when(budgetRepository.findAllByUserId(testUser.getId(), pageable))
+                    .thenReturn(new org.springframework.data.domain.PageImpl<>(budgets, pageable, pageSize));
+            clearInvocations(spendingRollupRepository);
+
+            // When
+            org.springframework.data.domain.Page<BudgetResponse> responsePage = budgetService.getBudgetHistory(pageable);
+
+            // Then
+            assertThat(responsePage.getContent()).hasSize(pageSize);
+            verify(spendingRollupRepository, times(1)).sumTotalsByCategoryAndMonth(any(), any(), any(), any());
+            verify(spendingRollupRepository, never()).sumTotal(any(), any(), any(), any());
+        }
+    }
+
+    @Test
+    void getCurrentMonthOverview_shouldBuildFromTwoQueriesAndServeRepeatsFromCache() {
+        // Given
+        YearMonth month = YearMonth.now();
+        Category transport = Category.builder().id(11L).name("Transport").build();
+        Budget foodBudget = Budget.builder().id(1L).user(testUser).category(testCategory).yearMonth(month.toString()).limit(new BigDecimal("500.00")).build();
+        Budget transportBudget = Budget.builder().id(2L).user(testUser).category(transport).yearMonth(month.toString()).limit(new BigDecimal("100.00")).build();
+
+        when(authentication.getName()).thenReturn(testUser.getEmail());
+        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(budgetRepository.findAllByUserIdAndYearMonth(testUser.getId(), month.toString()))
+                .thenReturn(List.of(transportBudget, foodBudget));
+        when(spendingRollupRepository.sumTotalsByCategoryAndMonth(testUser.getId(), Set.of(10L, 11L), month.atDay(1), month.atEndOfMonth()))
+                .thenReturn(List.of(new CategoryMonthTotal(10L, month.getYear(), month.getMonthValue(), new BigDecimal("300.00"))));
+
+        // When
+        BudgetOverviewResponse first = budgetService.getCurrentMonthOverview();
+        BudgetOverviewResponse second = budgetService.getCurrentMonthOverview();
+
+        // Then
+        assertThat(first.getYearMonth()).isEqualTo(month.toString());
+        assertThat(first.getTotalLimit()).isEqualByComparingTo("600.00");
+        assertThat(first.getTotalSpent()).isEqualByComparingTo("300.00");
+        assertThat(first.getPercentageSpent()).isEqualTo(0.5);
+        assertThat(first.getBudgets()).extracting(BudgetResponse::getCategoryName).containsExactly("Food", "Transport");
+        assertThat(first.getBudgets().get(1).getTotalSpent()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(second).isEqualTo(first);
+        verify(budgetRepository, times(1)).findAllByUserIdAndYearMonth(any(), any());
+        verify(spendingRollupRepository, times(1)).sumTotalsByCategoryAndMonth(any(), any(), any(), any());
     }
 
     @Test
@@ -0,0 +1,156 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.CategoryMonthTotal;
+import com.spendify.backend.entity.Budget;
+import com.spendify.backend.entity.BudgetSnapshot;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.JobCheckpoint;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.BudgetRepository;
+import com.spendify.backend.repository.BudgetSnapshotRepository;
+import com.spendify.backend.repository.JobCheckpointRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetSnapshotServiceTest {
+
+    @Mock
+    private BudgetRepository budgetRepository;
+    @Mock
+    private BudgetSnapshotRepository budgetSnapshotRepository;
+    @Mock
+    private SpendingRollupRepository spendingRollupRepository;
+    @Mock
+    private JobCheckpointRepository jobCheckpointRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BudgetSnapshotService snapshotService;
+    private final List<Long> checkpoints = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Chunks of two users, two workers, run on the calling thread.
+        snapshotService = new BudgetSnapshotService(budgetRepository, budgetSnapshotRepository, spendingRollupRepository,
+                jobCheckpointRepository, Runnable::run, transactionManager, 2, 2);
+    }
+
+    @Test
+    void run_shouldFreezeClosedMonthsChunkByChunkAndCheckpointEachChunk() {
+        // Given
+        recordCheckpoints();
+        when(jobCheckpointRepository.findById(BudgetSnapshotService.JOB_NAME)).thenReturn(Optional.empty());
+        when(budgetRepository.findUserIdsPendingSnapshot("2025-12", 0L, PageRequest.of(0, 4))).thenReturn(List.of(1L, 2L, 3L));
+        when(budgetRepository.findUserIdsPendingSnapshot("2025-12", 3L, PageRequest.of(0, 4))).thenReturn(List.of());
+        when(budgetRepository.findPendingSnapshot(List.of(1L, 2L), "2025-12")).thenReturn(List.of(
+                budget(10L, 1L, "2025-10", "100.00"), budget(11L, 1L, "2025-11", "100.00"), budget(20L, 2L, "2025-11", "50.00")));
+        when(budgetRepository.findPendingSnapshot(List.of(3L), "2025-12")).thenReturn(List.of());
+        when(spendingRollupRepository.sumTotalsByCategoryAndMonth(eq(1L), any(), eq(LocalDate.of(2025, 10, 1)), eq(LocalDate.of(2025, 11, 30))))
+                .thenReturn(List.of(new CategoryMonthTotal(5L, 2025, 10, new BigDecimal("130.00"))));
+        when(spendingRollupRepository.sumTotalsByCategoryAndMonth(eq(2L), any(), any(), any())).thenReturn(List.of());
+
+        // When
+        int written = snapshotService.run(YearMonth.of(2025, 12));
+
+        // Then: each user's budgets are locked before their totals are read
+        assertThat(written).isEqualTo(3);
+        assertThat(checkpoints).containsExactly(2L, 3L, 0L);
+        InOrder order = inOrder(budgetRepository, spendingRollupRepository);
+        order.verify(budgetRepository).findForUpdate(1L, "2025-10", "2025-11");
+        order.verify(spendingRollupRepository).sumTotalsByCategoryAndMonth(eq(1L), any(), any(), any());
+        verify(budgetRepository).findForUpdate(2L, "2025-11", "2025-11");
+        ArgumentCaptor<List<BudgetSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(budgetSnapshotRepository, times(2)).saveAll(captor.capture());
+        BudgetSnapshot october = captor.getAllValues().get(0).get(0);
+        assertThat(october.getBudgetId()).isEqualTo(10L);
+        assertThat(october.getTotalSpent()).isEqualByComparingTo("130.00");
+        assertThat(october.getPercentageSpent()).isEqualTo(1.3);
+        assertThat(october.getOverspendAmount()).isEqualByComparingTo("30.00");
+        assertThat(captor.getAllValues().get(0).get(1).getTotalSpent()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void run_whenChunkFails_shouldKeepCheckpointAtLastContiguousChunk() {
+        // Given: a run for December was interrupted after user 1
+        recordCheckpoints();
+        when(jobCheckpointRepository.findById(BudgetSnapshotService.JOB_NAME)).thenReturn(Optional.of(
+                JobCheckpoint.builder().jobName(BudgetSnapshotService.JOB_NAME).runKey("2025-12").lastId(1L).build()));
+        when(budgetRepository.findUserIdsPendingSnapshot("2025-12", 1L, PageRequest.of(0, 4))).thenReturn(List.of(2L, 3L, 4L, 5L));
+        when(budgetRepository.findPendingSnapshot(List.of(2L, 3L), "2025-12")).thenReturn(List.of());
+        when(budgetRepository.findPendingSnapshot(List.of(4L, 5L), "2025-12")).thenThrow(new IllegalStateException("db down"));
+
+        // When
+        snapshotService.run(YearMonth.of(2025, 12));
+
+        // Then
+        assertThat(checkpoints).containsExactly(3L);
+        verify(budgetRepository, never()).findUserIdsPendingSnapshot(anyString(), eq(5L), any());
+    }
+
+    @Test
+    void onSpendingChanged_shouldUnfreezeOnlyClosedMonths() {
+        // When
+        snapshotService.onSpendingChanged(new SpendingChangedEvent(1L, LocalDate.of(2025, 1, 3), LocalDate.now()));
+        snapshotService.onSpendingChanged(new SpendingChangedEvent(1L, LocalDate.now(), LocalDate.now()));
+
+        // Then
+        InOrder order = inOrder(budgetRepository, budgetSnapshotRepository);
+        order.verify(budgetRepository).findForUpdate(1L, "2025-01", YearMonth.now().minusMonths(1).toString());
+        order.verify(budgetSnapshotRepository).deleteForMonths(1L, "2025-01", YearMonth.now().minusMonths(1).toString());
+        verify(budgetSnapshotRepository, times(1)).deleteForMonths(any(), anyString(), anyString());
+        verify(budgetRepository, times(1)).findForUpdate(any(), anyString(), anyString());
+    }
+
+    @Test
+    void onSpendingChanged_whenAnyDateMayHaveChanged_shouldLockAndUnfreezeEveryClosedMonth() {
+        // When
+        snapshotService.onSpendingChanged(SpendingChangedEvent.allDates(1L));
+
+        // Then
+        verify(budgetRepository).findForUpdate(1L, "0000-01", YearMonth.now().minusMonths(1).toString());
+        verify(budgetSnapshotRepository).deleteForMonths(1L, "0000-01", YearMonth.now().minusMonths(1).toString());
+    }
+
+    private void recordCheckpoints() {
+        when(jobCheckpointRepository.save(any())).thenAnswer(inv -> {
+            checkpoints.add(inv.<JobCheckpoint>getArgument(0).getLastId());
+            return inv.getArgument(0);
+        });
+    }
+
+    private static Budget budget(Long id, Long userId, String yearMonth, String limit) {
+        return Budget.builder()
+                .id(id)
+                .user(User.builder().id(userId).build())
+                .category(Category.builder().id(5L).name("Food").build())
+                .yearMonth(yearMonth)
+                .limit(new BigDecimal(limit))
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.spendify.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryClassifierTest {
+
+    private static final long FOOD = 1L;
+    private static final long TRANSPORT = 2L;
+    private static final long SHOPPING = 3L;
+
+    private CategoryClassifier classifier;
+    private CategoryClassifier.Scratch scratch;
+
+    @BeforeEach
+    void setUp() {
+        classifier = new CategoryClassifier(12);
+        scratch = new CategoryClassifier.Scratch();
+        for (String merchant : new String[]{"Starbucks Central", "STARBUCKS IFC", "McDonald's Mong Kok", "Cafe de Coral", "Pret A Manger"}) {
+            classifier.train(FOOD, merchant, "lunch", 1, scratch);
+        }
+        for (String merchant : new String[]{"MTR Central", "MTR Admiralty", "Citybus", "Uber Trip", "KMB Bus"}) {
+            classifier.train(TRANSPORT, merchant, "commute", 1, scratch);
+        }
+        for (String merchant : new String[]{"Uniqlo", "IKEA Kowloon Bay", "Muji Causeway Bay", "H&M"}) {
+            classifier.train(SHOPPING, merchant, null, 1, scratch);
+        }
+    }
+
+    @Test
+    void predict_shouldMatchNoisyMerchantNames() {
+        // When
+        long coffee = classifier.predict("starbucks  coffee #1123", null, null, scratch);
+        double coffeeConfidence = scratch.confidence();
+        long train = classifier.predict("M.T.R. Tsuen Wan", null, null, scratch);
+
+        // Then
+        assertThat(coffee).isEqualTo(FOOD);
+        assertThat(coffeeConfidence).isGreaterThan(0.6);
+        assertThat(train).isEqualTo(TRANSPORT);
+        assertThat(classifier.documents()).isEqualTo(14);
+    }
+
+    @Test
+    void train_withNegativeWeight_shouldMoveRecategorizedSample() {
+        // Given: the user moves Uber from transport to food (delivery)
+        for (int i = 0; i < 6; i++) {
+            classifier.train(TRANSPORT, "Uber Eats", null, -1, scratch);
+            classifier.train(FOOD, "Uber Eats", null, 1, scratch);
+        }
+
+        // When
+        long predicted = classifier.predict("UBER EATS", null, null, scratch);
+
+        // Then
+        assertThat(predicted).isEqualTo(FOOD);
+    }
+
+    @Test
+    void train_shouldKeepCountsExactPastMillionsOfSamples() {
+        // Given: one classifier that saw a merchant millions of times and then lost all but one
+        CategoryClassifier heavy = new CategoryClassifier(12);
+        CategoryClassifier light = new CategoryClassifier(12);
+        heavy.train(FOOD, "Wellcome Supermarket", null, 3_000_000, scratch);
+        heavy.train(FOOD, "Wellcome Supermarket", null, -2_999_999, scratch);
+        light.train(FOOD, "Wellcome Supermarket", null, 1, scratch);
+        for (CategoryClassifier c : new CategoryClassifier[]{heavy, light}) {
+            c.train(SHOPPING, "Wellcome Plaza", null, 1, scratch);
+        }
+
+        // When
+        heavy.predict("Wellcome", null, null, scratch);
+        double heavyConfidence = scratch.confidence();
+        light.predict("Wellcome", null, null, scratch);
+
+        // Then both hold the same counts
+        assertThat(heavyConfidence).isEqualTo(scratch.confidence());
+    }
+
+    @Test
+    void predict_withoutFeaturesOrTraining_shouldReturnNone() {
+        assertThat(classifier.predict("  --  ", null, null, scratch)).isEqualTo(CategoryClassifier.NONE);
+        assertThat(new CategoryClassifier(8).predict("Starbucks", null, null, scratch)).isEqualTo(CategoryClassifier.NONE);
+        assertThat(scratch.confidence()).isZero();
+    }
+
+    @Test
+    void predict_shouldNotAllocate() {
+        // Given
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        String merchant = "Starbucks Coffee Central";
+        String text = "STARBUCKS COFFEE\nShop 12, IFC Mall\nCaffe Latte 38.00\nTOTAL 38.00";
+        long sink = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sink += classifier.predict(merchant, "lunch", text, scratch);
+        }
+
+        // When
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; i++) {
+            sink += classifier.predict(merchant, "lunch", text, scratch);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Then: a few bytes of measurement noise at most, nothing per call
+        assertThat(sink).isPositive();
+        assertThat(allocated).isLessThan(1_000);
+    }
+}
@@ -0,0 +1,169 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.CategoryReassignment;
+import com.spendify.backend.entity.Transaction;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.BudgetRepository;
+import com.spendify.backend.repository.BudgetSnapshotRepository;
+import com.spendify.backend.repository.CategoryReassignmentRepository;
+import com.spendify.backend.repository.CategoryRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryReassignmentServiceTest {
+
+    @Mock
+    private CategoryReassignmentRepository reassignmentRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private SpendingRollupService spendingRollupService;
+    @Mock
+    private SpendingAnomalyService spendingAnomalyService;
+    @Mock
+    private BudgetRepository budgetRepository;
+    @Mock
+    private BudgetSnapshotRepository budgetSnapshotRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CategoryReassignmentService service;
+
+    private final User user = User.builder().id(1L).build();
+    private final Category deleting = Category.builder().id(101L).name("Snacks").user(user)
+            .deletionRequestedAt(LocalDateTime.now()).build();
+    private final Category target = Category.builder().id(102L).name("Food").user(user).build();
+    private CategoryReassignment job;
+
+    @BeforeEach
+    void setUp() {
+        service = new CategoryReassignmentService(reassignmentRepository, categoryRepository, transactionRepository,
+                spendingRollupService, spendingAnomalyService, budgetRepository, budgetSnapshotRepository, eventPublisher, transactionManager, new SyncTaskExecutor(), 2);
+        job = CategoryReassignment.builder().id(7L).userId(1L).categoryId(101L).targetCategoryId(102L)
+                .status(CategoryReassignmentService.RUNNING).total(3).createdAt(LocalDateTime.now()).build();
+    }
+
+    @Test
+    void run_shouldMoveInChunksThenDeleteCategory() {
+        // Given three transactions, one of them soft-deleted, in chunks of two
+        Transaction first = transaction(5L, "12.00");
+        Transaction second = transaction(9L, "8.00");
+        when(reassignmentRepository.findForUpdate(7L)).thenReturn(Optional.of(job));
+        when(transactionRepository.findIdsInCategoryAfter(1L, 101L, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(5L, 9L), List.of());
+        when(transactionRepository.findIdsInCategoryAfter(1L, 101L, 9L, PageRequest.of(0, 2))).thenReturn(List.of(12L));
+        when(transactionRepository.findIdsInCategoryAfter(1L, 101L, 12L, PageRequest.of(0, 2))).thenReturn(List.of());
+        when(transactionRepository.findAllById(List.of(5L, 9L))).thenReturn(List.of(first, second));
+        when(transactionRepository.findAllById(List.of(12L))).thenReturn(List.of());
+        when(categoryRepository.getReferenceById(102L)).thenReturn(target);
+
+        // When
+        service.onStarted(new CategoryReassignmentStartedEvent(7L));
+
+        // Then
+        assertThat(first.getCategory()).isSameAs(target);
+        verify(transactionRepository).moveToCategory(List.of(5L, 9L), 101L, 102L);
+        verify(transactionRepository).moveToCategory(List.of(12L), 101L, 102L);
+        ArgumentCaptor<SpendingRollupService.Changes> changes = ArgumentCaptor.forClass(SpendingRollupService.Changes.class);
+        verify(spendingRollupService, times(2)).apply(changes.capture());
+        assertThat(changes.getAllValues().get(0).dayDeltas())
+                .extracting(SpendingRollupService.DayDelta::categoryId, SpendingRollupService.DayDelta::count)
+                .containsExactlyInAnyOrder(
+                        tuple(101L, -2L),
+                        tuple(102L, 2L));
+        verify(spendingAnomalyService, times(2)).reset(1L, List.of(101L, 102L));
+        verify(categoryRepository).deleteById(101L);
+        assertThat(job.getStatus()).isEqualTo(CategoryReassignmentService.COMPLETED);
+        assertThat(job.getMoved()).isEqualTo(3);
+        assertThat(job.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void run_whenChunkFails_shouldMarkFailedAndShowCategoryAgain() {
+        // Given
+        when(reassignmentRepository.findForUpdate(7L)).thenThrow(new IllegalStateException("lock timeout"));
+        when(reassignmentRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(categoryRepository.findById(101L)).thenReturn(Optional.of(deleting));
+
+        // When
+        service.run(7L);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(CategoryReassignmentService.FAILED);
+        assertThat(job.getError()).isEqualTo("lock timeout");
+        assertThat(deleting.getDeletionRequestedAt()).isNull();
+        verify(categoryRepository, never()).deleteById(any());
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(1L));
+    }
+
+    @Test
+    void moveChunk_whenCategoryHasBudgets_shouldRemoveThemBeforeTheCategory() {
+        // Given: nothing left to move in a category that still carries budgets
+        when(reassignmentRepository.findForUpdate(7L)).thenReturn(Optional.of(job));
+        when(transactionRepository.findIdsInCategoryAfter(1L, 101L, 0L, PageRequest.of(0, 2))).thenReturn(List.of());
+        when(budgetRepository.deleteByCategoryId(101L)).thenReturn(2);
+
+        // When
+        boolean more = service.moveChunk(7L);
+
+        // Then
+        assertThat(more).isFalse();
+        InOrder order = inOrder(budgetSnapshotRepository, budgetRepository, categoryRepository);
+        order.verify(budgetSnapshotRepository).deleteByCategoryId(101L);
+        order.verify(budgetRepository).deleteByCategoryId(101L);
+        order.verify(categoryRepository).deleteById(101L);
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(1L));
+        assertThat(job.getStatus()).isEqualTo(CategoryReassignmentService.COMPLETED);
+    }
+
+    @Test
+    void moveChunk_whenJobAlreadyFinished_shouldDoNothing() {
+        // Given
+        job.setStatus(CategoryReassignmentService.COMPLETED);
+        when(reassignmentRepository.findForUpdate(7L)).thenReturn(Optional.of(job));
+
+        // When
+        boolean more = service.moveChunk(7L);
+
+        // Then
+        assertThat(more).isFalse();
+        verify(transactionRepository, never()).findIdsInCategoryAfter(any(), any(), anyLong(), any());
+    }
+
+    private Transaction transaction(Long id, String amount) {
+        return Transaction.builder().id(id).user(user).category(deleting).amount(new BigDecimal(amount))
+                .transactionDate(LocalDate.of(2025, 3, 1)).merchant("Shop").build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryRegistryTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private CategoryRegistry registry;
+
+    private final User currentUser = User.builder().id(1L).email("current@user.com").password("secret").build();
+    private final Category other = Category.builder().id(6L).name("Other").isSystem(true).displayOrder(6).build();
+    private final Category food = Category.builder().id(1L).name("Food & Dining").isSystem(true).displayOrder(1).build();
+    private final Category groceries = Category.builder().id(20L).name("Groceries").user(currentUser).build();
+    private final Category gifts = Category.builder().id(12L).name("Gifts").user(currentUser).build();
+
+    @BeforeEach
+    void setUp() {
+        registry = new CategoryRegistry(categoryRepository, 100, 30);
+        when(categoryRepository.findByIsSystem(true)).thenReturn(List.of(other, food));
+    }
+
+    @Test
+    void find_shouldServeSystemAndOwnCategoriesFromMemory() {
+        // Given
+        when(categoryRepository.findByUserIdAndDeletionRequestedAtIsNull(1L)).thenReturn(List.of(groceries, gifts));
+
+        // When
+        List<Category> listed = registry.listForUser(1L);
+
+        // Then
+        assertThat(listed).extracting(Category::getName).containsExactly("Food & Dining", "Other", "Gifts", "Groceries");
+        assertThat(registry.find(1L, 1L)).get().extracting(Category::getName).isEqualTo("Food & Dining");
+        assertThat(registry.find(1L, 20L)).get().satisfies(category -> {
+            assertThat(category.getUser().getId()).isEqualTo(1L);
+            // Cached copies do not hold on to the owner's other fields.
+            assertThat(category.getUser().getPassword()).isNull();
+        });
+        assertThat(registry.find(1L, 99L)).isEmpty();
+        verify(categoryRepository, times(1)).findByIsSystem(true);
+        // Only the unknown id went back to the database.
+        verify(categoryRepository, times(2)).findByUserIdAndDeletionRequestedAtIsNull(1L);
+    }
+
+    @Test
+    void find_whenCategoryWasCreatedOnAnotherNode_shouldReloadBeforeRejecting() {
+        // Given a cached set that predates the new category, with no event on this node
+        Category travel = Category.builder().id(21L).name("Travel").user(currentUser).build();
+        when(categoryRepository.findByUserIdAndDeletionRequestedAtIsNull(1L)).thenReturn(List.of(groceries), List.of(groceries, travel));
+        registry.listForUser(1L);
+
+        // When
+        var found = registry.find(1L, 21L);
+
+        // Then the reloaded set is cached for the next lookup
+        assertThat(found).isPresent();
+        assertThat(registry.listForUser(1L)).extracting(Category::getName).contains("Travel");
+        verify(categoryRepository, times(2)).findByUserIdAndDeletionRequestedAtIsNull(1L);
+    }
+
+    @Test
+    void find_shouldNotExposeAnotherUsersCategories() {
+        // Given
+        when(categoryRepository.findByUserIdAndDeletionRequestedAtIsNull(2L)).thenReturn(List.of());
+
+        // When / Then
+        assertThat(registry.find(2L, groceries.getId())).isEmpty();
+        assertThat(registry.find(2L, other.getId())).isPresent();
+    }
+
+    @Test
+    void onCategoryChanged_shouldReloadOnlyThatUser() {
+        // Given
+        Category travel = Category.builder().id(21L).name("Travel").user(currentUser).build();
+        when(categoryRepository.findByUserIdAndDeletionRequestedAtIsNull(1L)).thenReturn(List.of(groceries), List.of(groceries, travel));
+        assertThat(registry.find(1L, 21L)).isEmpty();
+
+        // When
+        registry.onCategoryChanged(new CategoryChangedEvent(1L));
+
+        // Then
+        assertThat(registry.find(1L, 21L)).isPresent();
+        assertThat(registry.listForUser(1L)).hasSize(4);
+        verify(categoryRepository, times(2)).findByUserIdAndDeletionRequestedAtIsNull(1L);
+        verify(categoryRepository, times(1)).findByIsSystem(true);
+    }
+}
@@ -1,5 +1,7 @@
 package com.spendify.backend.service;
 
+import com.spendify.backend.dto.CategoryCount;
+import com.spendify.backend.dto.CategoryReassignmentStatus;
 import com.spendify.backend.dto.CategoryResponse;
 import com.spendify.backend.dto.CreateCategoryRequest;
 import com.spendify.backend.dto.UpdateCategoryRequest;
@@ -7,7 +9,7 @@ import com.spendify.backend.entity.Category;
 import com.spendify.backend.entity.User;
 import com.spendify.backend.exception.ResourceNotFoundException;
 import com.spendify.backend.repository.CategoryRepository;
-import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
 import com.spendify.backend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,10 +17,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,11 +37,20 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryRegistry categoryRegistry;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private CategoryReassignmentService categoryReassignmentService;
+
+    @Mock
+    private SpendingRollupRepository spendingRollupRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private SecurityContext securityContext;
@@ -83,7 +96,6 @@ class CategoryServiceTest {
                 .isSystem(false)
                 .build();
         when(categoryRepository.save(any(Category.class))).thenReturn(savedCategory);
-        when(transactionRepository.countByCategoryId(savedCategory.getId())).thenReturn(0L);
 
 
         // When: The createCategory method is called
@@ -108,7 +120,7 @@ class CategoryServiceTest {
     void createCategory_whenNameAlreadyExists_shouldThrowException() {
         // Given: A request with a name that already exists for the user
         CreateCategoryRequest request = new CreateCategoryRequest("Existing Category", "#123456", "🤔");
-        Category existingCategory = new Category(200L, testUser, "Existing Category", "#123456", "🤔", false, 1);
+        Category existingCategory = new Category(200L, testUser, "Existing Category", "#123456", "🤔", false, 1, null);
 
         when(authentication.getName()).thenReturn(testUser.getEmail());
         when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
@@ -134,8 +146,8 @@ class CategoryServiceTest {
         Category userCategory = Category.builder().id(101L).name("Personal").user(testUser).isSystem(false).build();
         Category systemCategory = Category.builder().id(201L).name("Food").user(null).isSystem(true).build();
 
-        when(categoryRepository.findByUserIdOrIsSystem(1L, true)).thenReturn(List.of(userCategory, systemCategory));
-        when(transactionRepository.countByCategoryId(anyLong())).thenReturn(0L); // Assume 0 for simplicity
+        when(categoryRegistry.listForUser(1L)).thenReturn(List.of(userCategory, systemCategory));
+        when(spendingRollupRepository.countByCategory(1L)).thenReturn(List.of(new CategoryCount(201L, 7L)));
 
         // When
         List<CategoryResponse> categories = categoryService.getAllCategories();
@@ -143,6 +155,7 @@ class CategoryServiceTest {
         // Then
         assertThat(categories).hasSize(2);
         assertThat(categories).extracting(CategoryResponse::getName).contains("Personal", "Food");
+        assertThat(categories).extracting(CategoryResponse::getTransactionCount).containsExactly(0L, 7L);
     }
 
     @Test
@@ -159,7 +172,7 @@ class CategoryServiceTest {
 
         when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(existingCategory));
         when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(transactionRepository.countByCategoryId(categoryId)).thenReturn(5L);
+        when(spendingRollupRepository.countTransactions(1L, categoryId)).thenReturn(5L);
 
         // When
         CategoryResponse response = categoryService.updateCategory(categoryId, request);
@@ -168,6 +181,9 @@ class CategoryServiceTest {
         assertThat(response.getName()).isEqualTo("New Name");
         assertThat(response.getTransactionCount()).isEqualTo(5L);
         verify(categoryRepository).save(argThat(cat -> cat.getName().equals("New Name")));
+        // A rename changes no spending, so closed months keep their snapshots.
+        verify(eventPublisher, never()).publishEvent(any(SpendingChangedEvent.class));
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(testUser.getId()));
     }
 
     @Test
@@ -227,7 +243,7 @@ class CategoryServiceTest {
     }
 
     @Test
-    void deleteCategory_withReassignId_shouldReassignTransactionsAndDelete() {
+    void deleteCategory_withReassignId_shouldStartBackgroundReassignment() {
         // Given
         User currentUser = new User();
         currentUser.setId(1L);
@@ -241,12 +257,31 @@ class CategoryServiceTest {
 
         when(categoryRepository.findById(categoryToDeleteId)).thenReturn(Optional.of(categoryToDelete));
         when(categoryRepository.findById(reassignCategoryId)).thenReturn(Optional.of(reassignCategory));
+        CategoryReassignmentStatus started = CategoryReassignmentStatus.builder().jobId(7L).status("RUNNING").total(1200).build();
+        when(categoryReassignmentService.start(currentUser.getId(), categoryToDelete, reassignCategory)).thenReturn(started);
 
         // When
-        categoryService.deleteCategory(categoryToDeleteId, reassignCategoryId);
+        CategoryReassignmentStatus status = categoryService.deleteCategory(categoryToDeleteId, reassignCategoryId);
 
-        // Then
-        verify(transactionRepository).reassignCategory(currentUser.getId(), categoryToDeleteId, reassignCategoryId);
-        verify(categoryRepository).delete(categoryToDelete);
+        // Then: the row stays until the job has moved every transaction
+        assertThat(status).isSameAs(started);
+        verify(categoryRepository, never()).delete(any(Category.class));
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(currentUser.getId()));
+    }
+
+    @Test
+    void updateCategory_whenDeletionInProgress_shouldThrowResourceNotFoundException() {
+        // Given
+        User currentUser = new User();
+        currentUser.setId(1L);
+        when(authentication.getName()).thenReturn("test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(currentUser));
+        Category deleting = Category.builder().id(101L).name("Going").user(currentUser)
+                .deletionRequestedAt(LocalDateTime.now()).build();
+        when(categoryRepository.findById(101L)).thenReturn(Optional.of(deleting));
+
+        // When & Then
+        assertThatThrownBy(() -> categoryService.updateCategory(101L, new UpdateCategoryRequest()))
+                .isInstanceOf(ResourceNotFoundException.class);
     }
-}
\ No newline at end of file
+}
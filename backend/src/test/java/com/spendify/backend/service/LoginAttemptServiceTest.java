@@ -2,6 +2,13 @@ package com.spendify.backend.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class   LoginAttemptServiceTest {
@@ -107,4 +114,121 @@ class   LoginAttemptServiceTest {
         // Then the other user should not be blocked
         assertThat(isOtherBlocked).isFalse();
     }
+
+    @Test
+    void loginFailed_whenCalledConcurrently_shouldNotLoseCounts() throws Exception {
+        // Given many threads failing for the same key at once
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                loginAttemptService.loginFailed(TEST_KEY);
+                return null;
+            });
+        }
+
+        // When they all run
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then every failure is counted
+        assertThat(loginAttemptService.isBlocked(TEST_KEY)).isTrue();
+    }
+
+    @Test
+    void isBlocked_whenWindowHasPassed_shouldUnblock() {
+        // Given a blocked user on a controllable clock
+        AtomicLong now = new AtomicLong(1_000_000L);
+        loginAttemptService = new LoginAttemptService(null, LoginAttemptService.DEFAULT_SHARD_CAPACITY, now::get);
+        for (int i = 0; i < LoginAttemptService.MAX_ATTEMPT; i++) {
+            loginAttemptService.loginFailed(TEST_KEY);
+        }
+        assertThat(loginAttemptService.isBlocked(TEST_KEY)).isTrue();
+
+        // When the sliding window moves past the failures
+        now.addAndGet(LoginAttemptService.WINDOW.toMillis() + 1);
+
+        // Then the user is no longer blocked
+        assertThat(loginAttemptService.isBlocked(TEST_KEY)).isFalse();
+    }
+
+    @Test
+    void loginFailed_whenShardsAreFull_shouldPromoteRepeatedFailuresAndBlock() {
+        // Given a service whose exact counters are already full of other keys
+        loginAttemptService = new LoginAttemptService(null, 1, System::currentTimeMillis);
+        for (int i = 0; i < 1_000; i++) {
+            loginAttemptService.loginFailed("flood-" + i + "@attacker.com");
+        }
+
+        // When a further key keeps failing until the sketch promotes it
+        for (int i = 1; i < LoginAttemptService.PROMOTE_AT; i++) {
+            loginAttemptService.loginFailed(TEST_KEY);
+        }
+        for (int i = 0; i < LoginAttemptService.MAX_ATTEMPT; i++) {
+            assertThat(loginAttemptService.isBlocked(TEST_KEY)).isFalse();
+            loginAttemptService.loginFailed(TEST_KEY);
+        }
+
+        // Then it is blocked, and an untouched key is not
+        assertThat(loginAttemptService.isBlocked(TEST_KEY)).isTrue();
+        assertThat(loginAttemptService.isBlocked(OTHER_KEY)).isFalse();
+    }
+
+    @Test
+    void isBlocked_whenFloodInflatesSketch_shouldNotBlockInnocentKeys() {
+        // Given a flood of random emails far larger than the exact counters and the sketch width
+        AtomicLong now = new AtomicLong(1_000_000L);
+        loginAttemptService = new LoginAttemptService(null, 1, now::get);
+        for (int i = 0; i < 200_000; i++) {
+            loginAttemptService.loginFailed("flood-" + i + "@attacker.com");
+        }
+
+        // When innocent users each mistype their password once
+        int blocked = 0;
+        for (int i = 0; i < 100; i++) {
+            String key = "user" + i + "@user.com";
+            loginAttemptService.loginFailed(key);
+            if (loginAttemptService.isBlocked(key)) {
+                blocked++;
+            }
+        }
+
+        // Then none of them is locked out by colliding sketch cells
+        assertThat(blocked).isZero();
+    }
+
+    @Test
+    void loginSucceeded_whenKeyWasPromoted_shouldUnblock() {
+        // Given a key blocked through a counter it was promoted into
+        loginAttemptService = new LoginAttemptService(null, 1, System::currentTimeMillis);
+        for (int i = 0; i < 100; i++) {
+            loginAttemptService.loginFailed("flood-" + i + "@attacker.com");
+        }
+        for (int i = 1; i < LoginAttemptService.PROMOTE_AT + LoginAttemptService.MAX_ATTEMPT; i++) {
+            loginAttemptService.loginFailed(TEST_KEY);
+        }
+        assertThat(loginAttemptService.isBlocked(TEST_KEY)).isTrue();
+
+        // When the user then logs in successfully
+        loginAttemptService.loginSucceeded(TEST_KEY);
+
+        // Then nothing blocks the key any more
+        assertThat(loginAttemptService.isBlocked(TEST_KEY)).isFalse();
+    }
+
+    @Test
+    void isBlocked_whenIpExceedsLimit_shouldBlockAnyEmailFromThatIp() {
+        // Given one IP failing across many different emails
+        String ip = "203.0.113.7";
+        for (int i = 0; i < LoginAttemptService.MAX_ATTEMPT_PER_IP; i++) {
+            loginAttemptService.loginFailed("user" + i + "@user.com", ip);
+        }
+
+        // Then a fresh email from that IP is blocked, but not from another IP
+        assertThat(loginAttemptService.isBlocked(TEST_KEY, ip)).isTrue();
+        assertThat(loginAttemptService.isBlocked(TEST_KEY, "198.51.100.1")).isFalse();
+    }
 }
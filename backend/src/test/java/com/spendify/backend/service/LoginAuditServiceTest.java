@@ -0,0 +1,117 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.entity.LoginAudit;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.LoginAuditRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAuditServiceTest {
+
+    @Mock
+    private LoginAuditRepository loginAuditRepository;
+    @Mock
+    private LoginAttemptService loginAttemptService;
+
+    private LoginAuditService loginAuditService;
+
+    private static final String EMAIL = "test@user.com";
+    private static final String IP_ADDRESS = "203.0.113.10";
+
+    @BeforeEach
+    void setUp() {
+        loginAuditService = new LoginAuditService(loginAuditRepository, loginAttemptService, 4, 2);
+    }
+
+    @Test
+    void record_whenLoginFails_shouldUpdateCountersWithoutWritingImmediately() {
+        // When
+        loginAuditService.record(EMAIL, null, IP_ADDRESS, false);
+
+        // Then
+        verify(loginAttemptService).loginFailed(EMAIL, IP_ADDRESS);
+        verifyNoInteractions(loginAuditRepository);
+        assertThat(loginAuditService.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void record_whenLoginSucceeds_shouldResetCounters() {
+        // When
+        loginAuditService.record(EMAIL, User.builder().id(1L).email(EMAIL).build(), IP_ADDRESS, true);
+
+        // Then
+        verify(loginAttemptService).loginSucceeded(EMAIL);
+        verify(loginAttemptService, never()).loginFailed(any(), any());
+    }
+
+    @Test
+    void recordBlocked_shouldAuditWithoutCountingAFailure() {
+        // When
+        loginAuditService.recordBlocked(EMAIL, IP_ADDRESS);
+
+        // Then
+        verifyNoInteractions(loginAttemptService);
+        assertThat(loginAuditService.pending()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldWriteBufferedAuditsInBatches() {
+        // Given three buffered attempts and a batch size of two
+        User user = User.builder().id(1L).email(EMAIL).build();
+        loginAuditService.record(EMAIL, user, IP_ADDRESS, true);
+        loginAuditService.record(EMAIL, null, IP_ADDRESS, false);
+        loginAuditService.record(EMAIL, null, null, false);
+
+        // When
+        loginAuditService.flush();
+
+        // Then
+        ArgumentCaptor<List<LoginAudit>> captor = ArgumentCaptor.forClass(List.class);
+        verify(loginAuditRepository, times(2)).saveAll(captor.capture());
+        assertThat(captor.getAllValues().get(0)).hasSize(2);
+        assertThat(captor.getAllValues().get(1)).hasSize(1);
+        assertThat(captor.getAllValues().get(0).get(0).getUser()).isEqualTo(user);
+        assertThat(captor.getAllValues().get(1).get(0).getIpAddress()).isEqualTo("unknown");
+        assertThat(loginAuditService.pending()).isZero();
+    }
+
+    @Test
+    void record_whenBufferIsFull_shouldDropWithoutBlocking() {
+        // Given a buffer of four already full
+        for (int i = 0; i < 4; i++) {
+            loginAuditService.record(EMAIL, null, IP_ADDRESS, false);
+        }
+
+        // When one more attempt arrives
+        loginAuditService.record(EMAIL, null, IP_ADDRESS, false);
+
+        // Then the audit is dropped but the lockout counter still sees it
+        assertThat(loginAuditService.droppedCount()).isEqualTo(1);
+        verify(loginAttemptService, times(5)).loginFailed(EMAIL, IP_ADDRESS);
+    }
+
+    @Test
+    void flush_whenRepositoryFails_shouldKeepDraining() {
+        // Given
+        loginAuditService.record(EMAIL, null, IP_ADDRESS, false);
+        when(loginAuditRepository.saveAll(anyList())).thenThrow(new RuntimeException("db down"));
+
+        // When
+        loginAuditService.flush();
+
+        // Then the failed batch is not retried forever
+        assertThat(loginAuditService.pending()).isZero();
+    }
+}
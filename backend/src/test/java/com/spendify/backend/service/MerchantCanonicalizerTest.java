@@ -0,0 +1,130 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.MerchantCategory;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.util.MerchantNames;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MerchantCanonicalizerTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MerchantCanonicalizer canonicalizer;
+
+    @BeforeEach
+    void setUp() {
+        canonicalizer = new MerchantCanonicalizer(transactionRepository, transactionManager, 100);
+    }
+
+    @Test
+    void normalize_shouldFoldCaseAccentsPunctuationPrefixesAndSuffixes() {
+        assertThat(MerchantNames.normalize("  M.T.R.   Tsuen Wan ")).isEqualTo("mtr tsuen wan");
+        assertThat(MerchantNames.normalize("SQ *Starbucks Coffee Co. #1234")).isEqualTo("starbucks coffee");
+        assertThat(MerchantNames.normalize("Café de Coral Ltd")).isEqualTo("cafe de coral");
+        assertThat(MerchantNames.normalize("McDonald’s 0412")).isEqualTo("mcdonalds");
+        assertThat(MerchantNames.normalize("7-Eleven")).isEqualTo("7 eleven");
+        assertThat(MerchantNames.normalize("  ")).isEmpty();
+    }
+
+    @Test
+    void lastCategory_shouldMatchMisspellingsWithinEditBudgetAndKeepLatestCategory() {
+        // Given
+        when(transactionRepository.streamMerchantCategories(7L)).thenReturn(Stream.of(
+                row("Wellcome Supermarket", 3L),
+                row("PARKnSHOP", 3L),
+                row("WELLCOME SUPERMARKET #12", 9L),
+                row("KFC", 1L)));
+
+        // When / Then
+        assertThat(canonicalizer.lastCategory(7L, "WELLC0ME SUPERMARKT")).contains(9L);
+        assertThat(canonicalizer.lastCategory(7L, "Wellcome Supermarket Ltd")).contains(9L);
+        assertThat(canonicalizer.lastCategory(7L, "parknshop 001")).contains(3L);
+        // Short names must match exactly: one edit away is another store.
+        assertThat(canonicalizer.lastCategory(7L, "KFD")).isEmpty();
+        assertThat(canonicalizer.lastCategory(7L, "Apple Store")).isEmpty();
+        verify(transactionRepository, times(1)).streamMerchantCategories(7L);
+    }
+
+    @Test
+    void onTransactionChanged_shouldRememberRecategorizedMerchant() {
+        // Given
+        when(transactionRepository.streamMerchantCategories(7L)).thenReturn(Stream.of(row("Pacific Coffee", 1L)));
+        assertThat(canonicalizer.lastCategory(7L, "Pacific Coffee")).contains(1L);
+
+        // When
+        canonicalizer.onTransactionChanged(TransactionChangedEvent.of(7L,
+                snapshot(1L, "Pacific Coffee"), snapshot(30L, "PACIFIC COFFEE CO")));
+        canonicalizer.onTransactionChanged(new TransactionChangedEvent(7L, List.of(
+                new TransactionChangedEvent.Change(null, snapshot(4L, "Tai Cheong Bakery")))));
+
+        // Then
+        assertThat(canonicalizer.lastCategory(7L, "pacific cofee")).contains(30L);
+        assertThat(canonicalizer.lastCategory(7L, "Tai Cheong Bakery #3")).contains(4L);
+    }
+
+    @Test
+    void lastCategory_shouldOnlyRememberCategoriesTheUserChose() {
+        // Given: the user filed Pacific Coffee under 30; later rows there and all of
+        // Maxim's were categorized automatically
+        when(transactionRepository.streamMerchantCategories(7L)).thenReturn(Stream.of(
+                row("Pacific Coffee", 30L, false),
+                row("Pacific Coffee", 6L, true),
+                row("Maxim's Cakes", 6L, true)));
+
+        // When
+        canonicalizer.onTransactionChanged(TransactionChangedEvent.of(7L, null, snapshot(6L, "Pacific Coffee", true)));
+        canonicalizer.onTransactionChanged(TransactionChangedEvent.of(7L, null, snapshot(6L, "Tai Cheong Bakery", true)));
+
+        // Then: guesses keep the spelling known but leave the category alone
+        assertThat(canonicalizer.lastCategory(7L, "Pacific Coffee")).contains(30L);
+        assertThat(canonicalizer.lastCategory(7L, "Maxims Cakes")).isEmpty();
+        assertThat(canonicalizer.lastCategory(7L, "Tai Cheong Bakery")).isEmpty();
+
+        // When: the user confirms the guessed category on an edit
+        canonicalizer.onTransactionChanged(TransactionChangedEvent.of(7L,
+                snapshot(6L, "Tai Cheong Bakery", true), snapshot(6L, "Tai Cheong Bakery", false)));
+
+        // Then
+        assertThat(canonicalizer.lastCategory(7L, "Tai Cheong Bakery")).contains(6L);
+    }
+
+    private static MerchantCategory row(String merchant, Long categoryId) {
+        return row(merchant, categoryId, false);
+    }
+
+    private static MerchantCategory row(String merchant, Long categoryId, boolean autoCategorized) {
+        return new MerchantCategory() {
+            @Override public String getMerchant() { return merchant; }
+            @Override public Long getCategoryId() { return categoryId; }
+            @Override public boolean isAutoCategorized() { return autoCategorized; }
+        };
+    }
+
+    private static TransactionChangedEvent.Snapshot snapshot(Long categoryId, String merchant) {
+        return snapshot(categoryId, merchant, false);
+    }
+
+    private static TransactionChangedEvent.Snapshot snapshot(Long categoryId, String merchant, boolean autoCategorized) {
+        return new TransactionChangedEvent.Snapshot(100L, categoryId, null, new BigDecimal("35.00"),
+                LocalDate.of(2025, 12, 1), merchant, null, autoCategorized);
+    }
+}
@@ -0,0 +1,232 @@
+package com.spendify.backend.service;
+
+import com.google.common.hash.Hashing;
+import com.spendify.backend.dto.MerchantAnalyticsResponse;
+import com.spendify.backend.dto.MonthlyCount;
+import com.spendify.backend.dto.TransactionFingerprint;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.MerchantSketch;
+import com.spendify.backend.entity.Transaction;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.MerchantSketchRepository;
+import com.spendify.backend.repository.SpendingRollupRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.UserRepository;
+import com.spendify.backend.util.HyperLogLog;
+import com.spendify.backend.util.SpaceSavingSketch;
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MerchantSketchServiceTest {
+
+    @Mock
+    private MerchantSketchRepository merchantSketchRepository;
+    @Mock
+    private SpendingRollupRepository spendingRollupRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private SecurityContext securityContext;
+    @Mock
+    private Authentication authentication;
+
+    private MerchantSketchService sketchService;
+
+    private final User currentUser = User.builder().id(1L).email("current@user.com").build();
+    private final Category food = Category.builder().id(10L).name("Food").build();
+
+    @BeforeEach
+    void setUp() {
+        sketchService = new MerchantSketchService(merchantSketchRepository, spendingRollupRepository,
+                transactionRepository, userRepository, transactionManager);
+    }
+
+    @Test
+    void apply_shouldFoldAddsIntoExistingMonthAndMarkEditedMonthsStale() {
+        // Given
+        MerchantSketch march = storedMonth("2025-03", List.of(fingerprint("2025-03-01", "10.00", "Starbucks")));
+        when(merchantSketchRepository.findForUpdate(1L, "2025-03")).thenReturn(Optional.of(march));
+        Transaction edited = transaction("2025-04-02", "30.00", "KMB");
+        SpendingRollupService.Changes changes = new SpendingRollupService.Changes()
+                .add(transaction("2025-03-05", "25.00", "starbucks "))
+                .remove(edited);
+        edited.setMerchant("Citybus");
+        changes.add(edited);
+        Transaction retitled = transaction("2025-05-01", "8.00", "MTR");
+        changes.remove(retitled).add(retitled);
+
+        // When
+        sketchService.apply(changes);
+
+        // Then
+        verify(merchantSketchRepository).markStale(1L, Set.of("2025-04"));
+        verify(merchantSketchRepository, never()).findForUpdate(1L, "2025-04");
+        verify(merchantSketchRepository, never()).findForUpdate(1L, "2025-05");
+        verify(merchantSketchRepository).save(argThat(row -> row.getTransactionCount() == 2));
+        SpaceSavingSketch.Counter top = SpaceSavingSketch.fromBytes(march.getFrequencySketch()).top(1).get(0);
+        assertThat(top.getLabel()).isEqualTo("Starbucks");
+        assertThat(top.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void getMerchantAnalytics_shouldMergeStoredMonthsRebuildDriftedOnesAndScanPartialEdges() {
+        // Given
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn(currentUser.getEmail());
+        when(userRepository.findByEmail(currentUser.getEmail())).thenReturn(Optional.of(currentUser));
+
+        LocalDate start = LocalDate.of(2025, 1, 20);
+        LocalDate end = LocalDate.of(2025, 3, 31);
+        when(spendingRollupRepository.countByMonth(1L, LocalDate.of(2025, 2, 1), end))
+                .thenReturn(List.of(new MonthlyCount(2025, 2, 2), new MonthlyCount(2025, 3, 2)));
+        MerchantSketch february = storedMonth("2025-02", List.of(
+                fingerprint("2025-02-03", "50.00", "Wellcome"),
+                fingerprint("2025-02-04", "5.00", "MTR")));
+        MerchantSketch driftedMarch = storedMonth("2025-03", List.of());
+        when(merchantSketchRepository.findByUserIdAndYearMonthIn(1L, List.of("2025-02", "2025-03")))
+                .thenReturn(List.of(february, driftedMarch));
+        when(transactionRepository.streamFingerprintsBetween(1L, LocalDate.of(2025, 3, 1), end)).thenReturn(Stream.of(
+                fingerprint("2025-03-02", "6.00", "MTR"),
+                fingerprint("2025-03-09", "7.00", "M.T.R. 0412")));
+        when(transactionRepository.streamFingerprintsBetween(1L, start, LocalDate.of(2025, 1, 31))).thenReturn(Stream.of(
+                fingerprint("2025-01-25", "100.00", "Apple Store")));
+
+        // When
+        MerchantAnalyticsResponse response = sketchService.getMerchantAnalytics(start, end, 2);
+
+        // Then
+        assertThat(response.getDistinctMerchants()).isEqualTo(3);
+        assertThat(response.getTopBySpend()).extracting(MerchantAnalyticsResponse.MerchantSpend::getMerchant)
+                .containsExactly("Apple Store", "Wellcome");
+        assertThat(response.getTopBySpend().get(0).getTotal()).isEqualByComparingTo("100.00");
+        assertThat(response.getTopByFrequency().get(0).getMerchant()).isEqualTo("MTR");
+        assertThat(response.getTopByFrequency().get(0).getTransactionCount()).isEqualTo(3);
+        verify(merchantSketchRepository).save(argThat(row -> row == driftedMarch && row.getTransactionCount() == 2));
+        verify(transactionRepository, never()).streamFingerprintsBetween(1L, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28));
+    }
+
+    @Test
+    void getMerchantAnalytics_whenMonthIsMissing_shouldStoreStalePlaceholderBeforeScanningAndYieldToLaterWrites() {
+        // Given
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn(currentUser.getEmail());
+        when(userRepository.findByEmail(currentUser.getEmail())).thenReturn(Optional.of(currentUser));
+
+        LocalDate start = LocalDate.of(2025, 3, 1);
+        LocalDate end = LocalDate.of(2025, 3, 31);
+        when(spendingRollupRepository.countByMonth(1L, start, end)).thenReturn(List.of(new MonthlyCount(2025, 3, 1)));
+        when(merchantSketchRepository.findByUserIdAndYearMonthIn(1L, List.of("2025-03"))).thenReturn(List.of());
+        List<Boolean> staleWhenStored = new ArrayList<>();
+        when(merchantSketchRepository.saveAndFlush(any(MerchantSketch.class))).thenAnswer(invocation -> {
+            MerchantSketch row = invocation.getArgument(0);
+            staleWhenStored.add(row.isStale());
+            return row;
+        });
+        when(transactionRepository.streamFingerprintsBetween(1L, start, end))
+                .thenReturn(Stream.of(fingerprint("2025-03-02", "6.00", "MTR")));
+        when(merchantSketchRepository.save(any(MerchantSketch.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(MerchantSketch.class, 5L));
+
+        // When a transaction in the month is removed while it is scanned
+        MerchantAnalyticsResponse response = sketchService.getMerchantAnalytics(start, end, 1);
+
+        // Then the placeholder went in stale, ahead of the scan, and the overtaken rebuild is dropped
+        InOrder order = inOrder(merchantSketchRepository, transactionRepository);
+        order.verify(merchantSketchRepository).saveAndFlush(any(MerchantSketch.class));
+        order.verify(transactionRepository).streamFingerprintsBetween(1L, start, end);
+        order.verify(merchantSketchRepository).save(any(MerchantSketch.class));
+        assertThat(staleWhenStored).containsExactly(true);
+        assertThat(response.getTopByFrequency()).extracting(MerchantAnalyticsResponse.MerchantFrequency::getMerchant)
+                .containsExactly("MTR");
+    }
+
+    @Test
+    void hyperLogLog_shouldEstimateDistinctCountWithinFewPercent() {
+        // Given
+        HyperLogLog left = new HyperLogLog(MerchantSketchService.HLL_PRECISION);
+        HyperLogLog right = new HyperLogLog(MerchantSketchService.HLL_PRECISION);
+        for (int i = 0; i < 20_000; i++) {
+            long hash = Hashing.murmur3_128().hashInt(i).asLong();
+            (i % 2 == 0 ? left : right).addHash(hash);
+            if (i < 5_000) {
+                right.addHash(hash);
+            }
+        }
+
+        // When
+        left.merge(HyperLogLog.fromBytes(right.toBytes()));
+
+        // Then
+        assertThat((double) left.estimate()).isCloseTo(20_000, Percentage.withPercentage(5));
+    }
+
+    private MerchantSketch storedMonth(String yearMonth, List<TransactionFingerprint> rows) {
+        MerchantSketchService.Sketches sketches = MerchantSketchService.Sketches.empty();
+        rows.forEach(row -> sketches.add(row.getMerchant(), row.getAmount()));
+        MerchantSketch row = MerchantSketch.builder().userId(1L).yearMonth(yearMonth).transactionCount(rows.size()).build();
+        sketches.writeTo(row);
+        return row;
+    }
+
+    private Transaction transaction(String date, String amount, String merchant) {
+        return Transaction.builder()
+                .user(currentUser)
+                .category(food)
+                .transactionDate(LocalDate.parse(date))
+                .amount(new BigDecimal(amount))
+                .merchant(merchant)
+                .build();
+    }
+
+    private static TransactionFingerprint fingerprint(String date, String amount, String merchant) {
+        return new TransactionFingerprint() {
+            @Override
+            public LocalDate getTransactionDate() {
+                return LocalDate.parse(date);
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return new BigDecimal(amount);
+            }
+
+            @Override
+            public String getMerchant() {
+                return merchant;
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.entity.RefreshToken;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, 2, 30);
+        user = User.builder().id(1L).email("user@example.com").build();
+    }
+
+    private RefreshToken token(String value, LocalDateTime expiry) {
+        return RefreshToken.builder().token(value).user(user).expiryDate(expiry).build();
+    }
+
+    @Test
+    void lookup_whenCalledTwice_shouldLoadTokenOnceAndOnlyConfirmItAfterwards() {
+        // Given
+        when(refreshTokenRepository.findByToken("valid")).thenReturn(Optional.of(token("valid", LocalDateTime.now().plusDays(1))));
+        when(refreshTokenRepository.existsByToken("valid")).thenReturn(true);
+
+        // When
+        var first = refreshTokenService.lookup("valid");
+        var second = refreshTokenService.lookup("valid");
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(second).contains(first.get());
+        assertThat(second.get().userId()).isEqualTo(1L);
+        verify(refreshTokenRepository, times(1)).findByToken("valid");
+        verify(refreshTokenRepository, times(1)).existsByToken("valid");
+    }
+
+    @Test
+    void lookup_whenRevokedOnAnotherNode_shouldNotServeCachedEntry() {
+        // Given a token cached here, then deleted by another node
+        when(refreshTokenRepository.findByToken("valid")).thenReturn(Optional.of(token("valid", LocalDateTime.now().plusDays(1))));
+        refreshTokenService.lookup("valid");
+        when(refreshTokenRepository.existsByToken("valid")).thenReturn(false);
+
+        // When
+        var result = refreshTokenService.lookup("valid");
+
+        // Then
+        assertThat(result).isEmpty();
+        assertThat(refreshTokenService.cachedCount()).isZero();
+    }
+
+    @Test
+    void lookup_whenTokenExpired_shouldReturnItWithoutCaching() {
+        // Given
+        when(refreshTokenRepository.findByToken("expired")).thenReturn(Optional.of(token("expired", LocalDateTime.now().minusMinutes(1))));
+
+        // When
+        var result = refreshTokenService.lookup("expired");
+        refreshTokenService.lookup("expired");
+
+        // Then
+        assertThat(result).get().matches(RefreshTokenService.CachedRefreshToken::isExpired);
+        verify(refreshTokenRepository, times(2)).findByToken("expired");
+        verify(refreshTokenRepository, never()).delete(any());
+    }
+
+    @Test
+    void revoke_shouldEvictCachedEntryAndDeleteRow() {
+        // Given a cached token
+        when(refreshTokenRepository.findByToken("valid"))
+                .thenReturn(Optional.of(token("valid", LocalDateTime.now().plusDays(1))))
+                .thenReturn(Optional.empty());
+        refreshTokenService.lookup("valid");
+
+        // When
+        refreshTokenService.revoke("valid");
+
+        // Then the next lookup goes back to the repository and misses
+        assertThat(refreshTokenService.lookup("valid")).isEmpty();
+        verify(refreshTokenRepository).deleteByTokenValue("valid");
+    }
+
+    @Test
+    void lookup_whenCacheIsFull_shouldStayBounded() {
+        // Given
+        when(refreshTokenRepository.findByToken(any()))
+                .thenAnswer(invocation -> Optional.of(token(invocation.getArgument(0), LocalDateTime.now().plusDays(1))));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            refreshTokenService.lookup("token-" + i);
+        }
+
+        // Then
+        assertThat(refreshTokenService.cachedCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteInBulk() {
+        // When
+        refreshTokenService.purgeExpired();
+
+        // Then
+        verify(refreshTokenRepository).deleteAllExpiredBefore(any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).delete(any());
+    }
+}
@@ -0,0 +1,182 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.LogAmountMoments;
+import com.spendify.backend.entity.NotificationLog;
+import com.spendify.backend.entity.SpendingStats;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.NotificationLogRepository;
+import com.spendify.backend.repository.SpendingStatsRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpendingAnomalyServiceTest {
+
+    @Mock
+    private SpendingStatsRepository spendingStatsRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private NotificationLogRepository notificationLogRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SpendingAnomalyService anomalyService;
+
+    @BeforeEach
+    void setUp() {
+        anomalyService = new SpendingAnomalyService(spendingStatsRepository, transactionRepository,
+                notificationLogRepository, userRepository, transactionManager, 10, 3.0);
+    }
+
+    @Test
+    void process_shouldFlagOutlierAgainstRunningStatsAndUpdateThemInPlace() {
+        // Given
+        SpendingStats stats = statsOf(1L, 10L, 35, 40, 45, 38, 42, 50, 30, 36, 44, 41, 39, 47);
+        when(spendingStatsRepository.findForUpdate(1L, 10L)).thenReturn(Optional.of(stats));
+        when(userRepository.getReferenceById(1L)).thenReturn(User.builder().id(1L).build());
+
+        // When
+        anomalyService.process(TransactionChangedEvent.of(1L, null, snapshot(10L, "900.00")));
+        anomalyService.process(TransactionChangedEvent.of(1L, null, snapshot(10L, "45.00")));
+
+        // Then
+        ArgumentCaptor<List<NotificationLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationLogRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).singleElement().satisfies(n -> {
+            assertThat(n.getType()).isEqualTo(SpendingAnomalyService.NOTIFICATION_TYPE);
+            assertThat(n.getMessage()).contains("900.00", "Starbucks", "Food");
+        });
+        assertThat(stats.getSampleCount()).isEqualTo(14);
+        verify(transactionRepository, never()).findLogAmountMoments(any(), any());
+    }
+
+    @Test
+    void process_shouldReverseOldValueOnUpdateAndSeedNewCategoryFromHistory() {
+        // Given
+        SpendingStats food = statsOf(1L, 10L, 40, 50);
+        double meanBefore = food.getMean();
+        when(spendingStatsRepository.findForUpdate(1L, 10L)).thenReturn(Optional.of(food));
+        when(spendingStatsRepository.insertIfAbsent(1L, 10L)).thenReturn(0);
+        when(spendingStatsRepository.insertIfAbsent(1L, 11L)).thenReturn(1);
+        when(spendingStatsRepository.findForUpdate(1L, 11L))
+                .thenReturn(Optional.of(SpendingStats.builder().userId(1L).categoryId(11L).build()));
+        // Committed history of category 11 already contains the moved transaction (ln 50).
+        double ln20 = Math.log(20);
+        double ln50 = Math.log(50);
+        when(transactionRepository.findLogAmountMoments(1L, 11L))
+                .thenReturn(new LogAmountMoments(3L, 2 * ln20 + ln50, 2 * ln20 * ln20 + ln50 * ln50));
+
+        // When
+        anomalyService.process(TransactionChangedEvent.of(1L, snapshot(10L, "50.00"), snapshot(11L, "50.00")));
+
+        // Then
+        assertThat(food.getSampleCount()).isEqualTo(1);
+        assertThat(food.getMean()).isCloseTo(Math.log(40), within(1e-9));
+        assertThat(meanBefore).isNotEqualTo(food.getMean());
+        ArgumentCaptor<List<SpendingStats>> captor = ArgumentCaptor.forClass(List.class);
+        verify(spendingStatsRepository).saveAllAndFlush(captor.capture());
+        SpendingStats transport = captor.getValue().stream().filter(s -> s.getCategoryId().equals(11L)).findFirst().orElseThrow();
+        assertThat(transport.getSampleCount()).isEqualTo(3);
+        assertThat(transport.getMean()).isCloseTo((2 * ln20 + ln50) / 3, within(1e-9));
+        verify(notificationLogRepository, never()).saveAll(anyList());
+        InOrder order = inOrder(spendingStatsRepository);
+        order.verify(spendingStatsRepository).insertIfAbsent(1L, 10L);
+        order.verify(spendingStatsRepository).findForUpdate(1L, 10L);
+        order.verify(spendingStatsRepository).insertIfAbsent(1L, 11L);
+        order.verify(spendingStatsRepository).findForUpdate(1L, 11L);
+    }
+
+    @Test
+    void onTransactionChanged_whenConcurrentSeedWins_shouldRetryAgainstItsRow() {
+        // Given a pair seeded concurrently: the first attempt loses on the unique key
+        SpendingStats seededElsewhere = statsOf(1L, 10L, 40, 50);
+        when(spendingStatsRepository.insertIfAbsent(1L, 10L)).thenReturn(1, 0);
+        when(spendingStatsRepository.findForUpdate(1L, 10L)).thenReturn(
+                Optional.of(SpendingStats.builder().userId(1L).categoryId(10L).build()), Optional.of(seededElsewhere));
+        when(transactionRepository.findLogAmountMoments(1L, 10L)).thenReturn(new LogAmountMoments(0L, null, null));
+        when(spendingStatsRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        anomalyService.onTransactionChanged(TransactionChangedEvent.of(1L, null, snapshot(10L, "45.00")));
+
+        // Then the update lands on the row the other listener created
+        assertThat(seededElsewhere.getSampleCount()).isEqualTo(3);
+        verify(spendingStatsRepository, times(2)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void onTransactionChanged_whenChosenAsLockVictim_shouldRetry() {
+        // Given a first attempt that loses a lock conflict
+        SpendingStats food = statsOf(1L, 10L, 40, 50);
+        when(spendingStatsRepository.findForUpdate(1L, 10L))
+                .thenThrow(new CannotAcquireLockException("deadlock victim"))
+                .thenReturn(Optional.of(food));
+
+        // When
+        anomalyService.onTransactionChanged(TransactionChangedEvent.of(1L, null, snapshot(10L, "45.00")));
+
+        // Then the event is not dropped
+        assertThat(food.getSampleCount()).isEqualTo(3);
+        verify(spendingStatsRepository).saveAllAndFlush(List.of(food));
+    }
+
+    @Test
+    void reset_shouldDropStatisticsOfTouchedCategories() {
+        // When
+        anomalyService.reset(1L, Set.of(10L));
+        anomalyService.reset(1L, Set.of());
+
+        // Then
+        verify(spendingStatsRepository).deleteByUserIdAndCategoryIds(1L, Set.of(10L));
+        verifyNoMoreInteractions(spendingStatsRepository);
+    }
+
+    private static SpendingStats statsOf(Long userId, Long categoryId, double... amounts) {
+        SpendingStats row = SpendingStats.builder().userId(userId).categoryId(categoryId).build();
+        SpendingAnomalyService.Stats stats = new SpendingAnomalyService.Stats(row);
+        for (double amount : amounts) {
+            stats.add(Math.log(amount));
+        }
+        row.setSampleCount(stats.count());
+        row.setMean(stats.mean());
+        row.setM2(stats.m2());
+        return row;
+    }
+
+    private static TransactionChangedEvent.Snapshot snapshot(Long categoryId, String amount) {
+        return new TransactionChangedEvent.Snapshot(5L, categoryId, "Food", new BigDecimal(amount),
+                LocalDate.of(2025, 6, 1), "Starbucks", null, false);
+    }
+}
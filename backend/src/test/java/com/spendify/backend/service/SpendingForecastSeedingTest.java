@@ -0,0 +1,71 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.SpendingForecastModel;
+import com.spendify.backend.entity.Transaction;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.SpendingForecastModelRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the forecast seeding against the migrated H2 schema. H2 takes no lock on
+ * a missing key, so it cannot show the SQL Server deadlock between a locked
+ * read and an insert on another connection; what it can show is that the
+ * placeholder is written by the writer's own transaction.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SpendingForecastSeedingTest {
+
+    @Autowired
+    private SpendingForecastService forecastService;
+    @Autowired
+    private SpendingForecastModelRepository modelRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void apply_shouldInsertThePlaceholderInTheWritersTransaction() {
+        // Given
+        User user = User.builder().id(90_001L).build();
+        SpendingRollupService.Changes changes = new SpendingRollupService.Changes().add(Transaction.builder()
+                .user(user)
+                .category(Category.builder().id(90_002L).build())
+                .transactionDate(LocalDate.now())
+                .amount(new BigDecimal("15.00"))
+                .merchant("Wellcome")
+                .build());
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // When: the writer applies the change, then rolls back
+        Integer seenElsewhere = new TransactionTemplate(transactionManager).execute(status -> {
+            forecastService.apply(changes);
+            status.setRollbackOnly();
+            assertThat(modelRepository.findByUserIdAndCategoryIdIn(90_001L, Set.of(90_002L)))
+                    .singleElement().extracting(SpendingForecastModel::isStale).isEqualTo(false);
+            return other.execute(nested -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM spending_forecast_models WHERE user_id = ?", Integer.class, 90_001L));
+        });
+
+        // Then: nothing was committed on another connection, and the rollback took the row with it
+        assertThat(seenElsewhere).isZero();
+        assertThat(modelRepository.findByUserIdAndCategoryIdIn(90_001L, List.of(90_002L))).isEmpty();
+    }
+}
@@ -0,0 +1,204 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.DailyAmountStats;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.SpendingForecastModel;
+import com.spendify.backend.entity.Transaction;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.SpendingForecastModelRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpendingForecastServiceTest {
+
+    @Mock
+    private SpendingForecastModelRepository modelRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private SpendingForecastService forecastService;
+
+    private final LocalDate start = LocalDate.of(2025, 1, 4);
+    private final LocalDate today = LocalDate.of(2025, 3, 16);
+
+    @BeforeEach
+    void setUp() {
+        forecastService = new SpendingForecastService(modelRepository, transactionRepository);
+    }
+
+    @Test
+    void forecast_shouldProjectOnlyTheWeekdaysThatCarrySpending() {
+        // Given: two transactions (25 + 35) every Saturday since 4 Jan
+        SpendingForecastService.Model model = saturdayShopper();
+
+        // When
+        SpendingForecastService.Forecast forecast = model.forecast(YearMonth.of(2025, 3), new BigDecimal("120.00"), today);
+
+        // Then: two Saturdays left in March at 60 each, scaled by March's seasonal index
+        // (180 over 16 days against 660 over 72, given 16 / (16 + 60) weight).
+        double season = 1 + 16.0 / 76 * ((180.0 / 16) / (660.0 / 72) - 1);
+        double spread = 1.645 * Math.sqrt(2 * 1850.0) * season;
+        assertThat(forecast.expected().doubleValue()).isCloseTo(120 + 120 * season, within(0.01));
+        assertThat(forecast.low().doubleValue()).isCloseTo(120 + 120 * season - spread, within(0.01));
+        assertThat(forecast.high().doubleValue()).isCloseTo(120 + 120 * season + spread, within(0.01));
+    }
+
+    @Test
+    void forecast_shouldDeclineUntilThereIsEnoughHistory() {
+        // Given
+        SpendingForecastService.Model model = new SpendingForecastService.Model(today.minusDays(10));
+        model.add(today.minusDays(3), 1, 40, 1600);
+
+        // When / Then
+        assertThat(model.forecast(YearMonth.from(today), new BigDecimal("40.00"), today)).isNull();
+    }
+
+    @Test
+    void apply_shouldFoldDeltasIntoStoredModels() {
+        // Given
+        SpendingForecastModel stored = SpendingForecastModel.builder().userId(1L).categoryId(10L).build();
+        saturdayShopper().writeTo(stored);
+        when(modelRepository.findByUserIdAndCategoryIdIn(1L, Set.of(10L))).thenReturn(List.of(stored));
+        when(modelRepository.findForUpdate(1L, Set.of(10L))).thenReturn(List.of(stored));
+        User user = User.builder().id(1L).build();
+        SpendingRollupService.Changes changes = new SpendingRollupService.Changes()
+                .add(transaction(user, 10L, LocalDate.of(2025, 3, 22), "60.00"));
+
+        // When
+        forecastService.apply(changes);
+
+        // Then: one more Saturday worth of spend lifts the remaining-month projection
+        verify(modelRepository).saveAll(List.of(stored));
+        verify(modelRepository, never()).insertPlaceholder(any(), any(), any(), any());
+        verify(transactionRepository, never()).findDailyAmountStats(any(), any(), any());
+        SpendingForecastService.Forecast before = saturdayShopper().forecast(YearMonth.of(2025, 3), BigDecimal.ZERO, today);
+        SpendingForecastService.Forecast after = SpendingForecastService.Model.from(stored)
+                .forecast(YearMonth.of(2025, 3), BigDecimal.ZERO, today);
+        assertThat(after.expected()).isGreaterThan(before.expected());
+        assertThat(stored.getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    void apply_whenModelIsMissing_shouldSeedItFromHistoryUnderTheRowLock() {
+        // Given: no model for category 11 until this writer inserts the placeholder
+        SpendingForecastModel placeholder = SpendingForecastModel.builder().userId(1L).categoryId(11L).stale(true).build();
+        new SpendingForecastService.Model(LocalDate.now()).writeTo(placeholder);
+        when(modelRepository.findByUserIdAndCategoryIdIn(1L, Set.of(11L))).thenReturn(List.of());
+        when(modelRepository.findForUpdate(1L, Set.of(11L))).thenReturn(List.of(placeholder));
+        LocalDate earliest = LocalDate.now().minusDays(40);
+        when(transactionRepository.findDailyAmountStats(eq(1L), eq(Set.of(11L)), any())).thenReturn(List.of(
+                new DailyAmountStats(11L, earliest, 2L, new BigDecimal("30.00"), new BigDecimal("500.00")),
+                new DailyAmountStats(11L, LocalDate.now(), 1L, new BigDecimal("15.00"), new BigDecimal("225.00"))));
+        User user = User.builder().id(1L).build();
+        SpendingRollupService.Changes changes = new SpendingRollupService.Changes()
+                .add(transaction(user, 11L, LocalDate.now(), "15.00"));
+
+        // When
+        forecastService.apply(changes);
+
+        // Then: the placeholder goes in before the lock, and the seed already holds
+        // this write, so its delta is not added again
+        InOrder order = inOrder(modelRepository);
+        order.verify(modelRepository).insertPlaceholder(eq(1L), eq(11L), eq(LocalDate.now()), any());
+        order.verify(modelRepository).findForUpdate(1L, Set.of(11L));
+        order.verify(modelRepository).saveAll(List.of(placeholder));
+        assertThat(placeholder.isStale()).isFalse();
+        assertThat(placeholder.getStartDate()).isEqualTo(earliest);
+        SpendingForecastService.Model expected = new SpendingForecastService.Model(earliest);
+        expected.add(earliest, 2, 30, 500);
+        expected.add(LocalDate.now(), 1, 15, 225);
+        SpendingForecastModel expectedRow = new SpendingForecastModel();
+        expected.writeTo(expectedRow);
+        assertThat(placeholder.getState()).isEqualTo(expectedRow.getState());
+    }
+
+    @Test
+    void apply_whenAnotherWriterInsertsThePlaceholderFirst_shouldLockAndSeedTheirs() {
+        // Given
+        SpendingForecastModel theirs = SpendingForecastModel.builder().userId(1L).categoryId(11L).stale(true).build();
+        new SpendingForecastService.Model(LocalDate.now()).writeTo(theirs);
+        when(modelRepository.findByUserIdAndCategoryIdIn(1L, Set.of(11L))).thenReturn(List.of());
+        when(modelRepository.insertPlaceholder(eq(1L), eq(11L), any(), any())).thenReturn(0);
+        when(modelRepository.findForUpdate(1L, Set.of(11L))).thenReturn(List.of(theirs));
+        User user = User.builder().id(1L).build();
+        SpendingRollupService.Changes changes = new SpendingRollupService.Changes()
+                .add(transaction(user, 11L, LocalDate.now(), "15.00"));
+
+        // When
+        forecastService.apply(changes);
+
+        // Then
+        verify(transactionRepository).findDailyAmountStats(eq(1L), eq(Set.of(11L)), any());
+        verify(modelRepository).saveAll(List.of(theirs));
+        assertThat(theirs.isStale()).isFalse();
+    }
+
+    @Test
+    void loadModels_shouldBuildMissingAndStaleCategoriesInMemoryWithoutWriting() {
+        // Given
+        SpendingForecastModel stored = SpendingForecastModel.builder().userId(1L).categoryId(10L).build();
+        saturdayShopper().writeTo(stored);
+        SpendingForecastModel placeholder = SpendingForecastModel.builder().userId(1L).categoryId(12L).stale(true).build();
+        new SpendingForecastService.Model(LocalDate.now()).writeTo(placeholder);
+        when(modelRepository.findByUserIdAndCategoryIdIn(1L, Set.of(10L, 11L, 12L))).thenReturn(List.of(stored, placeholder));
+        LocalDate earliest = LocalDate.now().minusDays(40);
+        when(transactionRepository.findDailyAmountStats(eq(1L), eq(Set.of(11L, 12L)), any())).thenReturn(List.of(
+                new DailyAmountStats(11L, earliest, 2L, new BigDecimal("30.00"), new BigDecimal("500.00")),
+                new DailyAmountStats(11L, LocalDate.now().minusDays(5), 1L, new BigDecimal("12.00"), new BigDecimal("144.00"))));
+
+        // When
+        Map<Long, SpendingForecastService.Model> models = forecastService.loadModels(1L, Set.of(10L, 11L, 12L));
+
+        // Then
+        assertThat(models).containsOnlyKeys(10L, 11L, 12L);
+        assertThat(models.get(11L).forecast(YearMonth.now(), BigDecimal.ZERO, LocalDate.now())).isNotNull();
+        assertThat(models.get(12L).forecast(YearMonth.now(), BigDecimal.ZERO, LocalDate.now())).isNull();
+        verify(modelRepository, never()).saveAll(any());
+        verify(modelRepository, never()).insertPlaceholder(any(), any(), any(), any());
+        verify(modelRepository, never()).findForUpdate(any(), any());
+    }
+
+    private SpendingForecastService.Model saturdayShopper() {
+        SpendingForecastService.Model model = new SpendingForecastService.Model(start);
+        for (LocalDate day = start; !day.isAfter(today); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY) {
+                model.add(day, 2, 60, 25 * 25 + 35 * 35);
+            }
+        }
+        return model;
+    }
+
+    private static Transaction transaction(User user, Long categoryId, LocalDate date, String amount) {
+        return Transaction.builder()
+                .user(user)
+                .category(Category.builder().id(categoryId).build())
+                .transactionDate(date)
+                .amount(new BigDecimal(amount))
+                .merchant("Wellcome")
+                .build();
+    }
+}
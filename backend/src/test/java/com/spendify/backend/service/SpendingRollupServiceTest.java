@@ -0,0 +1,171 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.RollupChecksum;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.SpendingRollup;
+import com.spendify.backend.entity.Transaction;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.SpendingRollupRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpendingRollupServiceTest {
+
+    @Mock
+    private SpendingRollupRepository spendingRollupRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private MerchantSketchService merchantSketchService;
+    @Mock
+    private SpendingForecastService spendingForecastService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SpendingRollupService rollupService;
+
+    private final User user = User.builder().id(1L).build();
+    private final Category food = Category.builder().id(10L).name("Food").build();
+    private final Category transport = Category.builder().id(11L).name("Transport").build();
+    private final LocalDate day = LocalDate.of(2025, 5, 3);
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new SpendingRollupService(spendingRollupRepository, transactionRepository, merchantSketchService,
+                spendingForecastService, eventPublisher, transactionManager);
+    }
+
+    @Test
+    void apply_shouldNetOutChangesAndInsertMissingCells() {
+        // Given
+        Transaction transaction = transaction(food, "40.00");
+        SpendingRollupService.Changes changes = new SpendingRollupService.Changes().remove(transaction);
+        transaction.setCategory(transport);
+        transaction.setAmount(new BigDecimal("55.00"));
+        changes.add(transaction);
+        Transaction untouched = transaction(food, "12.00");
+        changes.remove(untouched).add(untouched);
+
+        when(spendingRollupRepository.increment(1L, 10L, day, new BigDecimal("-40.00"), -1)).thenReturn(1);
+        when(spendingRollupRepository.increment(1L, 11L, day, new BigDecimal("55.00"), 1)).thenReturn(0, 1);
+
+        // When
+        rollupService.apply(changes);
+
+        // Then the change is announced before any cell is touched, and the missing cell is created empty, then incremented
+        InOrder order = inOrder(eventPublisher, spendingRollupRepository);
+        order.verify(eventPublisher).publishEvent(new SpendingChangedEvent(1L, day, day));
+        order.verify(spendingRollupRepository, atLeastOnce()).increment(any(), any(), any(), any(), anyLong());
+        verify(spendingRollupRepository).saveAndFlush(argThat((SpendingRollup r) ->
+                r.getCategoryId().equals(11L) && r.getTotal().signum() == 0
+                        && r.getTransactionCount() == 0 && r.getSpendDate().equals(day)));
+        verify(spendingRollupRepository, times(2)).increment(1L, 11L, day, new BigDecimal("55.00"), 1);
+        verify(spendingRollupRepository, never()).increment(eq(1L), eq(10L), eq(day), eq(new BigDecimal("0.00")), eq(0L));
+        verify(merchantSketchService).apply(changes);
+    }
+
+    @Test
+    void apply_whenAnotherWriterCreatesTheCellFirst_shouldIncrementTheirs() {
+        // Given a cell that is missing, then created concurrently
+        Transaction transaction = transaction(food, "18.00");
+        when(spendingRollupRepository.increment(1L, 10L, day, new BigDecimal("18.00"), 1)).thenReturn(0, 1);
+        when(spendingRollupRepository.saveAndFlush(any(SpendingRollup.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // When
+        rollupService.apply(new SpendingRollupService.Changes().add(transaction));
+
+        // Then the conflict is absorbed and the amount lands once
+        verify(spendingRollupRepository, times(2)).increment(1L, 10L, day, new BigDecimal("18.00"), 1);
+        verify(eventPublisher).publishEvent(new SpendingChangedEvent(1L, day, day));
+    }
+
+    @Test
+    void verifyAll_shouldRebuildOnlyUsersWhoseChecksumsDiffer() {
+        // Given
+        when(transactionRepository.findRollupChecksums()).thenReturn(List.of(
+                checksum(1L, 10L, "100.00", 3),
+                checksum(2L, 10L, "20.00", 1),
+                checksum(3L, 11L, "5.00", 1)));
+        when(spendingRollupRepository.findChecksums()).thenReturn(List.of(
+                checksum(1L, 10L, "100.00", 3),
+                checksum(2L, 10L, "25.00", 1),
+                checksum(4L, 11L, "0.00", 0),
+                checksum(5L, 12L, "9.00", 1)));
+
+        // When
+        rollupService.verifyAll();
+
+        // Then
+        verify(spendingRollupRepository).findChecksums();
+        verify(spendingRollupRepository).deleteByUserId(2L);
+        verify(spendingRollupRepository).rebuildForUser(2L);
+        verify(spendingRollupRepository).deleteByUserId(3L);
+        verify(spendingRollupRepository).rebuildForUser(3L);
+        verify(spendingRollupRepository).deleteByUserId(5L);
+        verify(spendingRollupRepository).rebuildForUser(5L);
+        verifyNoMoreInteractions(spendingRollupRepository);
+        assertThat(SpendingRollupService.findDriftedUsers(List.of(), List.of())).isEmpty();
+    }
+
+    private Transaction transaction(Category category, String amount) {
+        return Transaction.builder()
+                .user(user)
+                .category(category)
+                .amount(new BigDecimal(amount))
+                .transactionDate(day)
+                .build();
+    }
+
+    private static RollupChecksum checksum(Long userId, Long categoryId, String total, long count) {
+        return new RollupChecksum() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return new BigDecimal(total);
+            }
+
+            @Override
+            public Long getTransactionCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.spendify.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeGranularityTest {
+
+    @Test
+    void bucketCount_shouldCountPartialBucketsAtBothEnds() {
+        // Given
+        LocalDate from = LocalDate.of(2025, 2, 15);
+        LocalDate to = LocalDate.of(2026, 1, 10);
+
+        // When / Then
+        assertThat(TimeGranularity.DAY.bucketCount(from, from)).isEqualTo(1);
+        assertThat(TimeGranularity.WEEK.bucketCount(LocalDate.of(2025, 12, 3), LocalDate.of(2025, 12, 31))).isEqualTo(5);
+        assertThat(TimeGranularity.MONTH.bucketCount(from, to)).isEqualTo(12);
+        assertThat(TimeGranularity.QUARTER.bucketCount(from, to)).isEqualTo(5);
+        assertThat(TimeGranularity.YEAR.bucketCount(from, to)).isEqualTo(2);
+        assertThat(TimeGranularity.WEEK.bucketCount(LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31)))
+                .isGreaterThan(500_000);
+    }
+}
@@ -0,0 +1,219 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.CategorizedText;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionCategorizerTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private CategoryRegistry categoryRegistry;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionCategorizer categorizer;
+
+    private final Category food = Category.builder().id(1L).name("Food & Dining").isSystem(true).build();
+    private final Category transport = Category.builder().id(2L).name("Transport").isSystem(true).build();
+    private final Category coffee = Category.builder().id(30L).name("Coffee").build();
+
+    @BeforeEach
+    void setUp() {
+        categorizer = new TransactionCategorizer(transactionRepository, categoryRegistry, transactionManager,
+                new SyncTaskExecutor(), 100, 10, 12, 3, 0.6, 365);
+        lenient().when(categoryRegistry.find(eq(7L), anyLong())).thenAnswer(invocation -> Optional.ofNullable(
+                switch (((Long) invocation.getArgument(1)).intValue()) {
+                    case 1 -> food;
+                    case 2 -> transport;
+                    case 30 -> coffee;
+                    default -> null;
+                }));
+    }
+
+    @Test
+    void suggest_withLittleUserHistory_shouldUseSharedModel() {
+        // Given
+        when(transactionRepository.streamSystemCategorizedText(any(LocalDate.class))).thenReturn(Stream.of(
+                row(1L, "Starbucks", null), row(1L, "Starbucks IFC", null), row(1L, "Pacific Coffee", null),
+                row(2L, "MTR", null), row(2L, "MTR Central", null), row(2L, "Citybus", null)));
+        when(transactionRepository.streamCategorizedText(7L)).thenReturn(Stream.of(row(30L, "Starbucks", null)));
+        categorizer.trainGlobalModel();
+
+        // When
+        Optional<TransactionCategorizer.Suggestion> suggestion = categorizer.suggest(7L, "STARBUCKS #22", null, null);
+
+        // Then
+        assertThat(suggestion).get().extracting(TransactionCategorizer.Suggestion::categoryId).isEqualTo(1L);
+    }
+
+    @Test
+    void suggest_withEnoughUserHistory_shouldPreferUsersOwnCategories() {
+        // Given
+        when(transactionRepository.streamCategorizedText(7L)).thenReturn(Stream.of(
+                row(30L, "Starbucks", "flat white"), row(30L, "Starbucks IFC", null), row(30L, "Pacific Coffee", null),
+                row(2L, "MTR", null), row(2L, "Citybus", null)));
+
+        // When
+        Optional<TransactionCategorizer.Suggestion> suggestion = categorizer.suggest(7L, "Starbucks Central", null, null);
+
+        // Then
+        assertThat(suggestion).get().satisfies(s -> {
+            assertThat(s.categoryId()).isEqualTo(30L);
+            assertThat(s.confidence()).isGreaterThan(0.6);
+        });
+        categorizer.suggest(7L, "MTR", null, null);
+        verify(transactionRepository, times(1)).streamCategorizedText(7L);
+    }
+
+    @Test
+    void onTransactionChanged_shouldLearnRecategorization() {
+        // Given: a user model that files Uber under transport
+        List<CategorizedText> history = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            history.add(row(2L, "Uber Trip", null));
+            history.add(row(30L, "Starbucks", null));
+        }
+        when(transactionRepository.streamCategorizedText(7L)).thenReturn(history.stream());
+        assertThat(categorizer.suggest(7L, "Uber Eats", null, null)).get()
+                .extracting(TransactionCategorizer.Suggestion::categoryId).isEqualTo(2L);
+
+        // When: the user moves Uber Eats rides to food, several times
+        for (long id = 100; id < 106; id++) {
+            categorizer.onTransactionChanged(TransactionChangedEvent.of(7L,
+                    snapshot(id, 2L, "Uber Eats"), snapshot(id, 1L, "Uber Eats")));
+        }
+
+        // Then
+        assertThat(categorizer.suggest(7L, "Uber Eats", null, null)).get()
+                .extracting(TransactionCategorizer.Suggestion::categoryId).isEqualTo(1L);
+    }
+
+    @Test
+    void onTransactionChanged_shouldIgnoreCategoriesItGuessedItself() {
+        // Given
+        List<CategorizedText> history = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            history.add(row(2L, "Uber Trip", null));
+            history.add(row(30L, "Starbucks", null));
+        }
+        when(transactionRepository.streamCategorizedText(7L)).thenReturn(history.stream());
+        categorizer.suggest(7L, "Uber Eats", null, null);
+
+        // When: many Uber Eats rows land in food by suggestion or fallback, never by the user
+        for (long id = 100; id < 106; id++) {
+            categorizer.onTransactionChanged(TransactionChangedEvent.of(7L, null, snapshot(id, 1L, "Uber Eats", true)));
+        }
+
+        // Then
+        assertThat(categorizer.suggest(7L, "Uber Eats", null, null)).get()
+                .extracting(TransactionCategorizer.Suggestion::categoryId).isEqualTo(2L);
+    }
+
+    @Test
+    void trainGlobalModel_shouldKeepEditsMadeWhileHistoryIsRead() {
+        // Given: users file Uber Eats under food while the shared model is being rebuilt
+        when(transactionRepository.streamSystemCategorizedText(any(LocalDate.class))).thenAnswer(invocation -> {
+            for (long id = 100; id < 106; id++) {
+                categorizer.onTransactionChanged(TransactionChangedEvent.of(7L, null, snapshot(id, 1L, "Uber Eats")));
+            }
+            return Stream.of(row(2L, "MTR", null), row(2L, "Citybus", null));
+        });
+        when(transactionRepository.streamCategorizedText(7L)).thenReturn(Stream.empty());
+
+        // When
+        categorizer.trainGlobalModel();
+
+        // Then
+        assertThat(categorizer.suggest(7L, "Uber Eats", null, null)).get()
+                .extracting(TransactionCategorizer.Suggestion::categoryId).isEqualTo(1L);
+    }
+
+    @Test
+    void suggest_whileUserModelIsBuilding_shouldUseSharedModel() {
+        // Given: an executor that has not yet run the queued build
+        List<Runnable> queued = new ArrayList<>();
+        categorizer = new TransactionCategorizer(transactionRepository, categoryRegistry, transactionManager,
+                queued::add, 100, 10, 12, 3, 0.6, 365);
+        when(transactionRepository.streamSystemCategorizedText(any(LocalDate.class))).thenReturn(Stream.of(
+                row(1L, "Starbucks", null), row(1L, "Starbucks IFC", null), row(2L, "MTR", null)));
+        categorizer.trainGlobalModel();
+
+        // When
+        Optional<TransactionCategorizer.Suggestion> first = categorizer.suggest(7L, "Starbucks Central", null, null);
+        categorizer.suggest(7L, "Starbucks Central", null, null);
+
+        // Then: the history is not read on the caller's thread, and only one build is queued
+        assertThat(first).get().extracting(TransactionCategorizer.Suggestion::categoryId).isEqualTo(1L);
+        assertThat(queued).hasSize(1);
+        verify(transactionRepository, never()).streamCategorizedText(7L);
+    }
+
+    @Test
+    void buildUserModel_shouldKeepEditsMadeWhileHistoryIsRead() {
+        // Given: the user files Uber Eats under food while their model is being built
+        when(transactionRepository.streamCategorizedText(7L)).thenAnswer(invocation -> {
+            for (long id = 100; id < 106; id++) {
+                categorizer.onTransactionChanged(TransactionChangedEvent.of(7L,
+                        snapshot(id, 2L, "Uber Eats"), snapshot(id, 1L, "Uber Eats")));
+            }
+            List<CategorizedText> history = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                history.add(row(2L, "Uber Trip", null));
+                history.add(row(2L, "Uber Eats", null));
+                history.add(row(30L, "Starbucks", null));
+            }
+            return history.stream();
+        });
+
+        // When
+        categorizer.suggest(7L, "Uber Eats", null, null);
+
+        // Then
+        assertThat(categorizer.suggest(7L, "Uber Eats", null, null)).get()
+                .extracting(TransactionCategorizer.Suggestion::categoryId).isEqualTo(1L);
+    }
+
+    private static TransactionChangedEvent.Snapshot snapshot(Long id, Long categoryId, String merchant) {
+        return snapshot(id, categoryId, merchant, false);
+    }
+
+    private static TransactionChangedEvent.Snapshot snapshot(Long id, Long categoryId, String merchant, boolean autoCategorized) {
+        return new TransactionChangedEvent.Snapshot(id, categoryId, null, new BigDecimal("30.00"),
+                LocalDate.of(2025, 6, 1), merchant, null, autoCategorized);
+    }
+
+    private static CategorizedText row(Long categoryId, String merchant, String description) {
+        return new CategorizedText() {
+            @Override public Long getCategoryId() { return categoryId; }
+            @Override public String getMerchant() { return merchant; }
+            @Override public String getDescription() { return description; }
+        };
+    }
+}
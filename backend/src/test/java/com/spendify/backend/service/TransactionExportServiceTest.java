@@ -0,0 +1,102 @@
+package com.spendify.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spendify.backend.dto.TransactionExportRow;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private SecurityContext securityContext;
+    @Mock
+    private Authentication authentication;
+
+    private TransactionExportService exportService;
+
+    private final User currentUser = User.builder().id(1L).email("current@user.com").build();
+    private final LocalDate start = LocalDate.of(2025, 1, 1);
+    private final LocalDate end = LocalDate.of(2025, 12, 31);
+
+    @BeforeEach
+    void setUp() {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn(currentUser.getEmail());
+        when(userRepository.findByEmail(currentUser.getEmail())).thenReturn(Optional.of(currentUser));
+
+        exportService = new TransactionExportService(transactionRepository, userRepository, new ObjectMapper(), transactionManager);
+    }
+
+    private Stream<TransactionExportRow> rows(AtomicBoolean closed) {
+        return Stream.of(
+                new TransactionExportRow(1L, LocalDate.of(2025, 3, 1), new BigDecimal("12.50"), "Cafe, Central", "Latte \"large\"", 10L, "Food"),
+                new TransactionExportRow(2L, LocalDate.of(2025, 3, 2), new BigDecimal("8.00"), "MTR", null, 11L, "Transport")
+        ).onClose(() -> closed.set(true));
+    }
+
+    @Test
+    void export_asCsv_shouldEscapeFieldsAndCloseCursor() throws Exception {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transactionRepository.streamExportRows(1L, start, end, null)).thenReturn(rows(closed));
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(TransactionExportService.Format.CSV, false, start, end, null).writeTo(out);
+
+        // Then
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,date,amount,merchant,description,categoryId,category\n" +
+                "1,2025-03-01,12.50,\"Cafe, Central\",\"Latte \"\"large\"\"\",10,Food\n" +
+                "2,2025-03-02,8.00,MTR,,11,Transport\n");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void export_asGzippedNdjson_shouldWriteOneObjectPerLine() throws Exception {
+        // Given
+        when(transactionRepository.streamExportRows(1L, start, end, null)).thenReturn(rows(new AtomicBoolean()));
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(TransactionExportService.Format.NDJSON, true, start, end, null).writeTo(out);
+
+        // Then
+        String body = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(new ObjectMapper().readTree(lines[0]).get("merchant").asText()).isEqualTo("Cafe, Central");
+        assertThat(new ObjectMapper().readTree(lines[1]).get("description").isNull()).isTrue();
+    }
+}
@@ -0,0 +1,248 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.dto.TransactionFingerprint;
+import com.spendify.backend.dto.TransactionImportStatus;
+import com.spendify.backend.entity.Category;
+import com.spendify.backend.entity.Transaction;
+import com.spendify.backend.entity.User;
+import com.spendify.backend.repository.TransactionRepository;
+import com.spendify.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionImportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private CategoryRegistry categoryRegistry;
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private SpendingRollupService spendingRollupService;
+    @Mock
+    private SpendingAnomalyService spendingAnomalyService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionImportService importService;
+
+    private final User currentUser = User.builder().id(1L).email("current@user.com").build();
+    private final Category other = Category.builder().id(1L).name("Other").isSystem(true).build();
+    private final Category transport = Category.builder().id(2L).name("Transport").isSystem(true).build();
+    private final Category groceries = Category.builder().id(3L).name("Groceries").user(currentUser).build();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(categoryRegistry.listForUser(currentUser.getId()))
+                .thenReturn(List.of(other, transport, groceries));
+        lenient().when(transactionService.categorize(eq(currentUser), anyString(), any())).thenReturn(other);
+        importService = new TransactionImportService(transactionRepository, categoryRegistry, transactionService, userRepository,
+                spendingRollupService, spendingAnomalyService, entityManager, transactionManager, new SyncTaskExecutor(), 2);
+    }
+
+    @Test
+    void importStatement_shouldSkipStoredRowsKeepRepeatsAndWriteInChunks() throws Exception {
+        // Given
+        TransactionFingerprint existing = fingerprint(LocalDate.of(2025, 3, 1), new BigDecimal("12.50"), "MTR Central");
+        when(transactionRepository.streamFingerprints(currentUser.getId())).thenReturn(Stream.of(existing));
+        List<List<Transaction>> chunks = new ArrayList<>();
+        when(transactionRepository.saveAll(anyList())).thenAnswer(inv -> {
+            chunks.add(List.copyOf(inv.getArgument(0)));
+            return inv.getArgument(0);
+        });
+        when(transactionService.categorize(currentUser, "KMB Route 1", null)).thenReturn(transport);
+        String csv = """
+                Date,Amount,Merchant,Category,Notes
+                2025-03-01,12.50,mtr  central,,
+                2025-03-02,45.00,"Wellcome, Causeway Bay",Groceries,  weekly   shop
+                2025-03-02,45.00,"Wellcome, Causeway Bay",Groceries,
+                2025-03-03,-20.00,Refund,,
+                2025-03-04,8.90,KMB Route 1,,
+                2025-03-05,100.00,Some Shop,,%s
+                """.formatted("x".repeat(300));
+
+        // When
+        TransactionImportStatus status = importService.importStatement(currentUser, new StringReader(csv),
+                StatementFormat.CSV, new TransactionImportService.ImportJob("job", currentUser.getId(), StatementFormat.CSV));
+
+        // Then
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getRowsRead()).isEqualTo(6);
+        assertThat(status.getImported()).isEqualTo(4);
+        assertThat(status.getDuplicates()).isEqualTo(1);
+        assertThat(status.getSkipped()).isEqualTo(1);
+        assertThat(chunks).extracting(List::size).containsExactly(2, 2);
+        List<Transaction> saved = chunks.stream().flatMap(List::stream).toList();
+        assertThat(saved).extracting(Transaction::getCategory).containsExactly(groceries, groceries, transport, other);
+        assertThat(saved.get(0).getMerchant()).isEqualTo("Wellcome, Causeway Bay");
+        assertThat(saved).extracting(Transaction::getDescription).containsExactly("weekly shop", null, null, "x".repeat(255));
+        assertThat(saved).extracting(Transaction::isAutoCategorized).containsExactly(false, false, true, true);
+        verify(transactionService).categorize(currentUser, "Some Shop", "x".repeat(255));
+        verify(entityManager, times(2)).clear();
+        verify(spendingAnomalyService).reset(currentUser.getId(), Set.of(groceries.getId()));
+        verify(spendingAnomalyService).reset(currentUser.getId(), Set.of(transport.getId(), other.getId()));
+    }
+
+    @Test
+    void importStatement_shouldReadBankAndOctopusLayouts() throws Exception {
+        // Given
+        when(transactionRepository.streamFingerprints(currentUser.getId())).thenAnswer(inv -> Stream.empty());
+        when(transactionService.categorize(currentUser, "MTR Admiralty", null)).thenReturn(transport);
+        List<Transaction> saved = new ArrayList<>();
+        when(transactionRepository.saveAll(anyList())).thenAnswer(inv -> {
+            saved.addAll(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        String bank = """
+                Transaction Date,Description,Withdrawal,Deposit
+                03/02/2025,CLP POWER,"1,234.50",
+                04/02/2025,SALARY,,"30,000.00"
+                bad date,SOMETHING,10.00,
+                """;
+        String octopus = """
+                Transaction Date/Time,Details,Amount
+                2025-02-05 08:15:00,MTR Admiralty,-5.40
+                2025-02-05 09:00:00,Add Value,200.00
+                """;
+
+        // When
+        TransactionImportStatus bankStatus = importService.importStatement(currentUser, new StringReader(bank),
+                StatementFormat.HK_BANK, new TransactionImportService.ImportJob("bank", currentUser.getId(), StatementFormat.HK_BANK));
+        TransactionImportStatus octopusStatus = importService.importStatement(currentUser, new StringReader(octopus),
+                StatementFormat.OCTOPUS, new TransactionImportService.ImportJob("octopus", currentUser.getId(), StatementFormat.OCTOPUS));
+
+        // Then
+        assertThat(saved).hasSize(2);
+        assertThat(bankStatus.getImported()).isEqualTo(1);
+        assertThat(bankStatus.getSkipped()).isEqualTo(1);
+        assertThat(bankStatus.getFailed()).isEqualTo(1);
+        assertThat(bankStatus.getErrors()).singleElement().asString().startsWith("Line 4");
+        assertThat(octopusStatus.getImported()).isEqualTo(1);
+        assertThat(octopusStatus.getSkipped()).isEqualTo(1);
+
+        Transaction bill = saved.get(0);
+        assertThat(bill.getAmount()).isEqualByComparingTo("1234.50");
+        assertThat(bill.getTransactionDate()).isEqualTo(LocalDate.of(2025, 2, 3));
+        Transaction ride = saved.get(1);
+        assertThat(ride.getAmount()).isEqualByComparingTo("5.40");
+        assertThat(ride.getCategory()).isEqualTo(transport);
+    }
+
+    @Test
+    void importStatement_whenReimported_shouldMatchEachStoredRowOnce() throws Exception {
+        // Given two identical coffees already stored, and a statement with a third
+        TransactionFingerprint coffee = fingerprint(LocalDate.of(2025, 2, 5), new BigDecimal("38.00"), "Pacific Coffee");
+        when(transactionRepository.streamFingerprints(currentUser.getId())).thenReturn(Stream.of(coffee, coffee));
+        List<Transaction> saved = new ArrayList<>();
+        when(transactionRepository.saveAll(anyList())).thenAnswer(inv -> {
+            saved.addAll(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        String octopus = """
+                Transaction Date/Time,Details,Amount
+                2025-02-05 08:15:00,Pacific Coffee,-38.00
+                2025-02-05 12:40:00,Pacific Coffee,-38.00
+                2025-02-05 16:05:00,Pacific Coffee,-38.00
+                """;
+
+        // When
+        TransactionImportStatus status = importService.importStatement(currentUser, new StringReader(octopus),
+                StatementFormat.OCTOPUS, new TransactionImportService.ImportJob("octopus", currentUser.getId(), StatementFormat.OCTOPUS));
+
+        // Then
+        assertThat(status.getDuplicates()).isEqualTo(2);
+        assertThat(status.getImported()).isEqualTo(1);
+        assertThat(saved).hasSize(1);
+    }
+
+    @Test
+    void startImport_whenExecutorRejects_shouldFailJobAndDeleteUpload() throws Exception {
+        // Given an executor with no room left
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(currentUser.getEmail(), null)));
+        when(userRepository.findByEmail(currentUser.getEmail())).thenReturn(Optional.of(currentUser));
+        List<Path> uploads = new ArrayList<>();
+        importService = new TransactionImportService(transactionRepository, categoryRegistry, transactionService, userRepository,
+                spendingRollupService, spendingAnomalyService, entityManager, transactionManager, task -> {
+                    throw new TaskRejectedException("queue full");
+                }, 2);
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv",
+                "Date,Amount,Merchant\n2025-03-01,12.50,MTR\n".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void transferTo(Path dest) throws IOException {
+                uploads.add(dest);
+                super.transferTo(dest);
+            }
+        };
+
+        try {
+            // When
+            TransactionImportStatus status = importService.startImport(file, StatementFormat.CSV);
+
+            // Then
+            assertThat(status.getStatus()).isEqualTo("FAILED");
+            assertThat(status.getFinishedAt()).isNotNull();
+            assertThat(uploads).singleElement().satisfies(upload -> assertThat(upload).doesNotExist());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static TransactionFingerprint fingerprint(LocalDate date, BigDecimal amount, String merchant) {
+        return new TransactionFingerprint() {
+            @Override
+            public LocalDate getTransactionDate() {
+                return date;
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return amount;
+            }
+
+            @Override
+            public String getMerchant() {
+                return merchant;
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.spendify.backend.service;
+
+import com.spendify.backend.repository.TransactionArchiveRepository;
+import com.spendify.backend.repository.TransactionItemRepository;
+import com.spendify.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionPurgeServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private TransactionItemRepository transactionItemRepository;
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionPurgeService purgeService;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 12, 10, 4, 15);
+    private final LocalDateTime cutoff = now.minusSeconds(10).minusHours(24);
+
+    @BeforeEach
+    void setUp() {
+        purgeService = new TransactionPurgeService(transactionRepository, transactionItemRepository,
+                transactionArchiveRepository, transactionManager, 24, 2, 10);
+    }
+
+    @Test
+    void run_shouldArchiveInBatchesUntilNothingIsLeft() {
+        // Given
+        when(transactionRepository.findIdsDeletedBefore(eq(cutoff), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(transactionRepository.purgeDeleted(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // When
+        int archived = purgeService.run(now);
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        InOrder order = inOrder(transactionArchiveRepository, transactionItemRepository, transactionRepository);
+        order.verify(transactionArchiveRepository).archiveItems(List.of(1L, 2L));
+        order.verify(transactionItemRepository).deleteByTransactionIds(List.of(1L, 2L));
+        order.verify(transactionArchiveRepository).archiveDeleted(List.of(1L, 2L), now);
+        order.verify(transactionRepository).purgeDeleted(List.of(1L, 2L));
+        order.verify(transactionArchiveRepository).archiveDeleted(List.of(3L), now);
+        order.verify(transactionRepository).purgeDeleted(List.of(3L));
+        verify(transactionRepository, times(3)).findIdsDeletedBefore(eq(cutoff), any(Pageable.class));
+    }
+
+    @Test
+    void run_shouldStopAfterMaxBatches() {
+        // Given
+        when(transactionRepository.findIdsDeletedBefore(eq(cutoff), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(transactionRepository.purgeDeleted(anyList())).thenReturn(2);
+
+        // When
+        int archived = purgeService.run(now);
+
+        // Then
+        assertThat(archived).isEqualTo(20);
+        verify(transactionRepository, times(10)).purgeDeleted(anyList());
+    }
+}
@@ -1,5 +1,8 @@
 package com.spendify.backend.service;
 
+import com.spendify.backend.dto.TransactionBulkRequest;
+import com.spendify.backend.dto.TransactionBulkResponse;
+import com.spendify.backend.dto.TransactionBulkUpdate;
 import com.spendify.backend.dto.TransactionCreateRequest;
 import com.spendify.backend.dto.TransactionResponse;
 import com.spendify.backend.dto.TransactionUpdateRequest;
@@ -11,23 +14,28 @@ import com.spendify.backend.exception.UnauthorizedException;
 import com.spendify.backend.repository.CategoryRepository;
 import com.spendify.backend.repository.TransactionRepository;
 import com.spendify.backend.repository.UserRepository;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,8 +46,18 @@ class TransactionServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
     @Mock
+    private CategoryRegistry categoryRegistry;
+    @Mock
+    private TransactionCategorizer transactionCategorizer;
+    @Mock
+    private MerchantCanonicalizer merchantCanonicalizer;
+    @Mock
     private UserRepository userRepository;
     @Mock
+    private SpendingRollupService spendingRollupService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
     private SecurityContext securityContext;
     @Mock
     private Authentication authentication;
@@ -96,7 +114,7 @@ class TransactionServiceTest {
                 .merchant(request.getMerchant())
                 .build();
 
-        when(categoryRepository.findById(request.getCategoryId())).thenReturn(Optional.of(userOwnedCategory));
+        when(categoryRegistry.find(currentUser.getId(), request.getCategoryId())).thenReturn(Optional.of(userOwnedCategory));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
 
         // When
@@ -110,8 +128,77 @@ class TransactionServiceTest {
 
         verify(transactionRepository).save(argThat(transaction ->
                 transaction.getUser().equals(currentUser) &&
-                transaction.getCategory().equals(userOwnedCategory)
+                transaction.getCategory().equals(userOwnedCategory) &&
+                !transaction.isAutoCategorized()
         ));
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void createTransaction_withoutCategory_shouldUseSuggestedCategory() {
+        // Given
+        mockCurrentUser();
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .amount(new BigDecimal("42.00"))
+                .transactionDate(LocalDate.now())
+                .merchant("Wellcome Supermarket")
+                .build();
+        when(transactionCategorizer.suggest(currentUser.getId(), "Wellcome Supermarket", null, null))
+                .thenReturn(Optional.of(new TransactionCategorizer.Suggestion(userOwnedCategory.getId(), 0.91)));
+        when(categoryRegistry.find(currentUser.getId(), userOwnedCategory.getId())).thenReturn(Optional.of(userOwnedCategory));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        TransactionResponse response = transactionService.createTransaction(request);
+
+        // Then
+        assertThat(response.getCategoryId()).isEqualTo(userOwnedCategory.getId());
+        assertThat(response.getCategoryName()).isEqualTo("Groceries");
+        verify(transactionRepository).save(argThat(Transaction::isAutoCategorized));
+    }
+
+    @Test
+    void createTransaction_withoutCategory_shouldPreferLastCategoryAtMerchant() {
+        // Given
+        mockCurrentUser();
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .amount(new BigDecimal("18.50"))
+                .transactionDate(LocalDate.now())
+                .merchant("WELLCOME SUPERMKT #0412")
+                .build();
+        when(merchantCanonicalizer.lastCategory(currentUser.getId(), "WELLCOME SUPERMKT #0412"))
+                .thenReturn(Optional.of(userOwnedCategory.getId()));
+        when(categoryRegistry.find(currentUser.getId(), userOwnedCategory.getId())).thenReturn(Optional.of(userOwnedCategory));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        TransactionResponse response = transactionService.createTransaction(request);
+
+        // Then
+        assertThat(response.getCategoryId()).isEqualTo(userOwnedCategory.getId());
+        verifyNoInteractions(transactionCategorizer);
+    }
+
+    @Test
+    void createTransaction_withoutCategoryOrSuggestion_shouldFallBackToOther() {
+        // Given
+        mockCurrentUser();
+        Category other = Category.builder().id(6L).name("Other").isSystem(true).build();
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .amount(new BigDecimal("5.00"))
+                .transactionDate(LocalDate.now())
+                .merchant("???")
+                .build();
+        when(transactionCategorizer.suggest(currentUser.getId(), "???", null, null)).thenReturn(Optional.empty());
+        when(categoryRegistry.findSystem("Other")).thenReturn(Optional.of(other));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        TransactionResponse response = transactionService.createTransaction(request);
+
+        // Then
+        assertThat(response.getCategoryName()).isEqualTo("Other");
+        verifyNoInteractions(categoryRepository);
     }
 
     @Test
@@ -223,6 +310,7 @@ class TransactionServiceTest {
                 .category(userOwnedCategory)
                 .user(currentUser)
                 .merchant("Old Merchant")
+                .autoCategorized(true)
                 .build();
 
         Category newCategory = new Category();
@@ -251,7 +339,7 @@ class TransactionServiceTest {
 
 
         when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(existingTransaction));
-        when(categoryRepository.findById(newCategory.getId())).thenReturn(Optional.of(newCategory));
+        when(categoryRegistry.find(currentUser.getId(), newCategory.getId())).thenReturn(Optional.of(newCategory));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(updatedTransaction); // Return the fully updated object
 
         // When
@@ -270,8 +358,10 @@ class TransactionServiceTest {
             tx.getAmount().compareTo(new BigDecimal("75.00")) == 0 &&
             tx.getCategory().getId().equals(newCategory.getId()) &&
             tx.getDescription().equals("Updated desc") &&
-            tx.getMerchant().equals("New Merchant")
+            tx.getMerchant().equals("New Merchant") &&
+            !tx.isAutoCategorized()
         ));
+        verifyNoInteractions(categoryRepository);
     }
 
     @Test
@@ -351,6 +441,9 @@ class TransactionServiceTest {
         Transaction existingTransaction = Transaction.builder()
                 .id(transactionId)
                 .user(currentUser)
+                .category(userOwnedCategory)
+                .amount(new BigDecimal("20.00"))
+                .transactionDate(LocalDate.now())
                 .isDeleted(false) // Initially not deleted
                 .build();
         
@@ -365,6 +458,10 @@ class TransactionServiceTest {
                 transaction.isDeleted() && // Should now be deleted
                 transaction.getDeletedDate() != null
         ));
+        verify(spendingRollupService).apply(any(SpendingRollupService.Changes.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof TransactionChangedEvent changed
+                && changed.changes().get(0).current() == null
+                && changed.changes().get(0).previous().amount().compareTo(new BigDecimal("20.00")) == 0));
     }
 
     @Test
@@ -393,6 +490,8 @@ class TransactionServiceTest {
                 .isDeleted(true)
                 .deletedDate(java.time.LocalDateTime.now().minusSeconds(5)) // Deleted 5 seconds ago
                 .category(userOwnedCategory)
+                .amount(new BigDecimal("20.00"))
+                .transactionDate(LocalDate.now())
                 .build();
 
         when(transactionRepository.findByIdIncludingDeleted(transactionId)).thenReturn(Optional.of(deletedTransaction));
@@ -469,6 +568,118 @@ class TransactionServiceTest {
                 .isInstanceOf(UnauthorizedException.class)
                 .hasMessage("User not authorized for this transaction");
     }
-}
 
+    private TransactionService bulkService() {
+        return new TransactionService(transactionRepository, categoryRepository, categoryRegistry, transactionCategorizer,
+                merchantCanonicalizer, userRepository, Validation.buildDefaultValidatorFactory().getValidator(),
+                spendingRollupService, eventPublisher);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkTransactions_shouldResolveCategoriesFromRegistryAndReportPerItemResults() {
+        // Given two valid creates, one invalid, and one with an unknown category
+        mockCurrentUser();
+        TransactionCreateRequest valid1 = TransactionCreateRequest.builder()
+                .amount(new BigDecimal("10.00")).transactionDate(LocalDate.now())
+                .categoryId(userOwnedCategory.getId()).merchant("A").build();
+        TransactionCreateRequest valid2 = TransactionCreateRequest.builder()
+                .amount(new BigDecimal("20.00")).transactionDate(LocalDate.now())
+                .categoryId(userOwnedCategory.getId()).merchant("B").build();
+        TransactionCreateRequest negative = TransactionCreateRequest.builder()
+                .amount(new BigDecimal("-1.00")).transactionDate(LocalDate.now())
+                .categoryId(userOwnedCategory.getId()).merchant("C").build();
+        TransactionCreateRequest unknownCategory = TransactionCreateRequest.builder()
+                .amount(new BigDecimal("5.00")).transactionDate(LocalDate.now())
+                .categoryId(999L).merchant("D").build();
+
+        when(categoryRegistry.find(currentUser.getId(), userOwnedCategory.getId())).thenReturn(Optional.of(userOwnedCategory));
+        when(categoryRegistry.find(currentUser.getId(), 999L)).thenReturn(Optional.empty());
+        when(categoryRepository.findAllById(Set.of(999L))).thenReturn(List.of());
+        when(transactionRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            long id = 100;
+            List<Transaction> saved = new java.util.ArrayList<>();
+            for (Transaction t : (Iterable<Transaction>) invocation.getArgument(0)) {
+                t.setId(id++);
+                saved.add(t);
+            }
+            return saved;
+        });
+
+        // When
+        TransactionBulkResponse response = bulkService().bulkTransactions(TransactionBulkRequest.builder()
+                .create(List.of(valid1, valid2, negative, unknownCategory))
+                .build());
 
+        // Then
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults().get(0).getId()).isEqualTo(100L);
+        assertThat(response.getResults().get(1).getTransaction().getMerchant()).isEqualTo("B");
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Amount must be greater than 0");
+        assertThat(response.getResults().get(3).getError()).isEqualTo("Category not found with id: 999");
+        verify(categoryRepository, times(1)).findAllById(Set.of(999L));
+        verify(categoryRepository, never()).findById(any());
+        verify(transactionRepository, times(1)).saveAll(argThat(list -> ((List<Transaction>) list).size() == 2));
+    }
+
+    @Test
+    void bulkTransactions_shouldUpdateAndDeleteOnlyOwnedTransactions() {
+        // Given
+        mockCurrentUser();
+        Transaction owned = Transaction.builder().id(1L).amount(new BigDecimal("5.00"))
+                .transactionDate(LocalDate.now()).category(userOwnedCategory).user(currentUser).merchant("Old").build();
+        Transaction ownedToDelete = Transaction.builder().id(2L).amount(new BigDecimal("7.00"))
+                .transactionDate(LocalDate.now()).category(userOwnedCategory).user(currentUser).merchant("Gone").build();
+        Transaction foreign = Transaction.builder().id(3L).amount(new BigDecimal("9.00"))
+                .transactionDate(LocalDate.now()).category(userOwnedCategory).user(otherUser).merchant("Other").build();
+
+        when(transactionRepository.findAllById(anyIterable())).thenReturn(List.of(owned, ownedToDelete, foreign));
+        when(transactionRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        TransactionBulkResponse response = bulkService().bulkTransactions(TransactionBulkRequest.builder()
+                .update(List.of(new TransactionBulkUpdate(1L, TransactionUpdateRequest.builder().merchant("New").build())))
+                .delete(List.of(2L, 3L))
+                .build());
+
+        // Then
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getResults().get(2).getError()).isEqualTo("User not authorized for this transaction");
+        assertThat(owned.getMerchant()).isEqualTo("New");
+        assertThat(ownedToDelete.isDeleted()).isTrue();
+        assertThat(foreign.isDeleted()).isFalse();
+        verify(transactionRepository, never()).findById(any());
+    }
+
+    @Test
+    void bulkTransactions_whenIdRepeatsAcrossOperations_shouldRejectEveryOccurrence() {
+        // Given transaction 1 both updated and deleted, and transaction 2 updated twice
+        mockCurrentUser();
+        Transaction other = Transaction.builder().id(4L).amount(new BigDecimal("3.00"))
+                .transactionDate(LocalDate.now()).category(userOwnedCategory).user(currentUser).merchant("Kept").build();
+        when(transactionRepository.findAllById(Set.of(4L))).thenReturn(List.of(other));
+        when(transactionRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        TransactionBulkResponse response = bulkService().bulkTransactions(TransactionBulkRequest.builder()
+                .update(List.of(
+                        new TransactionBulkUpdate(1L, TransactionUpdateRequest.builder().merchant("A").build()),
+                        new TransactionBulkUpdate(2L, TransactionUpdateRequest.builder().merchant("B").build()),
+                        new TransactionBulkUpdate(2L, TransactionUpdateRequest.builder().merchant("C").build())))
+                .delete(List.of(1L, 4L))
+                .build());
+
+        // Then only the delete of the unrepeated id goes through
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(4);
+        assertThat(response.getResults().get(0).getError())
+                .isEqualTo("Transaction ID appears more than once in the request: 1");
+        assertThat(response.getResults().get(2).getError())
+                .isEqualTo("Transaction ID appears more than once in the request: 2");
+        assertThat(response.getResults().get(3).getError())
+                .isEqualTo("Transaction ID appears more than once in the request: 1");
+        assertThat(other.isDeleted()).isTrue();
+        verify(transactionRepository).findAllById(Set.of(4L));
+    }
+}